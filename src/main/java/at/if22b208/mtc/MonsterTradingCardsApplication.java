@@ -1,20 +1,36 @@
 package at.if22b208.mtc;
 
+import at.if22b208.mtc.cache.CardCatalog;
+import at.if22b208.mtc.config.ServerConstants;
 import at.if22b208.mtc.controller.*;
 import at.if22b208.mtc.database.Database;
+import at.if22b208.mtc.database.MigrationRunner;
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+import at.if22b208.mtc.server.ExecutionMode;
 import at.if22b208.mtc.server.Server;
+import at.if22b208.mtc.server.ServerMode;
+import at.if22b208.mtc.server.util.RequestExecutor;
 import at.if22b208.mtc.server.util.Router;
+import at.if22b208.mtc.service.BattleService;
+import at.if22b208.mtc.service.UserService;
+import at.if22b208.mtc.util.BattleExecutor;
+import at.if22b208.mtc.util.HashingExecutor;
+import at.if22b208.mtc.util.MetricsReporter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * The main class for the Monster Trading Cards application.
- * Initializes the database connection and starts the REST server.
+ * Initializes the database connection, migrates the database schema and starts the REST server.
  */
 @Slf4j
 public class MonsterTradingCardsApplication {
 
     /**
-     * Starts the REST-Server listening on port 10001
+     * Starts the REST-Server listening on port 10001.
+     * The connection handling can be selected with the system property {@code mtc.server.mode}
+     * ({@code blocking} or {@code non-blocking}), the request execution with {@code mtc.server.execution}
+     * ({@code fixed-pool} or {@code per-request}, limited by {@code mtc.server.max-in-flight} and
+     * {@code mtc.server.max-queued}). Metrics are logged every {@code mtc.metrics.interval-seconds}.
      *
      * @param args The command-line arguments.
      */
@@ -24,8 +40,33 @@ public class MonsterTradingCardsApplication {
             log.error("Not connected to database, shut down application.");
             return;
         }
+        try {
+            MigrationRunner.getInstance().migrate();
+        } catch (DatabaseTransactionException e) {
+            log.error("Database migration failed, shut down application.", e);
+            Database.getInstance().close();
+            return;
+        }
+
+        ServerMode mode = ServerMode.fromValue(System.getProperty(ServerConstants.SERVER_MODE_PROPERTY),
+                ServerMode.BLOCKING);
+        ExecutionMode executionMode = ExecutionMode.fromValue(
+                System.getProperty(ServerConstants.EXECUTION_MODE_PROPERTY), ExecutionMode.FIXED_POOL);
+        int maxInFlight = Integer.getInteger(ServerConstants.MAX_IN_FLIGHT_PROPERTY,
+                ServerConstants.DEFAULT_MAX_IN_FLIGHT);
+        int maxQueued = Integer.getInteger(ServerConstants.MAX_QUEUED_PROPERTY, ServerConstants.DEFAULT_MAX_QUEUED);
+        RequestExecutor executor = RequestExecutor.of(executionMode, ServerConstants.WORKER_THREADS, maxInFlight,
+                maxQueued);
+        MetricsReporter.getInstance().register("requests", executor::toString);
+        MetricsReporter.getInstance().register("matchmaking", BattleService.getInstance()::getMatchmakingMetrics);
+        MetricsReporter.getInstance().register("connectionPool", Database.getInstance()::getPoolMetrics);
+        MetricsReporter.getInstance().register("userCache", UserService.getInstance()::getCacheMetrics);
+        MetricsReporter.getInstance().register("cardCatalog", CardCatalog.getInstance()::getMetrics);
+        MetricsReporter.getInstance().register("passwordHashing", HashingExecutor.getInstance()::toString);
+        MetricsReporter.getInstance().register("battles", BattleExecutor.getInstance()::toString);
+        MetricsReporter.getInstance().start();
 
-        Server server = new Server(10001, configureRouter());
+        Server server = new Server(ServerConstants.PORT, configureRouter(), mode, executor);
         server.start();
     }
 
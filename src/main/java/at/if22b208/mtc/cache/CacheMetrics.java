@@ -0,0 +1,43 @@
+package at.if22b208.mtc.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the usage of an entity cache.
+ */
+@Data
+@Builder
+public class CacheMetrics {
+    /**
+     * Entries currently cached.
+     */
+    private final int size;
+
+    private final int maxSize;
+
+    /**
+     * Lookups answered from the cache.
+     */
+    private final long hits;
+
+    /**
+     * Lookups that had to be read from the database.
+     */
+    private final long misses;
+
+    /**
+     * Entries removed because the cache was full.
+     */
+    private final long evictions;
+
+    /**
+     * Entries removed because the underlying row was changed.
+     */
+    private final long invalidations;
+
+    public double getHitRatio() {
+        long lookups = this.hits + this.misses;
+        return lookups == 0 ? 0 : (double) this.hits / lookups;
+    }
+}
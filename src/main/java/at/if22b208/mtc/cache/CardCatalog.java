@@ -0,0 +1,89 @@
+package at.if22b208.mtc.cache;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import at.if22b208.mtc.config.CacheConstants;
+import at.if22b208.mtc.entity.Card;
+
+/**
+ * In-memory catalog of card definitions by UUID.
+ *
+ * <p>Name, damage and package of a card never change after the card has been created, so a definition never has
+ * to be invalidated; only the owner is read from the database. Definitions are added as cards are read and are
+ * kept until the catalog is full, beyond that cards are read from the database only.</p>
+ */
+public class CardCatalog {
+    private static CardCatalog INSTANCE;
+
+    private final int maxSize;
+
+    private final Map<UUID, CardDefinition> definitions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    CardCatalog(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Looks up the definition of a card.
+     *
+     * @param uuid The UUID of the card.
+     * @return The definition, or {@code null} if the card is not in the catalog.
+     */
+    public CardDefinition get(UUID uuid) {
+        CardDefinition definition = this.definitions.get(uuid);
+        if (definition == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        return definition;
+    }
+
+    /**
+     * Adds the definition of a card read from the database.
+     *
+     * @param card The card.
+     * @return The definition of the card.
+     */
+    public CardDefinition add(Card card) {
+        CardDefinition definition = CardDefinition.of(card);
+        if (this.definitions.size() < this.maxSize) {
+            this.definitions.putIfAbsent(card.getUuid(), definition);
+        }
+        return definition;
+    }
+
+    /**
+     * Gets a snapshot of the catalog usage.
+     *
+     * @return The cache metrics.
+     */
+    public CacheMetrics getMetrics() {
+        return CacheMetrics.builder()
+                .size(this.definitions.size())
+                .maxSize(this.maxSize)
+                .hits(this.hits.sum())
+                .misses(this.misses.sum())
+                .build();
+    }
+
+    /**
+     * Gets the singleton instance of the {@code CardCatalog}.
+     *
+     * @return The singleton instance of the {@code CardCatalog}.
+     */
+    public static synchronized CardCatalog getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new CardCatalog(Integer.getInteger(CacheConstants.CARD_CATALOG_SIZE_PROPERTY,
+                    CacheConstants.DEFAULT_CARD_CATALOG_SIZE));
+        }
+        return INSTANCE;
+    }
+}
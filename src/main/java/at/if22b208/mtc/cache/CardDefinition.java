@@ -0,0 +1,42 @@
+package at.if22b208.mtc.cache;
+
+import java.util.UUID;
+
+import at.if22b208.mtc.entity.Card;
+import at.if22b208.mtc.entity.CardTraits;
+
+/**
+ * The immutable part of a card: everything except its owner.
+ *
+ * @param uuid      The UUID of the card.
+ * @param damage    The damage value of the card.
+ * @param packageId The ID of the package the card was created in.
+ * @param traits    The traits derived from the card name.
+ */
+public record CardDefinition(UUID uuid, double damage, int packageId, CardTraits traits) {
+    /**
+     * Gets the definition of a card.
+     *
+     * @param card The card.
+     * @return The definition.
+     */
+    public static CardDefinition of(Card card) {
+        return new CardDefinition(card.getUuid(), card.getDamage(), card.getPackageId(), CardTraits.of(card.getName()));
+    }
+
+    /**
+     * Creates a new card instance of this definition.
+     *
+     * @param ownerUuid The UUID of the owner, or {@code null} if the card is not owned.
+     * @return The card.
+     */
+    public Card toCard(UUID ownerUuid) {
+        return Card.builder()
+                .uuid(this.uuid)
+                .traits(this.traits)
+                .damage(this.damage)
+                .packageId(this.packageId)
+                .userUuid(ownerUuid)
+                .build();
+    }
+}
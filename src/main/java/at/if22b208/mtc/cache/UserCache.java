@@ -0,0 +1,158 @@
+package at.if22b208.mtc.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import at.if22b208.mtc.entity.User;
+
+/**
+ * Size-bounded cache of users, keyed by UUID and username, evicting the least recently used user.
+ *
+ * <p>The cache holds snapshots without stack and deck and hands out copies, so callers may modify the returned
+ * users. Entries expire after a fixed time to bound the staleness of rows changed outside the application;
+ * changes made by the application have to {@link #invalidate(User) invalidate} the user. Every invalidation
+ * advances the generation of the cache; a user read before an invalidation is not cached, so a concurrent read
+ * of the old row cannot cache it again after the change.</p>
+ */
+public class UserCache {
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final LinkedHashMap<UUID, Entry> users;
+
+    private final Map<String, UUID> uuidsByUsername = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private long generation;
+
+    public UserCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (size() > UserCache.this.maxSize) {
+                    uuidsByUsername.remove(eldest.getValue().user().getUsername());
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a user by UUID.
+     *
+     * @param uuid The UUID of the user.
+     * @return A copy of the cached user, or {@code null} if the user is not cached.
+     */
+    public synchronized User getById(UUID uuid) {
+        return lookup(uuid);
+    }
+
+    /**
+     * Looks up a user by username.
+     *
+     * @param username The username of the user.
+     * @return A copy of the cached user, or {@code null} if the user is not cached.
+     */
+    public synchronized User getByUsername(String username) {
+        return lookup(this.uuidsByUsername.get(username));
+    }
+
+    /**
+     * Gets the current generation, to be passed to {@link #put(User, long)} for a user read afterwards.
+     *
+     * @return The generation.
+     */
+    public synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Caches a user read from the database, unless a user has been invalidated since the read started.
+     *
+     * @param user       The user.
+     * @param generation The generation of the cache before the user was read.
+     */
+    public void put(User user, long generation) {
+        if (this.maxSize <= 0) {
+            return;
+        }
+        User snapshot = user.toBuilder().stack(null).deck(null).build();
+        synchronized (this) {
+            if (generation != this.generation) {
+                return;
+            }
+            Entry previous = this.users.put(user.getUuid(), new Entry(snapshot, System.currentTimeMillis()));
+            if (previous != null && !previous.user().getUsername().equals(user.getUsername())) {
+                this.uuidsByUsername.remove(previous.user().getUsername());
+            }
+            this.uuidsByUsername.put(user.getUsername(), user.getUuid());
+        }
+    }
+
+    /**
+     * Removes a user whose row has been changed.
+     *
+     * @param user The user.
+     */
+    public synchronized void invalidate(User user) {
+        this.generation++;
+        Entry removed = this.users.remove(user.getUuid());
+        if (removed != null) {
+            this.uuidsByUsername.remove(removed.user().getUsername());
+            this.invalidations.increment();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the cache usage.
+     *
+     * @return The cache metrics.
+     */
+    public CacheMetrics getMetrics() {
+        int size;
+        synchronized (this) {
+            size = this.users.size();
+        }
+        return CacheMetrics.builder()
+                .size(size)
+                .maxSize(this.maxSize)
+                .hits(this.hits.sum())
+                .misses(this.misses.sum())
+                .evictions(this.evictions.sum())
+                .invalidations(this.invalidations.sum())
+                .build();
+    }
+
+    private User lookup(UUID uuid) {
+        Entry entry = uuid == null ? null : this.users.get(uuid);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt() > this.ttlMillis) {
+            this.users.remove(uuid);
+            this.uuidsByUsername.remove(entry.user().getUsername());
+            entry = null;
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return entry.user().toBuilder().build();
+    }
+
+    private record Entry(User user, long loadedAt) {
+    }
+}
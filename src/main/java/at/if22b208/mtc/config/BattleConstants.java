@@ -0,0 +1,28 @@
+package at.if22b208.mtc.config;
+
+public class BattleConstants {
+    private BattleConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Default number of threads simulating battles. Simulating a battle is pure computation.
+     */
+    public static final int DEFAULT_BATTLE_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Default number of battles waiting for a battle thread. Further battles fail and both players are answered
+     * with {@code 503 Service Unavailable}.
+     */
+    public static final int DEFAULT_BATTLE_QUEUE_SIZE = 256;
+
+    /**
+     * System property overriding {@link #DEFAULT_BATTLE_THREADS}.
+     */
+    public static final String BATTLE_THREADS_PROPERTY = "mtc.battle.threads";
+
+    /**
+     * System property overriding {@link #DEFAULT_BATTLE_QUEUE_SIZE}.
+     */
+    public static final String BATTLE_QUEUE_SIZE_PROPERTY = "mtc.battle.queue-size";
+}
@@ -0,0 +1,33 @@
+package at.if22b208.mtc.config;
+
+public class CacheConstants {
+    private CacheConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Default maximum number of users held by the user cache.
+     */
+    public static final int DEFAULT_USER_CACHE_SIZE = 10_000;
+
+    /**
+     * Time after which a cached user is read from the database again, in milliseconds. Bounds the staleness of
+     * rows changed outside the application.
+     */
+    public static final long USER_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Default maximum number of cards held by the card catalog.
+     */
+    public static final int DEFAULT_CARD_CATALOG_SIZE = 1_000_000;
+
+    /**
+     * System property overriding {@link #DEFAULT_USER_CACHE_SIZE}, {@code 0} disables the cache.
+     */
+    public static final String USER_CACHE_SIZE_PROPERTY = "mtc.cache.user-size";
+
+    /**
+     * System property overriding {@link #DEFAULT_CARD_CATALOG_SIZE}, {@code 0} disables the catalog.
+     */
+    public static final String CARD_CATALOG_SIZE_PROPERTY = "mtc.cache.card-catalog-size";
+}
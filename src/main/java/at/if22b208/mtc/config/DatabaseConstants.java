@@ -0,0 +1,88 @@
+package at.if22b208.mtc.config;
+
+public class DatabaseConstants {
+    private DatabaseConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Default maximum number of connections held by the connection pool.
+     */
+    public static final int DEFAULT_POOL_SIZE = 20;
+
+    /**
+     * Maximum time a thread waits for a free connection before the checkout fails, in milliseconds.
+     */
+    public static final long CONNECTION_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Time after which a connection is retired and replaced by a new one, in milliseconds.
+     */
+    public static final long MAX_LIFETIME_MILLIS = 30 * 60 * 1000;
+
+    /**
+     * Time a connection may stay idle in the pool before it is validated again on checkout, in milliseconds.
+     */
+    public static final long VALIDATION_INTERVAL_MILLIS = 5000;
+
+    /**
+     * Timeout of the validation query sent to an idle connection, in seconds.
+     */
+    public static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Time after which a connection that has not been returned to the pool is reported as possible leak,
+     * in milliseconds.
+     */
+    public static final long LEAK_DETECTION_THRESHOLD_MILLIS = 30 * 1000;
+
+    /**
+     * Interval of the pool maintenance (leak detection, retiring expired idle connections), in milliseconds.
+     */
+    public static final long HOUSEKEEPING_INTERVAL_MILLIS = 5000;
+
+    /**
+     * Maximum number of prepared statements cached per connection.
+     */
+    public static final int STATEMENT_CACHE_SIZE = 64;
+
+    /**
+     * Number of executions of a statement after which the PostgreSQL driver switches to a server-side prepared
+     * statement.
+     */
+    public static final int PREPARE_THRESHOLD = 5;
+
+    /**
+     * Number of rows fetched from the database at once by streamed queries.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Maximum number of rows written by a single multi-row insert of a bulk operation.
+     */
+    public static final int BULK_INSERT_SIZE = 10_000;
+
+    /**
+     * Classpath location of the schema migration scripts.
+     */
+    public static final String MIGRATION_LOCATION = "db/migration/";
+
+    /**
+     * The schema migration scripts in the order they are applied. A script is named
+     * {@code V<version>__<description>.sql} and must never be changed once it has been released.
+     */
+    public static final String[] MIGRATIONS = {
+            "V1__create_tables.sql",
+            "V2__deck_card.sql",
+            "V3__indexes.sql",
+            "V4__available_package.sql",
+            "V5__package_id_sequence.sql",
+            "V6__password_iterations.sql",
+            "V7__battle_log.sql"
+    };
+
+    /**
+     * System property overriding {@link #DEFAULT_POOL_SIZE}.
+     */
+    public static final String POOL_SIZE_PROPERTY = "mtc.db.pool-size";
+}
@@ -0,0 +1,39 @@
+package at.if22b208.mtc.config;
+
+public class HashingConstants {
+    private HashingConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Default number of PBKDF2 iterations for new password hashes. Stored passwords keep the count they were
+     * hashed with and are rehashed with the current count on the next login.
+     */
+    public static final int DEFAULT_ITERATIONS = 65_536;
+
+    /**
+     * Default number of threads computing password hashes.
+     */
+    public static final int DEFAULT_HASHING_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Default number of password hashes waiting for a hashing thread. Further requests are rejected with
+     * {@code 503 Service Unavailable}.
+     */
+    public static final int DEFAULT_HASHING_QUEUE_SIZE = 16;
+
+    /**
+     * System property overriding {@link #DEFAULT_ITERATIONS}.
+     */
+    public static final String ITERATIONS_PROPERTY = "mtc.hashing.iterations";
+
+    /**
+     * System property overriding {@link #DEFAULT_HASHING_THREADS}.
+     */
+    public static final String HASHING_THREADS_PROPERTY = "mtc.hashing.threads";
+
+    /**
+     * System property overriding {@link #DEFAULT_HASHING_QUEUE_SIZE}.
+     */
+    public static final String HASHING_QUEUE_SIZE_PROPERTY = "mtc.hashing.queue-size";
+}
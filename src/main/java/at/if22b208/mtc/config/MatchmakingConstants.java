@@ -0,0 +1,32 @@
+package at.if22b208.mtc.config;
+
+public class MatchmakingConstants {
+    private MatchmakingConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Time a player waits in the battle queue for an opponent, in milliseconds.
+     */
+    public static final long MATCHMAKING_TIMEOUT_MILLIS = 60 * 1000;
+
+    /**
+     * Elo gap a player accepts right after entering the battle queue.
+     */
+    public static final int INITIAL_ELO_WINDOW = 50;
+
+    /**
+     * Elo points the accepted gap widens by per second of waiting.
+     */
+    public static final int ELO_WINDOW_GROWTH_PER_SECOND = 25;
+
+    /**
+     * Largest Elo gap a player accepts, however long the player waits.
+     */
+    public static final int MAX_ELO_WINDOW = 800;
+
+    /**
+     * Interval in which waiting players are paired once their windows have widened, in milliseconds.
+     */
+    public static final long SWEEP_INTERVAL_MILLIS = 1000;
+}
@@ -13,6 +13,29 @@ public class MessageConstants {
 
     public static final String BATTLE_DRAW = "Battle resulted in a draw. No winner could be determined.";
 
+    public static final String BATTLE_NO_OPPONENT = "No opponent found, please try again later.";
+
+    public static final String BATTLE_ALREADY_QUEUED = "User is already waiting for a battle.";
+
+    public static final String SERVER_OVERLOADED = "Server is busy, please retry later.";
+
+    public static final String BATTLE_NOT_FOUND = "Battle not found.";
+
+    public static final String BATTLE_NOT_PLAYER = "Only the players of a battle may read its log.";
+
+    public static final String BATTLE_OVERLOADED = "Too many battles in progress, please try again later.";
+
+    // SESSION
+    public static final String SIGNING_KEY_ROTATED = "New session tokens are signed with the provided key.";
+
+    public static final String SIGNING_KEY_INVALID = "The signing key must have a key id and a Base64 secret.";
+
+    public static final String SIGNING_KEY_RETIRED = "Signing key successfully retired.";
+
+    public static final String SIGNING_KEY_NOT_FOUND = "Signing key not found.";
+
+    public static final String SIGNING_KEY_CURRENT = "The current signing key cannot be retired.";
+
     // USER
     public static final String USER_CREATED = "User successfully created.";
 
@@ -26,6 +49,8 @@ public class MessageConstants {
 
     public static final String USER_LOGIN_INVALID_CREDENTIALS = "Invalid username/password provided.";
 
+    public static final String HASHING_OVERLOADED = "Too many login requests, please try again later.";
+
     public static final String INSUFFICIENT_PRIVILEGE = "Provided user is not \"admin\".";
 
     public static final String USER_NO_CARDS = "The request was fine, but the user doesn't have any cards.";
@@ -46,6 +71,8 @@ public class MessageConstants {
 
     public static final String PACKAGE_CARD_ALREADY_EXISTS = "At least one card in the packages already exists.";
 
+    public static final String PACKAGE_INVALID_SIZE = "A package must consist of exactly 5 cards.";
+
     public static final String INSUFFICIENT_FUNDS = "Not enough money for buying a card package.";
 
     public static final String NO_PACKAGE_AVAILABLE = "No card package available for buying.";
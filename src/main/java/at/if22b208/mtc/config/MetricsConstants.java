@@ -0,0 +1,17 @@
+package at.if22b208.mtc.config;
+
+public class MetricsConstants {
+    private MetricsConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Default interval between two reports of the metrics to the log, in seconds.
+     */
+    public static final int DEFAULT_REPORT_INTERVAL_SECONDS = 60;
+
+    /**
+     * System property overriding {@link #DEFAULT_REPORT_INTERVAL_SECONDS}; {@code 0} disables the reports.
+     */
+    public static final String REPORT_INTERVAL_PROPERTY = "mtc.metrics.interval-seconds";
+}
@@ -9,5 +9,7 @@ public class MtcConstants {
 
     public static final BigInteger PACKAGE_COST = BigInteger.valueOf(5L);
 
+    public static final int PACKAGE_SIZE = 5;
+
     public static final int MAX_ROUNDS_PER_BATTLE = 100;
 }
@@ -0,0 +1,70 @@
+package at.if22b208.mtc.config;
+
+public class ServerConstants {
+    private ServerConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    public static final int PORT = 10001;
+
+    /**
+     * Number of threads processing requests (controllers, database access) in the fixed pool execution mode.
+     */
+    public static final int WORKER_THREADS = 10;
+
+    /**
+     * Default maximum of requests processed concurrently in the per-request execution mode.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 200;
+
+    /**
+     * Default maximum of requests waiting for a thread or a permit; further requests are answered with
+     * {@code 503 Service Unavailable}.
+     */
+    public static final int DEFAULT_MAX_QUEUED = 1000;
+
+    /**
+     * Number of selector threads used by the non-blocking server to read and write sockets.
+     */
+    public static final int REACTOR_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Upper bound for the request line and headers of a single request, in bytes.
+     */
+    public static final int MAX_HEADER_SIZE = 16 * 1024;
+
+    /**
+     * Upper bound for the body of a single request, in bytes. The JSON payloads of the API are a few kilobytes.
+     */
+    public static final int MAX_BODY_SIZE = 1024 * 1024;
+
+    /**
+     * Time after which an idle persistent connection is closed, in milliseconds.
+     */
+    public static final int KEEP_ALIVE_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Maximum number of requests served on a single persistent connection before it is closed.
+     */
+    public static final int MAX_REQUESTS_PER_CONNECTION = 100;
+
+    /**
+     * System property used to select the {@link at.if22b208.mtc.server.ServerMode}.
+     */
+    public static final String SERVER_MODE_PROPERTY = "mtc.server.mode";
+
+    /**
+     * System property used to select the {@link at.if22b208.mtc.server.ExecutionMode}.
+     */
+    public static final String EXECUTION_MODE_PROPERTY = "mtc.server.execution";
+
+    /**
+     * System property overriding {@link #DEFAULT_MAX_IN_FLIGHT}.
+     */
+    public static final String MAX_IN_FLIGHT_PROPERTY = "mtc.server.max-in-flight";
+
+    /**
+     * System property overriding {@link #DEFAULT_MAX_QUEUED}.
+     */
+    public static final String MAX_QUEUED_PROPERTY = "mtc.server.max-queued";
+}
@@ -0,0 +1,40 @@
+package at.if22b208.mtc.config;
+
+public class SessionConstants {
+    private SessionConstants() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Time after which a session expires, in milliseconds.
+     */
+    public static final long SESSION_TIMEOUT_MILLIS = 30 * 60 * 1000;
+
+    /**
+     * Username of the user granted the {@link at.if22b208.mtc.server.session.Role#ADMIN} role.
+     */
+    public static final String ADMIN_USERNAME = "admin";
+
+    /**
+     * Algorithm used to sign session tokens.
+     */
+    public static final String SIGNING_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Minimum length of a signing key, in bytes.
+     */
+    public static final int MIN_SIGNING_KEY_LENGTH = 32;
+
+    /**
+     * System property holding the Base64 encoded key used to sign session tokens. All instances serving the same
+     * clients must share the key; without it, every instance generates its own key on startup.
+     */
+    public static final String SIGNING_KEY_PROPERTY = "mtc.session.signing-key";
+
+    /**
+     * System property holding the id of the key in {@link #SIGNING_KEY_PROPERTY}.
+     */
+    public static final String SIGNING_KEY_ID_PROPERTY = "mtc.session.signing-key-id";
+
+    public static final String DEFAULT_SIGNING_KEY_ID = "default";
+}
@@ -1,20 +1,32 @@
 package at.if22b208.mtc.controller;
 
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import at.if22b208.mtc.config.MessageConstants;
 import at.if22b208.mtc.database.Transaction;
-import at.if22b208.mtc.entity.Battle;
+import at.if22b208.mtc.dto.battle.BattleRoundDto;
+import at.if22b208.mtc.entity.BattleKernel;
+import at.if22b208.mtc.entity.BattleLog;
+import at.if22b208.mtc.entity.BattleResult;
 import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
-import at.if22b208.mtc.server.Controller;
+import at.if22b208.mtc.exception.MatchmakingException;
+import at.if22b208.mtc.server.AsyncController;
 import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.Method;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.BattleService;
 import at.if22b208.mtc.service.UserService;
-import at.if22b208.mtc.util.EloSystem;
+import at.if22b208.mtc.util.JsonUtils;
 import at.if22b208.mtc.util.ResponseUtils;
 import at.if22b208.mtc.util.SessionUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -23,7 +35,7 @@ import lombok.extern.slf4j.Slf4j;
  * Controller responsible for handling battle-related requests.
  */
 @Slf4j
-public class BattleController implements Controller {
+public class BattleController implements AsyncController {
     private static BattleController INSTANCE;
 
     private BattleController() {
@@ -31,95 +43,151 @@ public class BattleController implements Controller {
     }
 
     /**
-     * Handles the request to wait for a battle to be ready.
+     * Enters the battle queue and maps the result of the battle to the response.
      *
      * @param user The user waiting for the battle.
-     * @return Response indicating the outcome of the battle.
+     * @return The future completed with the response indicating the outcome of the battle.
      */
-    private Response waitForBattleToBeReady(User user)
-            throws DatabaseTransactionException {
-        try {
-            Battle battle = BattleService.getInstance().enterBattleQueue(user);
-
-            if (battle.isDraw()) {
-                return ResponseUtils.ok(ContentType.PLAIN_TEXT, MessageConstants.BATTLE_DRAW);
+    private CompletableFuture<Response> waitForBattleToBeReady(User user)
+            throws MatchmakingException {
+        CompletableFuture<BattleResult> result = BattleService.getInstance().enterBattleQueue(user);
+        CompletableFuture<Response> response = result.handle((battle, e) -> {
+            if (e == null) {
+                return toResponse(battle);
             }
-
-            User playerA = battle.getPlayerA();
-            User playerB = battle.getPlayerB();
-
-            // Calculate new ELO ratings
-            EloSystem.updateRatings(playerA, playerB, isPlayerAWon(battle));
-
-            // Persist new ELO ratings
-            updateUserStatisticData(playerA);
-            updateUserStatisticData(playerB);
-
-            int roundsPlayed = battle.getRounds().size();
-            return ResponseUtils.ok(ContentType.PLAIN_TEXT,
-                    "Rounds played: " + roundsPlayed + ", Winner is: " + battle.getWinner().getUsername());
-        } catch (InterruptedException e) {
-            return ResponseUtils.error(":D"); // Handle InterruptedException with an error response.
-        }
+            if (e instanceof TimeoutException) {
+                return ResponseUtils.noContent(MessageConstants.BATTLE_NO_OPPONENT);
+            }
+            if (e instanceof RejectedExecutionException) {
+                return ResponseUtils.serviceUnavailable(MessageConstants.BATTLE_OVERLOADED);
+            }
+            log.error("Battle failed: {}", e.getMessage());
+            return ResponseUtils.error("Error performing battle. See logs for further information.");
+        });
+        // Cancelling the response, e.g. because the client disconnected, leaves the queue
+        response.whenComplete((ignored, e) -> {
+            if (e instanceof CancellationException) {
+                result.cancel(false);
+            }
+        });
+        return response;
     }
 
     /**
-     * Checks if player A won the battle.
+     * Retrieves the log of a battle one of the players or an admin asks for, rendering the stored rounds only
+     * now.
      *
-     * @param battle The Battle object representing the battle.
-     * @return True if player A won, false otherwise.
+     * @param session The session of the user.
+     * @param uuid    The UUID of the battle.
+     * @param type    The format of the log (e.g., "format=plain"), JSON otherwise.
+     * @return Response containing the rounds of the battle in the specified format.
      */
-    private static boolean isPlayerAWon(Battle battle) {
-        return battle.getWinner().getUuid() == battle.getPlayerA().getUuid();
+    private Response getBattleLog(UserSession session, UUID uuid, String type)
+            throws DatabaseTransactionException, JsonProcessingException {
+        BattleLog battleLog = BattleService.getInstance().getLog(uuid);
+        if (battleLog == null) {
+            return ResponseUtils.notFound(MessageConstants.BATTLE_NOT_FOUND);
+        }
+        if (!battleLog.isPlayer(session.getUserUuid()) && !session.isAdmin()) {
+            return ResponseUtils.forbidden(MessageConstants.BATTLE_NOT_PLAYER);
+        }
+
+        BattleRoundDto[] rounds = new BattleRoundDto[battleLog.size()];
+        for (int i = 0; i < rounds.length; i++) {
+            int winner = battleLog.getWinner(i);
+            rounds[i] = new BattleRoundDto(
+                    battleLog.getNumber(i),
+                    battleLog.getCardName(i, BattleKernel.PLAYER_A),
+                    battleLog.getDamage(i, BattleKernel.PLAYER_A),
+                    battleLog.getCardName(i, BattleKernel.PLAYER_B),
+                    battleLog.getDamage(i, BattleKernel.PLAYER_B),
+                    winner == BattleKernel.NONE ? null : battleLog.getCardName(i, winner));
+        }
+
+        if ("format=plain".equalsIgnoreCase(type)) {
+            // Return the log in plain text format, one round per line
+            StringBuilder b = new StringBuilder();
+            for (BattleRoundDto round : rounds) {
+                b.append("Round ").append(round.round()).append(": ")
+                        .append(round.cardA()).append(" (").append(round.damageA()).append(") vs ")
+                        .append(round.cardB()).append(" (").append(round.damageB()).append(") => ")
+                        .append(round.winnerCard() == null ? "draw" : round.winnerCard() + " wins")
+                        .append('\n');
+            }
+            return ResponseUtils.ok(ContentType.PLAIN_TEXT, b.toString());
+        }
+        // Return the log in JSON format
+        return ResponseUtils.ok(ContentType.JSON, JsonUtils.getJsonStringFromArray(rounds));
     }
 
     /**
-     * Updates the user's statistics data after a battle, including Elo rating.
+     * Creates the response describing the outcome of a battle.
      *
-     * @param user The User object representing the player.
+     * @param battle The result of the battle.
+     * @return Response indicating the outcome of the battle.
      */
-    private static void updateUserStatisticData(User user)
-            throws DatabaseTransactionException {
-        UserService.getInstance().updateElo(user);
+    private static Response toResponse(BattleResult battle) {
+        String log = " Log: /battles/" + battle.getUuid() + "/log";
+        if (battle.isDraw()) {
+            return ResponseUtils.ok(ContentType.PLAIN_TEXT, MessageConstants.BATTLE_DRAW + log);
+        }
+        return ResponseUtils.ok(ContentType.PLAIN_TEXT,
+                "Rounds played: " + battle.getRoundsPlayed() + ", Winner is: " + battle.getWinner().getUsername() +
+                        "," + log);
     }
 
     /**
-     * Handles the incoming HTTP request for battles.
+     * Handles the incoming HTTP request for battles. Waiting for an opponent occupies no request thread.
      *
      * @param request The incoming HTTP request.
-     * @return Response indicating the outcome of the request.
-     * @throws JsonProcessingException If JSON processing error occurs.
+     * @return The future completed with the response indicating the outcome of the request.
      */
     @Override
-    public Response handleRequest(Request request)
-            throws JsonProcessingException {
-        if (!SessionUtils.isAuthorized(request.getHeader())) {
-            return ResponseUtils.unauthorized();
+    public CompletableFuture<Response> handleRequestAsync(Request request) {
+        Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+        if (session.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseUtils.unauthorized());
         }
 
         String root = request.getRoot();
-        Transaction transaction = new Transaction();
-        try {
-            if (root.equalsIgnoreCase("battles") && request.getMethod() == Method.POST) {
-                // Retrieve the username from the user session
-                String username = SessionUtils.getUsernameFromHeader(request.getHeader());
-                User user = UserService.getInstance().getByUsername(username);
-
-                Response response = waitForBattleToBeReady(user);
+        if (root.equalsIgnoreCase("battles") && request.getMethod() == Method.GET &&
+                request.getPathParts().size() == 3 && "log".equalsIgnoreCase(request.getPathParts().get(2))) {
+            try (Transaction transaction = new Transaction()) {
+                Response response = getBattleLog(session.get(), UUID.fromString(request.getPathParts().get(1)),
+                        request.getParams());
                 transaction.commit();
 
-                return response;
+                return CompletableFuture.completedFuture(response);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(ResponseUtils.notFound(MessageConstants.BATTLE_NOT_FOUND));
+            } catch (DatabaseTransactionException | JsonProcessingException e) {
+                return CompletableFuture.completedFuture(
+                        ResponseUtils.error("Error performing database transaction. See logs for further information."));
             }
-        } catch (DatabaseTransactionException e) {
+        }
+
+        if (root.equalsIgnoreCase("battles") && request.getMethod() == Method.POST) {
+            // Retrieve the user of the session; the battle itself runs outside the transaction
+            User user;
+            try (Transaction transaction = new Transaction()) {
+                user = UserService.getInstance().getByIdWithDeck(session.get().getUserUuid());
+                transaction.commit();
+            } catch (DatabaseTransactionException e) {
+                return CompletableFuture.completedFuture(
+                        ResponseUtils.error("Error performing database transaction. See logs for further information."));
+            }
+            if (user == null) {
+                return CompletableFuture.completedFuture(ResponseUtils.notFound(MessageConstants.USER_NOT_FOUND));
+            }
+
             try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
+                return waitForBattleToBeReady(user);
+            } catch (MatchmakingException e) {
+                return CompletableFuture.completedFuture(ResponseUtils.conflict(MessageConstants.BATTLE_ALREADY_QUEUED));
             }
-            return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
 
-        return ResponseUtils.notImplemented();
+        return CompletableFuture.completedFuture(ResponseUtils.notImplemented());
     }
 
     /**
@@ -1,6 +1,7 @@
 package at.if22b208.mtc.controller;
 
 import java.util.List;
+import java.util.Optional;
 
 import at.if22b208.mtc.config.MessageConstants;
 import at.if22b208.mtc.database.Transaction;
@@ -12,6 +13,7 @@ import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.Method;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.CardService;
 import at.if22b208.mtc.service.UserService;
 import at.if22b208.mtc.util.JsonUtils;
@@ -57,15 +59,14 @@ public class CardController implements Controller {
     @Override
     public Response handleRequest(Request request) {
         // Check if the request is authorized
-        if (!SessionUtils.isAuthorized(request.getHeader())) {
+        Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+        if (session.isEmpty()) {
             return ResponseUtils.unauthorized();
         }
 
-        Transaction transaction = new Transaction();
-        try {
-            // Retrieve the username from the user session
-            String username = SessionUtils.getUsernameFromHeader(request.getHeader());
-            User user = UserService.getInstance().getByUsername(username);
+        try (Transaction transaction = new Transaction()) {
+            // Retrieve the user of the session
+            User user = UserService.getInstance().getById(session.get().getUserUuid());
             // Check if the user is not found
             if (user == null) {
                 return ResponseUtils.notFound(MessageConstants.USER_NOT_FOUND);
@@ -79,11 +80,6 @@ public class CardController implements Controller {
                 return response;
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
 
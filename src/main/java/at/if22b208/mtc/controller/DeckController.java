@@ -1,22 +1,23 @@
 package at.if22b208.mtc.controller;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import at.if22b208.mtc.config.MessageConstants;
 import at.if22b208.mtc.database.Transaction;
 import at.if22b208.mtc.entity.Card;
-import at.if22b208.mtc.entity.TradingDeal;
 import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
 import at.if22b208.mtc.server.Controller;
 import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.CardService;
 import at.if22b208.mtc.service.TradingDealService;
 import at.if22b208.mtc.service.UserService;
@@ -37,15 +38,15 @@ public class DeckController implements Controller {
     }
 
     /**
-     * Retrieves the user's deck based on the specified username and type.
+     * Retrieves the user's deck based on the specified user and type.
      *
-     * @param username The username of the user for whom to retrieve the deck.
+     * @param userUuid The UUID of the user for whom to retrieve the deck.
      * @param type     The type of deck format (e.g., "format=plain").
      * @return Response containing the deck information in the specified format.
      */
-    private Response getDeck(String username, String type)
+    private Response getDeck(UUID userUuid, String type)
             throws DatabaseTransactionException {
-        User user = UserService.getInstance().getByUsername(username);
+        User user = UserService.getInstance().getById(userUuid);
         if (user == null) {
             return ResponseUtils.notFound(MessageConstants.USER_NOT_FOUND);
         }
@@ -66,15 +67,15 @@ public class DeckController implements Controller {
     }
 
     /**
-     * Configures the user's deck based on the specified username and card UUIDs.
+     * Configures the user's deck based on the specified user and card UUIDs.
      *
-     * @param username The username of the user for whom to configure the deck.
+     * @param userUuid The UUID of the user for whom to configure the deck.
      * @param uuids    List of UUIDs representing the cards to include in the deck.
      * @return Response indicating the success or failure of the deck configuration.
      */
-    private Response configureDeck(String username, List<UUID> uuids)
+    private Response configureDeck(UUID userUuid, List<UUID> uuids)
             throws DatabaseTransactionException {
-        User user = UserService.getInstance().getByUsername(username);
+        User user = UserService.getInstance().getById(userUuid);
         if (user == null) {
             return ResponseUtils.notFound(MessageConstants.USER_NOT_FOUND);
         }
@@ -84,22 +85,13 @@ public class DeckController implements Controller {
             return ResponseUtils.badRequest(MessageConstants.CONFIGURE_DECK_FAILURE);
         }
 
-        Set<UUID> ownedCards = CardService.getInstance().getAllByOwner(user)
+        Map<UUID, Card> ownedCards = CardService.getInstance().getAllByOwner(user)
                 .stream()
-                .map(Card::getUuid)
-                .collect(Collectors.toUnmodifiableSet());
+                .collect(Collectors.toUnmodifiableMap(Card::getUuid, Function.identity()));
 
-        if (ownedCards.containsAll(uuids) && !hasCardLockedInTradingDeal(uuids)) {
+        if (ownedCards.keySet().containsAll(uuids) && !hasCardLockedInTradingDeal(uuids)) {
             // Set the user's deck with the specified card UUIDs
-            List<Card> list = new ArrayList<>();
-
-            CardService cardService = CardService.getInstance();
-            for (UUID uuid : uuids) {
-                Card byId = cardService.getById(uuid);
-                list.add(byId);
-            }
-
-            user.setDeck(list);
+            user.setDeck(uuids.stream().map(ownedCards::get).toList());
             UserService.getInstance().updateDeck(user);
             return ResponseUtils.ok(ContentType.PLAIN_TEXT, MessageConstants.CONFIGURE_DECK);
         }
@@ -115,46 +107,36 @@ public class DeckController implements Controller {
      */
     private boolean hasCardLockedInTradingDeal(List<UUID> uuids)
             throws DatabaseTransactionException {
-        List<TradingDeal> deals = TradingDealService.getInstance().getAll();
-        return deals.stream()
-                .map(TradingDeal::getCardUuid)
-                .toList().stream()
-                .anyMatch(uuids::contains);
+        return TradingDealService.getInstance().isAnyCardLocked(uuids);
     }
 
     @Override
     public Response handleRequest(Request request) {
         // Check if the request is authorized
-        if (!SessionUtils.isAuthorized(request.getHeader())) {
+        Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+        if (session.isEmpty()) {
             return ResponseUtils.unauthorized();
         }
 
-        // Retrieve the username from the user session
-        String username = SessionUtils.getUsernameFromHeader(request.getHeader());
+        UUID userUuid = session.get().getUserUuid();
 
         String root = request.getRoot();
         Response response = ResponseUtils.notImplemented();
 
-        Transaction transaction = new Transaction();
-        try {
+        try (Transaction transaction = new Transaction()) {
             if ("deck".equals(root)) {
                 switch (request.getMethod()) {
                 case GET -> {
-                    response = getDeck(username, request.getParams());
+                    response = getDeck(userUuid, request.getParams());
                     transaction.commit();
                 }
                 case PUT -> {
-                    response = configureDeck(username, JsonUtils.getListFromJsonString(request.getBody(), UUID.class));
+                    response = configureDeck(userUuid, JsonUtils.getListFromJsonString(request.getBody(), UUID.class));
                     transaction.commit();
                 }
                 }
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
 
@@ -1,8 +1,11 @@
 package at.if22b208.mtc.controller;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import at.if22b208.mtc.config.MessageConstants;
+import at.if22b208.mtc.config.MtcConstants;
 import at.if22b208.mtc.database.Transaction;
 import at.if22b208.mtc.dto.card.CardDto;
 import at.if22b208.mtc.entity.Card;
@@ -12,6 +15,7 @@ import at.if22b208.mtc.server.Controller;
 import at.if22b208.mtc.server.http.Method;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.CardService;
 import at.if22b208.mtc.util.JsonUtils;
 import at.if22b208.mtc.util.ResponseUtils;
@@ -31,32 +35,51 @@ public class PackageController implements Controller {
     }
 
     /**
-     * Creates a new card package based on the provided list of card data transfer objects (DTOs).
-     * Each card in the list is converted to an entity and associated with the generated package UUID.
-     * If a card with the same UUID already exists in the database, a conflict response is returned.
+     * Creates card packages based on the provided lists of card data transfer objects (DTOs), one list per
+     * package. Every package gets a new package ID and is added to the queue of packages available for buying.
+     * If a card with the same UUID already exists in the database, a conflict response is returned and no package
+     * is created.
      *
-     * @param cardDtoList The list of card DTOs to be included in the package.
+     * @param packages    The card DTOs of every package.
+     * @param transaction The transaction creating the packages.
      * @return A response indicating the success or failure of the package creation.
      */
-    private Response createPackage(List<CardDto> cardDtoList)
+    private Response createPackages(List<List<CardDto>> packages, Transaction transaction)
             throws DatabaseTransactionException {
-        int packageId = CardService.getInstance().getNextPackageId();
-
-        for (CardDto dto : cardDtoList) {
-            Card card = CardMapper.INSTANCE.map(dto);
-            card.setPackageId(packageId);
+        if (packages.isEmpty()) {
+            return ResponseUtils.badRequest(MessageConstants.PACKAGE_INVALID_SIZE);
+        }
 
-            try {
-                CardService.getInstance().create(card);
-            } catch (InvalidPackageException e) {
-                // Log the exception and return a conflict response.
-                log.error("Error creating card package: {}", e.getMessage());
-                return ResponseUtils.conflict(MessageConstants.PACKAGE_CARD_ALREADY_EXISTS);
+        List<List<Card>> cards = new ArrayList<>(packages.size());
+        for (List<CardDto> dtoList : packages) {
+            if (dtoList == null || dtoList.size() != MtcConstants.PACKAGE_SIZE) {
+                return ResponseUtils.badRequest(MessageConstants.PACKAGE_INVALID_SIZE);
             }
+            cards.add(dtoList.stream().map(CardMapper.INSTANCE::map).toList());
+        }
+
+        try {
+            CardService.getInstance().createPackages(cards);
+        } catch (InvalidPackageException e) {
+            // Log the exception, discard the cards created so far and return a conflict response.
+            log.error("Error creating card packages: {}", e.getMessage());
+            transaction.rollback();
+            return ResponseUtils.conflict(MessageConstants.PACKAGE_CARD_ALREADY_EXISTS);
         }
         return ResponseUtils.created(MessageConstants.PACKAGE_CREATED);
     }
 
+    /**
+     * Checks whether the body is a JSON array of packages, i.e. an array of arrays, rather than a single package.
+     *
+     * @param body The request body.
+     * @return True if the body contains several packages.
+     */
+    private boolean isPackageList(String body) {
+        String trimmed = body.strip();
+        return trimmed.startsWith("[") && trimmed.substring(1).stripLeading().startsWith("[");
+    }
+
     /**
      * Handles incoming HTTP requests related to card packages. It validates the authorization,
      * checks for admin privileges, and processes POST requests for creating packages.
@@ -67,26 +90,28 @@ public class PackageController implements Controller {
     @Override
     public Response handleRequest(Request request) {
         // Check if the request is authorized
-        if (!SessionUtils.isAuthorized(request.getHeader())) {
+        Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+        if (session.isEmpty()) {
             return ResponseUtils.unauthorized();
         }
 
         // Validate admin privileges
-        String token = SessionUtils.getBearerToken(request.getHeader());
-        if (token == null || !token.startsWith("admin")) {
+        if (!session.get().isAdmin()) {
             return ResponseUtils.forbidden(MessageConstants.INSUFFICIENT_PRIVILEGE);
         }
 
-        Transaction transaction = new Transaction();
-        try {
+        try (Transaction transaction = new Transaction()) {
             String root = request.getRoot();
             if (root.equalsIgnoreCase("packages")) {
                 if (request.getMethod() == Method.POST) {
                     if (request.getPathParts().size() == 1) {
                         String body = request.getBody().toLowerCase();
-                        List<CardDto> dtoList = JsonUtils.getListFromJsonString(body, CardDto.class);
+                        // Either a single package or, for bulk ingestion, an array of packages
+                        List<List<CardDto>> packages = isPackageList(body) ?
+                                JsonUtils.getNestedListFromJsonString(body, CardDto.class) :
+                                List.of(JsonUtils.getListFromJsonString(body, CardDto.class));
 
-                        Response response = createPackage(dtoList);
+                        Response response = createPackages(packages, transaction);
                         transaction.commit();
 
                         return response;
@@ -94,11 +119,6 @@ public class PackageController implements Controller {
                 }
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
 
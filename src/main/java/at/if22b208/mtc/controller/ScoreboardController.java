@@ -1,13 +1,13 @@
 package at.if22b208.mtc.controller;
 
-import java.util.Comparator;
-import java.util.List;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import at.if22b208.mtc.database.Transaction;
-import at.if22b208.mtc.dto.user.UserStatsDto;
-import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
 import at.if22b208.mtc.server.Controller;
 import at.if22b208.mtc.server.http.ContentType;
@@ -38,13 +38,23 @@ public class ScoreboardController implements Controller {
      * @return Response containing the scoreboard in JSON format.
      */
     private Response getScoreboard()
-            throws DatabaseTransactionException {
-        List<User> users = UserService.getInstance().getAll();
-        List<UserStatsDto> dtos = users.stream()
-                .map(UserMapper.INSTANCE::mapToUserStatsDto)
-                .sorted(Comparator.comparing(UserStatsDto::elo).reversed())
-                .toList();
-        return ResponseUtils.ok(ContentType.JSON, JsonUtils.getJsonStringFromArray(dtos.toArray()));
+            throws DatabaseTransactionException, IOException {
+        // The database sorts the users, each user is written to the response body as it is read
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = JsonUtils.createGenerator(json)) {
+            generator.writeStartArray();
+            UserService.getInstance().forEachByElo(user -> {
+                try {
+                    generator.writeObject(UserMapper.INSTANCE.mapToUserStatsDto(user));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return ResponseUtils.ok(ContentType.JSON, json.toString());
     }
 
     /**
@@ -58,13 +68,12 @@ public class ScoreboardController implements Controller {
     public Response handleRequest(Request request)
             throws JsonProcessingException {
         // Check if the request is authorized
-        if (!SessionUtils.isAuthorized(request.getHeader())) {
+        if (SessionUtils.getSession(request.getHeader()).isEmpty()) {
             return ResponseUtils.unauthorized();
         }
 
         String root = request.getRoot();
-        Transaction transaction = new Transaction();
-        try {
+        try (Transaction transaction = new Transaction()) {
             if (root.equalsIgnoreCase("scoreboard") && request.getMethod() == Method.GET) {
                 Response response = this.getScoreboard();
                 transaction.commit();
@@ -72,12 +81,12 @@ public class ScoreboardController implements Controller {
                 return response;
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            log.error("Error writing scoreboard: {}", e.getMessage());
+            return ResponseUtils.error("Error writing scoreboard. See logs for further information.");
         }
 
         return ResponseUtils.notImplemented();
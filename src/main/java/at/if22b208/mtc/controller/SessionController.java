@@ -1,27 +1,39 @@
 package at.if22b208.mtc.controller;
 
+import java.util.Base64;
 import java.util.Objects;
+import java.util.Optional;
 
 import at.if22b208.mtc.config.MessageConstants;
 import at.if22b208.mtc.database.Transaction;
+import at.if22b208.mtc.dto.session.SigningKeyDto;
 import at.if22b208.mtc.dto.user.UserCredentialsDto;
 import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
 import at.if22b208.mtc.exception.HashingException;
+import at.if22b208.mtc.exception.HashingRejectedException;
 import at.if22b208.mtc.server.Controller;
 import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.Method;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
 import at.if22b208.mtc.server.session.SessionManager;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.UserService;
+import at.if22b208.mtc.util.HashingExecutor;
 import at.if22b208.mtc.util.HashingUtils;
 import at.if22b208.mtc.util.JsonUtils;
 import at.if22b208.mtc.util.ResponseUtils;
+import at.if22b208.mtc.util.SessionUtils;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Controller class for handling user sessions and login functionality.
+ *
+ * <p>The admin rotates the key signing the session tokens with {@code POST /sessions/keys} and invalidates the
+ * tokens of a previous key with {@code DELETE /sessions/keys/<key id>}. Keys are held in memory, so each instance
+ * has to be rotated and a restart falls back to {@link at.if22b208.mtc.config.SessionConstants#SIGNING_KEY_PROPERTY}.
+ * </p>
  */
 @Slf4j
 public class SessionController implements Controller {
@@ -34,33 +46,132 @@ public class SessionController implements Controller {
     /**
      * Attempts to log in a user with the provided username and password.
      *
+     * <p>The password is hashed on the {@link HashingExecutor} while no database connection is held. If the
+     * executor is saturated, the login is rejected with {@code 503 Service Unavailable}.</p>
+     *
      * @param credentialsDto The {@link UserCredentialsDto} containing username and password.
      * @return A {@link Response} object representing the result of the login attempt.
      */
     private Response login(UserCredentialsDto credentialsDto)
             throws DatabaseTransactionException {
         try {
-            // Hash the provided password
-            String hash = HashingUtils.hash(credentialsDto.getPassword(),
-                    HashingUtils.generateSalt(credentialsDto.getUsername()));
             // Retrieve the user by username
             User user = UserService.getInstance().getByUsername(credentialsDto.getUsername());
+            // Unknown users are hashed as well, so the response time does not reveal which accounts exist
+            int iterations = user != null ? user.getPasswordIterations() : HashingUtils.getIterations();
+            String hash = HashingExecutor.getInstance().hash(credentialsDto.getPassword(),
+                    HashingUtils.generateSalt(credentialsDto.getUsername()), iterations);
             if (user != null && Objects.equals(user.getUsername(), credentialsDto.getUsername()) && Objects.equals(
                     user.getPassword(), hash)) {
                 // Successful login
-                String token = SessionManager.createSession(user.getUsername());
+                rehashIfOutdated(user, credentialsDto.getPassword());
+                String token = SessionManager.getInstance().createSession(user);
                 return ResponseUtils.ok(ContentType.JSON, JsonUtils.getJsonStringFromObject(token));
             }
 
         } catch (HashingException e) {
             // Log a warning in case of a hashing error
             log.warn("Error during login for username '{}': {}", credentialsDto.getUsername(), e.getMessage());
+        } catch (HashingRejectedException e) {
+            return ResponseUtils.serviceUnavailable(MessageConstants.HASHING_OVERLOADED);
         }
         // Unsuccessful login
         // Not exposing information about already existing accounts or whether username or password is not matching
         return ResponseUtils.unauthorized(MessageConstants.USER_LOGIN_INVALID_CREDENTIALS);
     }
 
+    /**
+     * Rehashes the password of the user if it was hashed with another number of iterations than configured, which
+     * is the only point in time the plain password is known.
+     *
+     * @param user     The logged-in user.
+     * @param password The verified plain password.
+     */
+    private void rehashIfOutdated(User user, String password)
+            throws DatabaseTransactionException {
+        int iterations = HashingUtils.getIterations();
+        if (user.getPasswordIterations() == iterations) {
+            return;
+        }
+        try {
+            user.setPassword(HashingExecutor.getInstance().hash(password,
+                    HashingUtils.generateSalt(user.getUsername()), iterations));
+            user.setPasswordIterations(iterations);
+        } catch (HashingException | HashingRejectedException e) {
+            // Try again on the next login
+            log.debug("Password of '{}' not rehashed: {}", user.getUsername(), e.getMessage());
+            return;
+        }
+        try (Transaction transaction = new Transaction()) {
+            UserService.getInstance().updatePassword(user);
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Signs all new session tokens with the given key. Tokens signed with previous keys stay valid until the keys
+     * are retired.
+     *
+     * @param keyDto The {@link SigningKeyDto} containing key id and Base64 encoded secret.
+     * @return A response indicating the result of the rotation.
+     */
+    private Response rotateKey(SigningKeyDto keyDto) {
+        if (keyDto == null || keyDto.getSecret() == null) {
+            return ResponseUtils.badRequest(MessageConstants.SIGNING_KEY_INVALID);
+        }
+        try {
+            SessionManager.getInstance().rotateKey(keyDto.getKeyId(), Base64.getDecoder().decode(keyDto.getSecret()));
+        } catch (IllegalArgumentException e) {
+            // Invalid Base64, key id or key length
+            return ResponseUtils.badRequest(MessageConstants.SIGNING_KEY_INVALID);
+        }
+        return ResponseUtils.created(MessageConstants.SIGNING_KEY_ROTATED);
+    }
+
+    /**
+     * Retires a signing key, so tokens signed with it are no longer accepted.
+     *
+     * @param keyId The id of the key.
+     * @return A response indicating the result of retiring the key.
+     */
+    private Response retireKey(String keyId) {
+        try {
+            if (!SessionManager.getInstance().retireKey(keyId)) {
+                return ResponseUtils.notFound(MessageConstants.SIGNING_KEY_NOT_FOUND);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseUtils.conflict(MessageConstants.SIGNING_KEY_CURRENT);
+        }
+        log.info("Retired session signing key '{}'.", keyId);
+        return ResponseUtils.ok(ContentType.PLAIN_TEXT, MessageConstants.SIGNING_KEY_RETIRED);
+    }
+
+    /**
+     * Handles the admin requests managing the session signing keys.
+     *
+     * @param request The incoming HTTP request to be handled.
+     * @return A response indicating the result of processing the request.
+     */
+    private Response handleKeyRequest(Request request) {
+        Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+        if (session.isEmpty()) {
+            return ResponseUtils.unauthorized();
+        }
+        if (!session.get().isAdmin()) {
+            return ResponseUtils.forbidden(MessageConstants.INSUFFICIENT_PRIVILEGE);
+        }
+
+        int size = request.getPathParts().size();
+        if (request.getMethod() == Method.POST && size == 2) {
+            return rotateKey(JsonUtils.getObjectFromJsonString(request.getCaseSensitiveBody(), SigningKeyDto.class));
+        }
+        if (request.getMethod() == Method.DELETE && size == 3) {
+            // The key id is case-sensitive, so it is not taken from the lowercased path helpers
+            return retireKey(request.getPathParts().get(2));
+        }
+        return ResponseUtils.notImplemented();
+    }
+
     /**
      * Handles incoming HTTP requests related to user sessions and login.
      *
@@ -71,7 +182,6 @@ public class SessionController implements Controller {
     public Response handleRequest(Request request) {
         String root = request.getRoot();
 
-        Transaction transaction = new Transaction();
         try {
             if (root.equalsIgnoreCase("sessions") && request.getMethod() == Method.POST &&
                     request.getPathParts().size() == 1) {
@@ -81,17 +191,14 @@ public class SessionController implements Controller {
                     return ResponseUtils.notImplemented();
                 }
 
-                Response response = login(dto);
-                transaction.commit();
-
-                return response;
+                // No transaction, the user is read in auto-commit mode before hashing
+                return login(dto);
             }
-        } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
+            if (root.equalsIgnoreCase("sessions") && request.getPathParts().size() > 1 &&
+                    request.getPathParts().get(1).equalsIgnoreCase("keys")) {
+                return handleKeyRequest(request);
             }
+        } catch (DatabaseTransactionException e) {
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
         return ResponseUtils.notImplemented();
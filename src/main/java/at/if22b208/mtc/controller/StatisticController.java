@@ -1,5 +1,8 @@
 package at.if22b208.mtc.controller;
 
+import java.util.Optional;
+import java.util.UUID;
+
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import at.if22b208.mtc.database.Transaction;
@@ -11,6 +14,7 @@ import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.Method;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.UserService;
 import at.if22b208.mtc.util.JsonUtils;
 import at.if22b208.mtc.util.ResponseUtils;
@@ -30,14 +34,14 @@ public class StatisticController implements Controller {
     }
 
     /**
-     * Retrieves user statistics for the specified username.
+     * Retrieves user statistics for the specified user.
      *
-     * @param username The username for which to retrieve statistics.
+     * @param userUuid The UUID of the user for which to retrieve statistics.
      * @return Response containing user statistics in JSON format.
      */
-    private Response getStats(String username)
+    private Response getStats(UUID userUuid)
             throws DatabaseTransactionException {
-        User user = UserService.getInstance().getByUsername(username);
+        User user = UserService.getInstance().getById(userUuid);
         UserStatsDto dto = UserMapper.INSTANCE.mapToUserStatsDto(user);
         return ResponseUtils.ok(ContentType.JSON, JsonUtils.getJsonStringFromObject(dto));
     }
@@ -54,30 +58,22 @@ public class StatisticController implements Controller {
             throws JsonProcessingException {
         String root = request.getRoot();
 
-        Transaction transaction = new Transaction();
-        try {
+        try (Transaction transaction = new Transaction()) {
             if (root.equalsIgnoreCase("stats")) {
                 // Check if the request is authorized
-                if (!SessionUtils.isAuthorized(request.getHeader())) {
+                Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+                if (session.isEmpty()) {
                     return ResponseUtils.unauthorized();
                 }
 
                 if (request.getMethod() == Method.GET && request.getPathParts().size() == 1) {
-                    // Retrieve the username from the user session
-                    String username = SessionUtils.getUsernameFromHeader(request.getHeader());
-
-                    Response response = getStats(username);
+                    Response response = getStats(session.get().getUserUuid());
                     transaction.commit();
 
                     return response;
                 }
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
         return ResponseUtils.notImplemented();
@@ -1,6 +1,7 @@
 package at.if22b208.mtc.controller;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -17,6 +18,7 @@ import at.if22b208.mtc.server.Controller;
 import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.CardService;
 import at.if22b208.mtc.service.TradingDealService;
 import at.if22b208.mtc.service.UserService;
@@ -60,7 +62,7 @@ import lombok.extern.slf4j.Slf4j;
         Card tradingCard = CardService.getInstance().getById(dto.getCardUuid());
 
         // Can only create a deal for a card that is owned by the requesting user or card is not in deck
-        if (tradingCard == null || doesNotOwnCard(user, tradingCard) || hasCardLocked(user, tradingCard)) {
+        if (tradingCard == null || doesNotOwnCard(user, tradingCard) || hasCardLocked(tradingCard)) {
             return ResponseUtils.forbidden(MessageConstants.TRADING_DEAL_CARD_LOCKED);
         }
 
@@ -102,12 +104,13 @@ import lombok.extern.slf4j.Slf4j;
      * Carries out a trading deal by transferring ownership of cards between users.
      * Validates the ownership and trading requirements before completing the deal.
      *
-     * @param user     The user initiating the deal.
-     * @param dealUuid The UUID of the trading deal to be carried out.
-     * @param cardUuid The UUID of the card offered by the user to complete the deal.
+     * @param user        The user initiating the deal.
+     * @param dealUuid    The UUID of the trading deal to be carried out.
+     * @param cardUuid    The UUID of the card offered by the user to complete the deal.
+     * @param transaction The transaction of the trade, rolled back if the trade fails.
      * @return A response indicating the success or failure of carrying out the trading deal.
      */
-    private Response carryOutDeal(User user, UUID dealUuid, UUID cardUuid)
+    private Response carryOutDeal(User user, UUID dealUuid, UUID cardUuid, Transaction transaction)
             throws DatabaseTransactionException {
         TradingDeal deal = TradingDealService.getInstance().getById(dealUuid);
         if (deal == null) {
@@ -118,17 +121,18 @@ import lombok.extern.slf4j.Slf4j;
 
         // Can only delete a deal for a card that is owned by the requesting user
         if (offeredCard == null || isUserFromDeal(user, deal) || doesNotOwnCard(user, offeredCard) ||
-                hasCardLocked(user, offeredCard) || !hasTradingRequirements(deal, offeredCard)) {
+                hasCardLocked(offeredCard) || !hasTradingRequirements(deal, offeredCard)) {
             return ResponseUtils.forbidden(MessageConstants.TRADING_DEAL_CARRY_OUT_FAILURE);
         }
 
-        Card tradingCard = CardService.getInstance().getById(deal.getCardUuid());
-        User tradingUser = UserService.getInstance().getById(tradingCard.getUserUuid());
-
-        CardService.getInstance().updateOwner(offeredCard, tradingUser);
-        CardService.getInstance().updateOwner(tradingCard, user);
-
-        TradingDealService.getInstance().deleteById(dealUuid);
+        // Swap the owners of both cards and delete the deal with a single statement
+        try {
+            TradingDealService.getInstance().carryOut(deal, offeredCard, user);
+        } catch (InvalidTradingDealException e) {
+            // The deal or the offered card has changed concurrently
+            transaction.rollback();
+            return ResponseUtils.forbidden(MessageConstants.TRADING_DEAL_CARRY_OUT_FAILURE);
+        }
         return ResponseUtils.ok(ContentType.PLAIN_TEXT, MessageConstants.TRADING_DEAL_CREATE);
     }
 
@@ -144,14 +148,14 @@ import lombok.extern.slf4j.Slf4j;
     }
 
     /**
-     * Checks if the user's deck contains the specified card.
+     * Checks if the specified card is in a deck.
      *
-     * @param user The user to check the deck for.
-     * @param card The card to check if it is in the deck.
-     * @return True if the card is in the user's deck, false otherwise.
+     * @param card The card to check if it is in a deck.
+     * @return True if the card is in a deck, false otherwise.
      */
-    private boolean hasCardLocked(User user, Card card) {
-        return user.getDeck().stream().anyMatch(c -> c.getUuid().equals(card.getUuid()));
+    private boolean hasCardLocked(Card card)
+            throws DatabaseTransactionException {
+        return CardService.getInstance().isInDeck(card);
     }
 
     /**
@@ -188,15 +192,14 @@ import lombok.extern.slf4j.Slf4j;
      */
     @Override public Response handleRequest(Request request)
             throws JsonProcessingException {
-        if (!SessionUtils.isAuthorized(request.getHeader())) {
+        Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+        if (session.isEmpty()) {
             return ResponseUtils.unauthorized();
         }
 
-        Transaction transaction = new Transaction();
-        try {
-            // Retrieve the username from the user session
-            String username = SessionUtils.getUsernameFromHeader(request.getHeader());
-            User user = UserService.getInstance().getByUsername(username);
+        try (Transaction transaction = new Transaction()) {
+            // Retrieve the user of the session
+            User user = UserService.getInstance().getById(session.get().getUserUuid());
             if (user == null) {
                 return ResponseUtils.notFound(MessageConstants.USER_NOT_FOUND);
             }
@@ -211,14 +214,9 @@ import lombok.extern.slf4j.Slf4j;
             }
 
             if (request.getPathParts().size() == 2) {
-                return performCarryOutOrDealDeletion(request, user);
+                return performCarryOutOrDealDeletion(request, user, transaction);
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
 
@@ -239,7 +237,10 @@ import lombok.extern.slf4j.Slf4j;
             String body = request.getBody().toLowerCase();
             TradingDealDto dealDto = JsonUtils.getObjectFromJsonString(body, TradingDealDto.class);
             if (dealDto != null) {
-                return createTradingDeal(user, dealDto);
+                Response response = createTradingDeal(user, dealDto);
+                transaction.commit();
+
+                return response;
             }
             return ResponseUtils.notImplemented();
         }
@@ -249,7 +250,7 @@ import lombok.extern.slf4j.Slf4j;
         }
     }
 
-    private Response performCarryOutOrDealDeletion(Request request, User user)
+    private Response performCarryOutOrDealDeletion(Request request, User user, Transaction transaction)
             throws DatabaseTransactionException {
         UUID dealUuid = UUID.fromString(request.getPathParts().get(1));
 
@@ -257,10 +258,16 @@ import lombok.extern.slf4j.Slf4j;
         case POST -> {
             String body = request.getBody().toLowerCase();
             UUID cardUuid = JsonUtils.getObjectFromJsonString(body, UUID.class);
-            return carryOutDeal(user, dealUuid, cardUuid);
+            Response response = carryOutDeal(user, dealUuid, cardUuid, transaction);
+            transaction.commit();
+
+            return response;
         }
         case DELETE -> {
-            return deleteTradingDeal(user, dealUuid);
+            Response response = deleteTradingDeal(user, dealUuid);
+            transaction.commit();
+
+            return response;
         }
         default -> {
             return ResponseUtils.notImplemented();
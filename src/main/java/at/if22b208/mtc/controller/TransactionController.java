@@ -1,6 +1,8 @@
 package at.if22b208.mtc.controller;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import at.if22b208.mtc.config.MessageConstants;
 import at.if22b208.mtc.config.MtcConstants;
@@ -16,6 +18,7 @@ import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.Method;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.session.UserSession;
 import at.if22b208.mtc.service.CardService;
 import at.if22b208.mtc.service.UserService;
 import at.if22b208.mtc.util.JsonUtils;
@@ -37,15 +40,18 @@ public class TransactionController implements Controller {
     }
 
     /**
-     * Acquires a package of cards for the user with the provided username.
+     * Acquires a package of cards for the user with the provided UUID. The package is claimed from the
+     * queue of available packages, so concurrent buyers never receive the same package. If the purchase fails,
+     * the transaction is rolled back and the package stays available.
      *
-     * @param username The username of the user acquiring the package.
+     * @param userUuid    The UUID of the user acquiring the package.
+     * @param transaction The transaction of the purchase.
      * @return A {@link Response} indicating the result of the package acquisition.
      */
-    private Response acquirePackage(String username)
+    private Response acquirePackage(UUID userUuid, Transaction transaction)
             throws DatabaseTransactionException {
         try {
-            User user = UserService.getInstance().getByUsername(username); // Get the user associated with the username
+            User user = UserService.getInstance().getById(userUuid);
             if (user == null) {
                 return ResponseUtils.notFound(MessageConstants.USER_NOT_FOUND);
             }
@@ -54,21 +60,19 @@ public class TransactionController implements Controller {
             UserService.getInstance()
                     .updateBalance(user, MtcConstants.PACKAGE_COST, new SubtractOperation());
 
-            CardService cardService = CardService.getInstance();
-
-            List<Card> pack = cardService.getPackage();
-            // Iterate over cards in the acquired package and update their owner to the current user
-            for (Card card : pack) {
-                cardService.updateOwner(card, user);
-            }
+            // Claim a package, its cards are transferred to the user with the claim
+            List<Card> pack = CardService.getInstance().claimPackage(user);
 
             List<CardDto> dtoList = pack.stream()
                     .map(CardMapper.INSTANCE::map)
                     .toList();
             return ResponseUtils.ok(ContentType.JSON, JsonUtils.getJsonStringFromArray(dtoList.toArray()));
         } catch (BalanceTransactionException e) {
+            transaction.rollback();
             return ResponseUtils.forbidden(MessageConstants.INSUFFICIENT_FUNDS);
         } catch (InvalidPackageException e) {
+            // Do not charge the user for a package that does not exist
+            transaction.rollback();
             return ResponseUtils.notFound(MessageConstants.NO_PACKAGE_AVAILABLE);
         }
     }
@@ -81,30 +85,22 @@ public class TransactionController implements Controller {
      */
     @Override
     public Response handleRequest(Request request) {
-        if (!SessionUtils.isAuthorized(request.getHeader())) {
+        Optional<UserSession> session = SessionUtils.getSession(request.getHeader());
+        if (session.isEmpty()) {
             return ResponseUtils.unauthorized();
         }
 
         String root = request.getRoot();
-        Transaction transaction = new Transaction();
-        try {
+        try (Transaction transaction = new Transaction()) {
             if (root.equalsIgnoreCase("transactions")) {
                 if (request.getSecondPathPart().equals("packages") && request.getMethod() == Method.POST) {
-                    // Retrieve the username from the user session
-                    String username = SessionUtils.getUsernameFromHeader(request.getHeader());
-
-                    Response response = acquirePackage(username);
+                    Response response = acquirePackage(session.get().getUserUuid(), transaction);
                     transaction.commit();
 
                     return response;
                 }
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction. See logs for further information.");
         }
 
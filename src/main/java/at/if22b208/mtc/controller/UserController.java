@@ -7,6 +7,7 @@ import at.if22b208.mtc.dto.user.UserDataDto;
 import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
 import at.if22b208.mtc.exception.HashingException;
+import at.if22b208.mtc.exception.HashingRejectedException;
 import at.if22b208.mtc.exception.NameNotValidException;
 import at.if22b208.mtc.server.Controller;
 import at.if22b208.mtc.server.http.ContentType;
@@ -14,6 +15,7 @@ import at.if22b208.mtc.server.http.Method;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
 import at.if22b208.mtc.service.UserService;
+import at.if22b208.mtc.util.HashingExecutor;
 import at.if22b208.mtc.util.HashingUtils;
 import at.if22b208.mtc.util.JsonUtils;
 import at.if22b208.mtc.util.ResponseUtils;
@@ -41,9 +43,19 @@ public class UserController implements Controller {
      */
     private Response createUserWithCredentials(UserCredentialsDto dto)
             throws HashingException, DatabaseTransactionException {
+        int iterations = HashingUtils.getIterations();
+        String hash;
+        try {
+            // Hashed before the first query, so no database connection is held while waiting
+            hash = HashingExecutor.getInstance().hash(dto.getPassword(), HashingUtils.generateSalt(dto.getUsername()),
+                    iterations);
+        } catch (HashingRejectedException e) {
+            return ResponseUtils.serviceUnavailable(MessageConstants.HASHING_OVERLOADED);
+        }
         User user = User.builder()
                 .username(dto.getUsername())
-                .password(HashingUtils.hash(dto.getPassword(), HashingUtils.generateSalt(dto.getUsername())))
+                .password(hash)
+                .passwordIterations(iterations)
                 .build();
         user = UserService.getInstance().create(user);
 
@@ -110,8 +122,7 @@ public class UserController implements Controller {
             return ResponseUtils.notImplemented();
         }
 
-        Transaction transaction = new Transaction();
-        try {
+        try (Transaction transaction = new Transaction()) {
             String body = request.getBody();
             if (request.getMethod() == Method.POST && request.getPathParts().size() == 1) {
                 UserCredentialsDto dto = JsonUtils.getObjectFromJsonString(body, UserCredentialsDto.class);
@@ -122,7 +133,7 @@ public class UserController implements Controller {
                 }
             }
 
-            if (!SessionUtils.isAuthorized(request.getHeader())) {
+            if (SessionUtils.getSession(request.getHeader()).isEmpty()) {
                 return ResponseUtils.unauthorized();
             }
 
@@ -136,11 +147,6 @@ public class UserController implements Controller {
                 }
             }
         } catch (DatabaseTransactionException e) {
-            try {
-                transaction.rollback();
-            } catch (DatabaseTransactionException rollbackException) {
-                log.error("Failed to rollback transaction: {}", rollbackException.getMessage());
-            }
             return ResponseUtils.error("Error performing database transaction.");
         }
 
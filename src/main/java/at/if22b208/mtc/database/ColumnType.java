@@ -0,0 +1,32 @@
+package at.if22b208.mtc.database;
+
+import java.sql.Types;
+
+/**
+ * Storage type of a {@link Result} column, determining the typed array the values are kept in.
+ */
+enum ColumnType {
+    INT,
+    LONG,
+    DOUBLE,
+    UUID,
+    STRING,
+    OBJECT;
+
+    /**
+     * Maps the JDBC type of a column to its storage type.
+     *
+     * @param sqlType  The {@link Types} constant of the column.
+     * @param typeName The database specific type name of the column.
+     * @return The storage type.
+     */
+    static ColumnType of(int sqlType, String typeName) {
+        return switch (sqlType) {
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> INT;
+            case Types.BIGINT -> LONG;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> DOUBLE;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR -> STRING;
+            default -> "uuid".equalsIgnoreCase(typeName) ? UUID : OBJECT;
+        };
+    }
+}
@@ -0,0 +1,252 @@
+package at.if22b208.mtc.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import at.if22b208.mtc.config.DatabaseConstants;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded pool of JDBC connections.
+ *
+ * <p>At most {@link #getMaxSize()} connections exist at a time; connections are opened on demand. A thread
+ * requesting a connection while all connections are in use waits up to
+ * {@link DatabaseConstants#CONNECTION_TIMEOUT_MILLIS}. Connections that have been idle for a while are validated
+ * before they are handed out, connections older than {@link DatabaseConstants#MAX_LIFETIME_MILLIS} are retired.
+ * A housekeeping thread reports connections that have been checked out for longer than
+ * {@link DatabaseConstants#LEAK_DETECTION_THRESHOLD_MILLIS}, including the stack trace of the checkout.</p>
+ */
+@Slf4j
+public class ConnectionPool implements AutoCloseable {
+    private final String url;
+
+    @Getter
+    private final int maxSize;
+
+    private final Semaphore permits;
+
+    /**
+     * Idle connections, the most recently returned connection is handed out first.
+     */
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder checkouts = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder leaks = new LongAdder();
+
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final LongAdder statementCacheHits = new LongAdder();
+
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    public ConnectionPool(String url, int maxSize) {
+        this.url = url;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::houseKeep, DatabaseConstants.HOUSEKEEPING_INTERVAL_MILLIS,
+                DatabaseConstants.HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks out a connection, waiting for a connection to be returned if the pool is exhausted.
+     *
+     * @return The checked out connection, in auto-commit mode.
+     * @throws SQLException If no connection becomes available in time or a new connection cannot be opened.
+     */
+    PooledConnection acquire()
+            throws SQLException {
+        long start = System.nanoTime();
+        this.waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = this.permits.tryAcquire(DatabaseConstants.CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.");
+        } finally {
+            this.waiting.decrementAndGet();
+        }
+        recordWait(System.nanoTime() - start);
+
+        if (!acquired) {
+            this.timeouts.increment();
+            throw new SQLException("No database connection available within " +
+                    DatabaseConstants.CONNECTION_TIMEOUT_MILLIS + " ms (active: " + this.active.size() + ").");
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrOpen();
+            pooled.checkOut(DatabaseConstants.LEAK_DETECTION_THRESHOLD_MILLIS > 0);
+            this.active.add(pooled);
+            this.checkouts.increment();
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a connection to the pool. Connections that are broken or have exceeded their lifetime are closed.
+     *
+     * @param pooled The connection checked out by {@link #acquire()}.
+     */
+    void release(PooledConnection pooled) {
+        if (!this.active.remove(pooled)) {
+            log.warn("Ignoring release of a connection that is not checked out.");
+            return;
+        }
+        try {
+            if (pooled.isExpired(System.currentTimeMillis(), DatabaseConstants.MAX_LIFETIME_MILLIS) ||
+                    !reset(pooled.getConnection())) {
+                pooled.closeQuietly();
+            } else {
+                pooled.checkIn();
+                this.idle.push(pooled);
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the pool usage.
+     *
+     * @return The current pool metrics.
+     */
+    public PoolMetrics getMetrics() {
+        long count = this.checkouts.sum();
+        return PoolMetrics.builder()
+                .active(this.active.size())
+                .idle(this.idle.size())
+                .maxSize(this.maxSize)
+                .waiting(this.waiting.get())
+                .checkouts(count)
+                .timeouts(this.timeouts.sum())
+                .leaks(this.leaks.sum())
+                .averageWaitMillis(count == 0 ? 0 : this.totalWaitNanos.sum() / count / 1_000_000.0)
+                .maxWaitMillis(this.maxWaitNanos.get() / 1_000_000.0)
+                .statementCacheHits(this.statementCacheHits.sum())
+                .statementCacheMisses(this.statementCacheMisses.sum())
+                .build();
+    }
+
+    /**
+     * Stops the housekeeping and closes all idle connections. Connections in use are closed when returned.
+     */
+    @Override
+    public void close() {
+        this.housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = this.idle.poll()) != null) {
+            pooled.closeQuietly();
+        }
+    }
+
+    private PooledConnection takeIdleOrOpen()
+            throws SQLException {
+        long now = System.currentTimeMillis();
+        PooledConnection pooled;
+        while ((pooled = this.idle.poll()) != null) {
+            if (pooled.isExpired(now, DatabaseConstants.MAX_LIFETIME_MILLIS) || !isUsable(pooled, now)) {
+                pooled.closeQuietly();
+                continue;
+            }
+            return pooled;
+        }
+        return new PooledConnection(DriverManager.getConnection(this.url),
+                new StatementCache(DatabaseConstants.STATEMENT_CACHE_SIZE, this.statementCacheHits,
+                        this.statementCacheMisses));
+    }
+
+    private static boolean isUsable(PooledConnection pooled, long now) {
+        if (now - pooled.getLastUsed() < DatabaseConstants.VALIDATION_INTERVAL_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.getConnection().isValid(DatabaseConstants.VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Restores the default state of a returned connection, discarding any unfinished transaction.
+     *
+     * @return True if the connection can be reused.
+     */
+    private static boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.debug("Discarding connection: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void recordWait(long nanos) {
+        this.totalWaitNanos.add(nanos);
+        this.maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void houseKeep() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : this.active) {
+            long heldMillis = now - pooled.getCheckedOutAt();
+            if (heldMillis > DatabaseConstants.LEAK_DETECTION_THRESHOLD_MILLIS && pooled.markLeakReported()) {
+                this.leaks.increment();
+                Thread owner = pooled.getOwner();
+                log.warn("Connection held by thread {} for {} ms, possible leak.",
+                        owner == null ? "?" : owner.getName(), heldMillis, pooled.getCheckoutTrace());
+            }
+        }
+
+        this.idle.removeIf(pooled -> {
+            if (pooled.isExpired(now, DatabaseConstants.MAX_LIFETIME_MILLIS)) {
+                pooled.closeQuietly();
+                return true;
+            }
+            return false;
+        });
+
+        if (log.isDebugEnabled()) {
+            log.debug("Connection pool: {}", getMetrics());
+        }
+    }
+}
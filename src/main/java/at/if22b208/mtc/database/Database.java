@@ -4,13 +4,12 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import at.if22b208.mtc.config.DatabaseConstants;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +17,10 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Database class for managing PostgreSQL database interactions.
  * Implements AutoCloseable to ensure proper resource management.
+ *
+ * <p>Queries are executed on pooled connections. Within an open {@link Transaction} of the calling thread all
+ * queries share the connection of the transaction, otherwise every query checks out a connection in
+ * auto-commit mode and returns it right after execution.</p>
  */
 @Slf4j
 @Getter
@@ -34,21 +37,24 @@ public class Database implements AutoCloseable {
 
     private static final String DB_SCHEMA = "mtc";
 
-    private Connection connection;
+    private ConnectionPool pool;
 
     private Database() {
         // Private constructor to ensure singleton pattern.
     }
 
     /**
-     * Connects to the PostgreSQL database using the specified credentials.
+     * Connects to the PostgreSQL database using the specified credentials and sets up the connection pool.
+     * The pool size can be configured with the system property {@code mtc.db.pool-size}.
      */
     public void connect() {
         String url = "jdbc:postgresql://" + DB_HOST + ":" + DB_PORT + "/" + DB_SCHEMA + "?user=" + DB_USER +
-                "&password=" + DB_PASSWORD;
-        try {
-            this.connection = DriverManager.getConnection(url);
-            log.info("Connected to the PostgreSQL database successfully");
+                "&password=" + DB_PASSWORD + "&prepareThreshold=" + DatabaseConstants.PREPARE_THRESHOLD;
+        // Verify the credentials once, so a misconfiguration is detected at start-up
+        try (Connection ignored = DriverManager.getConnection(url)) {
+            int poolSize = Integer.getInteger(DatabaseConstants.POOL_SIZE_PROPERTY, DatabaseConstants.DEFAULT_POOL_SIZE);
+            this.pool = new ConnectionPool(url, poolSize);
+            log.info("Connected to the PostgreSQL database successfully (pool size {})", poolSize);
         } catch (SQLException e) {
             log.error(e.getMessage());
         }
@@ -60,7 +66,33 @@ public class Database implements AutoCloseable {
      * @return True if connected, false otherwise.
      */
     public boolean isConnected() {
-        return this.connection != null;
+        return this.pool != null;
+    }
+
+    /**
+     * Gets a snapshot of the connection pool usage.
+     *
+     * @return The pool metrics.
+     */
+    public PoolMetrics getPoolMetrics() {
+        return this.pool.getMetrics();
+    }
+
+    PooledConnection checkOut()
+            throws DatabaseTransactionException {
+        if (this.pool == null) {
+            throw new DatabaseTransactionException("Database is not connected.");
+        }
+        try {
+            return this.pool.acquire();
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new DatabaseTransactionException("Failed to obtain a database connection.");
+        }
+    }
+
+    void checkIn(PooledConnection connection) {
+        this.pool.release(connection);
     }
 
     /**
@@ -71,15 +103,12 @@ public class Database implements AutoCloseable {
      */
     public void executeUpdateQuery(String query, Object... params)
             throws DatabaseTransactionException {
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            for (int i = 0; i < params.length; i++) {
-                statement.setObject(i + 1, params[i]);
-            }
+        execute(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query, false);
+            bindParameters(statement, params);
             statement.executeUpdate();
-        } catch (SQLException e) {
-            log.error(e.getMessage());
-            throw new DatabaseTransactionException("Exception while processing executing update query.");
-        }
+            return null;
+        }, "Exception while processing executing update query.");
     }
 
     /**
@@ -91,11 +120,9 @@ public class Database implements AutoCloseable {
      */
     public UUID executeInsertQuery(String query, Object... params)
             throws DatabaseTransactionException {
-        try (PreparedStatement statement = connection.prepareStatement(query,
-                Statement.RETURN_GENERATED_KEYS)) {
-            for (int i = 0; i < params.length; i++) {
-                statement.setObject(i + 1, params[i]);
-            }
+        return execute(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query, true);
+            bindParameters(statement, params);
 
             int affectedRows = statement.executeUpdate();
             if (affectedRows == 0) {
@@ -108,11 +135,8 @@ public class Database implements AutoCloseable {
                     return (UUID) generatedKeys.getObject(1);
                 }
             }
-        } catch (SQLException e) {
-            log.error(e.getMessage());
-            throw new DatabaseTransactionException("Exception while processing executing insert query.");
-        }
-        return null;
+            return null;
+        }, "Exception while processing executing insert query.");
     }
 
     /**
@@ -124,47 +148,168 @@ public class Database implements AutoCloseable {
      */
     public Result executeSelectQuery(String query, Object... params)
             throws DatabaseTransactionException {
-        Result result = Result.builder().build();
+        return execute(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query, false);
+            bindParameters(statement, params);
 
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            for (int i = 0; i < params.length; i++) {
-                statement.setObject(i + 1, params[i]);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return Result.read(resultSet);
             }
+        }, "Exception while processing executing select query.");
+    }
 
-            final ResultSet resultSet = statement.executeQuery();
-            final ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-            List<String> columns = new ArrayList<>();
+    /**
+     * Executes a select SQL query and maps every row as soon as it has been fetched, without materializing the
+     * complete result.
+     *
+     * @param query  The SQL query to execute.
+     * @param mapper The mapper creating an object per row.
+     * @param params Parameters to be used in the query.
+     * @return The mapped objects in the order of the rows.
+     */
+    public <T> List<T> executeSelectQuery(String query, RowMapper<T> mapper, Object... params)
+            throws DatabaseTransactionException {
+        List<T> mapped = new ArrayList<>();
+        executeStreamingQuery(query, DatabaseConstants.DEFAULT_FETCH_SIZE, row -> mapped.add(mapper.map(row)), params);
+        return mapped;
+    }
 
-            for (int i = 1; i < resultSetMetaData.getColumnCount() + 1; i++) {
-                columns.add(resultSetMetaData.getColumnName(i));
-            }
+    /**
+     * Executes a select SQL query and passes the rows to the callback while they are fetched. At most
+     * {@code fetchSize} rows are held in memory at a time.
+     *
+     * <p>The PostgreSQL driver only fetches rows incrementally within a transaction, so the query runs in the
+     * open transaction of the current thread or, if there is none, in a transaction of its own. Queries executed
+     * by the callback share this transaction.</p>
+     *
+     * @param query     The SQL query to execute.
+     * @param fetchSize The number of rows fetched from the database at once.
+     * @param callback  The callback receiving the rows.
+     * @param params    Parameters to be used in the query.
+     */
+    public void executeStreamingQuery(String query, int fetchSize, RowCallback callback, Object... params)
+            throws DatabaseTransactionException {
+        if (Transaction.current() != null) {
+            stream(Transaction.current().getConnection(), query, fetchSize, callback, params);
+            return;
+        }
 
-            while (resultSet.next()) {
-                Row row = new Row();
-                for (String entry : columns) {
-                    row.put(entry, resultSet.getObject(entry));
+        try (Transaction transaction = new Transaction()) {
+            stream(transaction.getConnection(), query, fetchSize, callback, params);
+            transaction.commit();
+        }
+    }
+
+    private void stream(PooledConnection connection, String query, int fetchSize, RowCallback callback,
+                        Object... params)
+            throws DatabaseTransactionException {
+        try {
+            PreparedStatement statement = connection.prepareStatement(query, false);
+            bindParameters(statement, params);
+            statement.setFetchSize(fetchSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                // Rows are read into a single chunk that is reused for every fetch
+                Result chunk = Result.of(resultSet.getMetaData());
+                boolean exhausted = false;
+                while (!exhausted) {
+                    chunk.clear();
+                    while (chunk.size() < fetchSize && !exhausted) {
+                        if (resultSet.next()) {
+                            chunk.append(resultSet);
+                        } else {
+                            exhausted = true;
+                        }
+                    }
+                    for (Row row : chunk) {
+                        callback.accept(row);
+                    }
                 }
-                result.addRow(row);
+            } finally {
+                statement.setFetchSize(0);
             }
         } catch (SQLException e) {
             log.error(e.getMessage());
-            throw new DatabaseTransactionException("Exception while processing executing select query.");
+            connection.discardStatements();
+            throw new DatabaseTransactionException("Exception while processing executing streaming query.");
         }
-        return result;
+    }
+
+    private static void bindParameters(PreparedStatement statement, Object... params)
+            throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            String arrayType = getArrayType(params[i]);
+            if (arrayType != null) {
+                // Bound as SQL array, e.g. for "WHERE uuid = ANY(?)" or multi-row inserts with "unnest(?, ?)"
+                statement.setArray(i + 1, statement.getConnection().createArrayOf(arrayType, (Object[]) params[i]));
+            } else {
+                statement.setObject(i + 1, params[i]);
+            }
+        }
+    }
+
+    private static String getArrayType(Object param) {
+        if (param instanceof UUID[]) {
+            return "uuid";
+        } else if (param instanceof String[]) {
+            return "varchar";
+        } else if (param instanceof Integer[]) {
+            return "int4";
+        } else if (param instanceof Long[]) {
+            return "int8";
+        } else if (param instanceof Double[]) {
+            return "float8";
+        }
+        return null;
     }
 
     /**
-     * Closes the database connection.
+     * Runs a statement on the connection of the open transaction of the current thread, or on a connection
+     * checked out for this statement only.
+     *
+     * @param statement    The statement to run.
+     * @param errorMessage The message of the exception thrown if the statement fails.
+     * @return The result of the statement.
      */
-    @Override
-    public void close() {
-        if (connection != null) {
+    private <T> T execute(ConnectionCallback<T> statement, String errorMessage)
+            throws DatabaseTransactionException {
+        Transaction transaction = Transaction.current();
+        if (transaction != null) {
+            PooledConnection pooled = transaction.getConnection();
             try {
-                this.connection.close();
+                return statement.execute(pooled);
             } catch (SQLException e) {
                 log.error(e.getMessage());
+                pooled.discardStatements();
+                throw new DatabaseTransactionException(errorMessage);
             }
         }
+
+        PooledConnection pooled = checkOut();
+        try {
+            return statement.execute(pooled);
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            pooled.discardStatements();
+            throw new DatabaseTransactionException(errorMessage);
+        } finally {
+            checkIn(pooled);
+        }
+    }
+
+    /**
+     * Closes the connection pool.
+     */
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCallback<T> {
+        T execute(PooledConnection connection)
+                throws SQLException;
     }
 
     /**
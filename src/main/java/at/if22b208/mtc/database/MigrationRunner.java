@@ -0,0 +1,143 @@
+package at.if22b208.mtc.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import at.if22b208.mtc.config.DatabaseConstants;
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Applies the versioned schema migrations listed in {@link DatabaseConstants#MIGRATIONS}.
+ *
+ * <p>The applied versions are recorded in the {@code schema_version} table. Every pending migration runs in a
+ * transaction of its own together with its version record, so a failed migration leaves no partial changes and
+ * is retried on the next start. A transaction scoped advisory lock serializes concurrently starting
+ * instances.</p>
+ */
+@Slf4j
+public class MigrationRunner {
+    private static MigrationRunner INSTANCE;
+
+    private static final String VERSION_TABLE = "public.schema_version";
+
+    /**
+     * Arbitrary key of the advisory lock held while migrating.
+     */
+    private static final long LOCK_KEY = 0x6d7463L;
+
+    private MigrationRunner() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Applies all migrations that have not been applied yet, in version order.
+     *
+     * @return The number of applied migrations.
+     * @throws DatabaseTransactionException If a migration fails or cannot be read.
+     */
+    public int migrate()
+            throws DatabaseTransactionException {
+        val database = Database.getInstance();
+        database.executeUpdateQuery("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE +
+                " (version int4 PRIMARY KEY NOT NULL, description varchar NOT NULL," +
+                " applied_at timestamptz default now() NOT NULL)");
+
+        int applied = 0;
+        for (String migration : DatabaseConstants.MIGRATIONS) {
+            if (apply(migration)) {
+                applied++;
+            }
+        }
+        log.info("Database schema is up to date ({} migrations applied)", applied);
+        return applied;
+    }
+
+    /**
+     * Applies a single migration unless it has already been applied.
+     *
+     * @param migration The file name of the migration script.
+     * @return True if the migration has been applied, false if it had been applied before.
+     */
+    private boolean apply(String migration)
+            throws DatabaseTransactionException {
+        int version = parseVersion(migration);
+        String description = migration.substring(migration.indexOf("__") + 2, migration.lastIndexOf('.'))
+                .replace('_', ' ');
+        String script = load(migration);
+
+        val database = Database.getInstance();
+        try (Transaction transaction = new Transaction()) {
+            database.executeSelectQuery("SELECT pg_advisory_xact_lock(?)", LOCK_KEY);
+            if (appliedVersions().contains(version)) {
+                return false;
+            }
+
+            try (Statement statement = transaction.getConnection().getConnection().createStatement()) {
+                statement.execute(script);
+            } catch (SQLException e) {
+                log.error("Migration {} failed: {}", migration, e.getMessage());
+                throw new DatabaseTransactionException("Migration " + migration + " failed.");
+            }
+            database.executeUpdateQuery("INSERT INTO " + VERSION_TABLE + " (version, description) VALUES (?, ?)",
+                    version, description);
+            transaction.commit();
+        }
+        log.info("Applied migration {}", migration);
+        return true;
+    }
+
+    private Set<Integer> appliedVersions()
+            throws DatabaseTransactionException {
+        Set<Integer> versions = new HashSet<>();
+        for (Row row : Database.getInstance().executeSelectQuery("SELECT version FROM " + VERSION_TABLE)) {
+            versions.add(row.getInt("version"));
+        }
+        return versions;
+    }
+
+    /**
+     * Extracts the version of a migration from its file name {@code V<version>__<description>.sql}.
+     *
+     * @param migration The file name of the migration script.
+     * @return The version.
+     */
+    static int parseVersion(String migration) {
+        int separator = migration.indexOf("__");
+        if (!migration.startsWith("V") || separator < 2 || !migration.endsWith(".sql")) {
+            throw new IllegalArgumentException("Invalid migration name: " + migration);
+        }
+        return Integer.parseInt(migration.substring(1, separator));
+    }
+
+    private String load(String migration)
+            throws DatabaseTransactionException {
+        String location = DatabaseConstants.MIGRATION_LOCATION + migration;
+        try (InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(location)) {
+            if (in == null) {
+                throw new DatabaseTransactionException("Migration " + location + " not found.");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new DatabaseTransactionException("Migration " + location + " could not be read.");
+        }
+    }
+
+    /**
+     * Gets the singleton instance of the {@code MigrationRunner}.
+     *
+     * @return The singleton instance of the {@code MigrationRunner}.
+     */
+    public static synchronized MigrationRunner getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new MigrationRunner();
+        }
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,59 @@
+package at.if22b208.mtc.database;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the usage of a {@link ConnectionPool}.
+ */
+@Data
+@Builder
+public class PoolMetrics {
+    /**
+     * Connections currently checked out.
+     */
+    private final int active;
+
+    /**
+     * Open connections waiting in the pool.
+     */
+    private final int idle;
+
+    private final int maxSize;
+
+    /**
+     * Threads currently waiting for a connection.
+     */
+    private final int waiting;
+
+    private final long checkouts;
+
+    /**
+     * Checkouts that failed because no connection became available in time.
+     */
+    private final long timeouts;
+
+    /**
+     * Connections reported as possible leak.
+     */
+    private final long leaks;
+
+    private final double averageWaitMillis;
+
+    private final double maxWaitMillis;
+
+    /**
+     * Statements served from the statement caches of the connections.
+     */
+    private final long statementCacheHits;
+
+    /**
+     * Statements that had to be prepared because they were not cached.
+     */
+    private final long statementCacheMisses;
+
+    public double getStatementCacheHitRatio() {
+        long lookups = this.statementCacheHits + this.statementCacheMisses;
+        return lookups == 0 ? 0 : (double) this.statementCacheHits / lookups;
+    }
+}
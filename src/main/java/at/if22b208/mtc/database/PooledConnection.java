@@ -0,0 +1,97 @@
+package at.if22b208.mtc.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A physical connection managed by the {@link ConnectionPool}, together with the bookkeeping required for
+ * validation, lifetime and leak detection.
+ */
+@Slf4j
+@Getter
+class PooledConnection {
+    private final Connection connection;
+
+    private final StatementCache statementCache;
+
+    private final long createdAt = System.currentTimeMillis();
+
+    private long lastUsed = this.createdAt;
+
+    private volatile long checkedOutAt;
+
+    private volatile Thread owner;
+
+    /**
+     * Stack trace of the checkout, reported if the connection is suspected to leak.
+     */
+    private volatile Throwable checkoutTrace;
+
+    private volatile boolean leakReported;
+
+    PooledConnection(Connection connection, StatementCache statementCache) {
+        this.connection = connection;
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * Gets a prepared statement for the query from the statement cache of this connection.
+     *
+     * @param sql                 The SQL text.
+     * @param returnGeneratedKeys True if the statement has to return the generated keys.
+     * @return The prepared statement. It must not be closed by the caller.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    PreparedStatement prepareStatement(String sql, boolean returnGeneratedKeys)
+            throws SQLException {
+        return this.statementCache.prepare(this.connection, sql, returnGeneratedKeys);
+    }
+
+    /**
+     * Closes all cached statements of this connection.
+     */
+    void discardStatements() {
+        this.statementCache.clear();
+    }
+
+    void checkOut(boolean captureTrace) {
+        this.owner = Thread.currentThread();
+        this.checkedOutAt = System.currentTimeMillis();
+        this.checkoutTrace = captureTrace ? new Throwable("Connection checked out here") : null;
+        this.leakReported = false;
+    }
+
+    void checkIn() {
+        this.owner = null;
+        this.checkoutTrace = null;
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    boolean isExpired(long now, long maxLifetimeMillis) {
+        return now - this.createdAt > maxLifetimeMillis;
+    }
+
+    /**
+     * Marks the connection as reported leak.
+     *
+     * @return True if the leak has not been reported before.
+     */
+    boolean markLeakReported() {
+        boolean first = !this.leakReported;
+        this.leakReported = true;
+        return first;
+    }
+
+    void closeQuietly() {
+        discardStatements();
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close connection: {}", e.getMessage());
+        }
+    }
+}
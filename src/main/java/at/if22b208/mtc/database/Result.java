@@ -1,29 +1,328 @@
 package at.if22b208.mtc.database;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import lombok.Builder;
-import lombok.Getter;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
 
 /**
  * Result class representing the outcome of a database query.
- * It contains a list of rows retrieved from the query result.
+ *
+ * <p>The values are stored column by column in typed arrays ({@code int[]}, {@code long[]}, {@code double[]},
+ * {@code UUID[]}, {@code String[]}), so numeric values are not boxed and no map is allocated per row. The column
+ * metadata is resolved once per result. Rows are accessed through a {@link Row} cursor; iterating the result
+ * reuses a single cursor, which must therefore not be kept beyond the current iteration step.</p>
  */
-@Getter
-@Builder
-public class Result {
+public class Result implements Iterable<Row> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String[] columnNames;
+
+    private final ColumnType[] columnTypes;
+
+    private final Map<String, Integer> columnIndexes;
+
     /**
-     * List of rows retrieved from the query result.
+     * The values of every column, an array matching the column type.
      */
-    private final List<Row> rows = new ArrayList<>();
+    private final Object[] columns;
 
     /**
-     * Adds a row to the list of rows in the result.
+     * The rows holding SQL {@code NULL}, per column.
+     */
+    private final BitSet[] nulls;
+
+    private int size;
+
+    private int capacity = INITIAL_CAPACITY;
+
+    Result(String[] columnNames, ColumnType[] columnTypes) {
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.columnIndexes = new HashMap<>(columnNames.length * 2);
+        this.columns = new Object[columnNames.length];
+        this.nulls = new BitSet[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            this.columnIndexes.putIfAbsent(columnNames[i], i);
+            this.columns[i] = allocate(columnTypes[i], this.capacity);
+            this.nulls[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Reads all rows of a result set.
      *
-     * @param row The row to be added to the result.
+     * @param resultSet The result set, positioned before the first row.
+     * @return The result holding all rows.
+     * @throws SQLException If reading the result set fails.
      */
-    public void addRow(Row row) {
-        getRows().add(row);
+    static Result read(ResultSet resultSet)
+            throws SQLException {
+        Result result = of(resultSet.getMetaData());
+        while (resultSet.next()) {
+            result.append(resultSet);
+        }
+        return result;
+    }
+
+    /**
+     * Creates an empty result with the columns described by the metadata.
+     *
+     * @param metaData The metadata of the result set.
+     * @return The empty result.
+     * @throws SQLException If reading the metadata fails.
+     */
+    static Result of(ResultSetMetaData metaData)
+            throws SQLException {
+        int count = metaData.getColumnCount();
+        String[] names = new String[count];
+        ColumnType[] types = new ColumnType[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = metaData.getColumnLabel(i + 1);
+            types[i] = ColumnType.of(metaData.getColumnType(i + 1), metaData.getColumnTypeName(i + 1));
+        }
+        return new Result(names, types);
+    }
+
+    /**
+     * Appends the current row of the result set.
+     *
+     * @param resultSet The result set positioned on a row.
+     * @throws SQLException If reading the row fails.
+     */
+    void append(ResultSet resultSet)
+            throws SQLException {
+        if (this.size == this.capacity) {
+            grow();
+        }
+        int row = this.size;
+        for (int i = 0; i < this.columns.length; i++) {
+            int index = i + 1;
+            boolean isNull;
+            switch (this.columnTypes[i]) {
+            case INT -> {
+                ((int[]) this.columns[i])[row] = resultSet.getInt(index);
+                isNull = resultSet.wasNull();
+            }
+            case LONG -> {
+                ((long[]) this.columns[i])[row] = resultSet.getLong(index);
+                isNull = resultSet.wasNull();
+            }
+            case DOUBLE -> {
+                ((double[]) this.columns[i])[row] = resultSet.getDouble(index);
+                isNull = resultSet.wasNull();
+            }
+            case UUID -> {
+                UUID value = resultSet.getObject(index, UUID.class);
+                ((UUID[]) this.columns[i])[row] = value;
+                isNull = value == null;
+            }
+            case STRING -> {
+                String value = resultSet.getString(index);
+                ((String[]) this.columns[i])[row] = value;
+                isNull = value == null;
+            }
+            default -> {
+                Object value = resultSet.getObject(index);
+                ((Object[]) this.columns[i])[row] = value;
+                isNull = value == null;
+            }
+            }
+            if (isNull) {
+                this.nulls[i].set(row);
+            }
+        }
+        this.size++;
+    }
+
+    /**
+     * Removes all rows while keeping the column arrays for reuse.
+     */
+    void clear() {
+        for (int i = 0; i < this.columns.length; i++) {
+            if (this.columns[i] instanceof Object[] objects) {
+                Arrays.fill(objects, 0, this.size, null);
+            }
+            this.nulls[i].clear();
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Gets the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnCount() {
+        return this.columnNames.length;
+    }
+
+    /**
+     * Resolves the index of a column, which allows accessing values without a lookup by name.
+     *
+     * @param column The column name.
+     * @return The zero-based index of the column, or {@code -1} if the result has no such column.
+     */
+    public int getColumnIndex(String column) {
+        Integer index = this.columnIndexes.get(column);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets a cursor positioned on the given row.
+     *
+     * @param row The zero-based row index.
+     * @return A new cursor on the row.
+     */
+    public Row getRow(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException(row);
+        }
+        Row cursor = new Row(this);
+        cursor.moveTo(row);
+        return cursor;
+    }
+
+    /**
+     * Iterates the rows with a single reused cursor.
+     *
+     * @return The iterator returning the same {@link Row} instance, positioned on the next row, on every call.
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        Row cursor = new Row(this);
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < size;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                cursor.moveTo(this.next++);
+                return cursor;
+            }
+        };
+    }
+
+    boolean isNull(int column, int row) {
+        return column < 0 || this.nulls[column].get(row);
+    }
+
+    int getInt(int column, int row) {
+        if (isNull(column, row)) {
+            return 0;
+        }
+        return switch (this.columnTypes[column]) {
+            case INT -> ((int[]) this.columns[column])[row];
+            case LONG -> (int) ((long[]) this.columns[column])[row];
+            case DOUBLE -> (int) ((double[]) this.columns[column])[row];
+            default -> ((Number) getObject(column, row)).intValue();
+        };
+    }
+
+    long getLong(int column, int row) {
+        if (isNull(column, row)) {
+            return 0L;
+        }
+        return switch (this.columnTypes[column]) {
+            case INT -> ((int[]) this.columns[column])[row];
+            case LONG -> ((long[]) this.columns[column])[row];
+            case DOUBLE -> (long) ((double[]) this.columns[column])[row];
+            default -> ((Number) getObject(column, row)).longValue();
+        };
+    }
+
+    double getDouble(int column, int row) {
+        if (isNull(column, row)) {
+            return 0.0;
+        }
+        return switch (this.columnTypes[column]) {
+            case INT -> ((int[]) this.columns[column])[row];
+            case LONG -> ((long[]) this.columns[column])[row];
+            case DOUBLE -> ((double[]) this.columns[column])[row];
+            default -> ((Number) getObject(column, row)).doubleValue();
+        };
+    }
+
+    UUID getUuid(int column, int row) {
+        if (isNull(column, row)) {
+            return null;
+        }
+        if (this.columnTypes[column] == ColumnType.UUID) {
+            return ((UUID[]) this.columns[column])[row];
+        }
+        return UUID.fromString(getString(column, row));
+    }
+
+    String getString(int column, int row) {
+        if (isNull(column, row)) {
+            return null;
+        }
+        if (this.columnTypes[column] == ColumnType.STRING) {
+            return ((String[]) this.columns[column])[row];
+        }
+        return String.valueOf(getObject(column, row));
+    }
+
+    Object getObject(int column, int row) {
+        if (isNull(column, row)) {
+            return null;
+        }
+        Object values = this.columns[column];
+        return switch (this.columnTypes[column]) {
+            case INT -> ((int[]) values)[row];
+            case LONG -> ((long[]) values)[row];
+            case DOUBLE -> ((double[]) values)[row];
+            default -> ((Object[]) values)[row];
+        };
+    }
+
+    private void grow() {
+        this.capacity *= 2;
+        for (int i = 0; i < this.columns.length; i++) {
+            Object values = this.columns[i];
+            this.columns[i] = switch (this.columnTypes[i]) {
+                case INT -> Arrays.copyOf((int[]) values, this.capacity);
+                case LONG -> Arrays.copyOf((long[]) values, this.capacity);
+                case DOUBLE -> Arrays.copyOf((double[]) values, this.capacity);
+                default -> Arrays.copyOf((Object[]) values, this.capacity);
+            };
+        }
+    }
+
+    private static Object allocate(ColumnType type, int capacity) {
+        return switch (type) {
+            case INT -> new int[capacity];
+            case LONG -> new long[capacity];
+            case DOUBLE -> new double[capacity];
+            case UUID -> new UUID[capacity];
+            case STRING -> new String[capacity];
+            case OBJECT -> new Object[capacity];
+        };
     }
 }
@@ -1,50 +1,72 @@
 package at.if22b208.mtc.database;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
-import lombok.Getter;
-
 /**
  * Row class representing a single row of data retrieved from a database query.
- * It contains a map of column names to their corresponding values in the row.
+ *
+ * <p>A row is a cursor over the column arrays of its {@link Result} and holds no values itself. Columns can be
+ * accessed by name or, avoiding the name lookup, by the index resolved with {@link Result#getColumnIndex(String)}.
+ * Numeric getters return {@code 0} for SQL {@code NULL}; use {@link #isNull(String)} to tell both apart.</p>
  */
-@Getter
 public class Row {
+    private final Result result;
+
+    private int index;
+
+    Row(Result result) {
+        this.result = result;
+    }
+
+    void moveTo(int index) {
+        this.index = index;
+    }
+
     /**
-     * Map storing column names as keys and their corresponding values in the row.
+     * Gets the position of the row within its result.
+     *
+     * @return The zero-based row index.
      */
-    private final Map<String, Object> content = new HashMap<>();
+    public int getIndex() {
+        return this.index;
+    }
 
     /**
-     * Adds a key-value pair to the content map representing a column and its value.
+     * Checks whether the specified column is SQL {@code NULL}. Columns missing in the result count as null.
      *
-     * @param column  The column name.
-     * @param content The value corresponding to the column.
+     * @param column The column name.
+     * @return True if the value is null.
      */
-    public void put(String column, Object content) {
-        getContent().put(column, content);
+    public boolean isNull(String column) {
+        return this.result.isNull(this.result.getColumnIndex(column), this.index);
     }
 
     /**
-     * Retrieves the value of the specified column as an Integer.
+     * Retrieves the value of the specified column as an int.
      *
      * @param column The column name.
-     * @return The Integer value of the specified column.
+     * @return The int value of the specified column.
      */
-    public Integer getInt(String column) {
-        return (Integer) getContent().get(column);
+    public int getInt(String column) {
+        return getInt(this.result.getColumnIndex(column));
+    }
+
+    public int getInt(int column) {
+        return this.result.getInt(column, this.index);
     }
 
     /**
-     * Retrieves the value of the specified column as a Long.
+     * Retrieves the value of the specified column as a long.
      *
      * @param column The column name.
-     * @return The Long value of the specified column.
+     * @return The long value of the specified column.
      */
-    public Long getLong(String column) {
-        return (Long) getContent().get(column);
+    public long getLong(String column) {
+        return getLong(this.result.getColumnIndex(column));
+    }
+
+    public long getLong(int column) {
+        return this.result.getLong(column, this.index);
     }
 
     /**
@@ -54,7 +76,11 @@ public class Row {
      * @return The UUID value of the specified column.
      */
     public UUID getUuid(String column) {
-        return (UUID) getContent().get(column);
+        return getUuid(this.result.getColumnIndex(column));
+    }
+
+    public UUID getUuid(int column) {
+        return this.result.getUuid(column, this.index);
     }
 
     /**
@@ -64,16 +90,44 @@ public class Row {
      * @return The String value of the specified column.
      */
     public String getString(String column) {
-        return (String) getContent().get(column);
+        return getString(this.result.getColumnIndex(column));
+    }
+
+    public String getString(int column) {
+        return this.result.getString(column, this.index);
+    }
+
+    /**
+     * Retrieves the value of the specified column as a double.
+     *
+     * @param column The column name.
+     * @return The double value of the specified column.
+     */
+    public double getDouble(String column) {
+        return getDouble(this.result.getColumnIndex(column));
+    }
+
+    public double getDouble(int column) {
+        return this.result.getDouble(column, this.index);
+    }
+
+    /**
+     * Retrieves the value of the specified column as a byte array, e.g. a {@code bytea} column.
+     *
+     * @param column The column name.
+     * @return The bytes of the specified column, or {@code null} for SQL {@code NULL}.
+     */
+    public byte[] getBytes(String column) {
+        return (byte[]) getObject(column);
     }
 
     /**
-     * Retrieves the value of the specified column as a Double.
+     * Retrieves the value of the specified column, boxing primitive values.
      *
      * @param column The column name.
-     * @return The Double value of the specified column.
+     * @return The value of the specified column.
      */
-    public Double getDouble(String column) {
-        return (Double) getContent().get(column);
+    public Object getObject(String column) {
+        return this.result.getObject(this.result.getColumnIndex(column), this.index);
     }
 }
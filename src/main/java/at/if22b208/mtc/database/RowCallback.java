@@ -0,0 +1,17 @@
+package at.if22b208.mtc.database;
+
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+
+/**
+ * Callback receiving the rows of a streamed query one after another.
+ */
+@FunctionalInterface
+public interface RowCallback {
+    /**
+     * Processes a row. The row is a cursor that is moved on after the callback returns, so it must not be kept.
+     *
+     * @param row The current row.
+     */
+    void accept(Row row)
+            throws DatabaseTransactionException;
+}
@@ -0,0 +1,20 @@
+package at.if22b208.mtc.database;
+
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+
+/**
+ * Maps a row of a query result to an object.
+ *
+ * @param <T> The type of the mapped objects.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * Maps a row. The row is a cursor that is moved on after the mapper returns, so it must not be kept.
+     *
+     * @param row The current row.
+     * @return The mapped object.
+     */
+    T map(Row row)
+            throws DatabaseTransactionException;
+}
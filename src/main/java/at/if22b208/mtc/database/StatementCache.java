@@ -0,0 +1,103 @@
+package at.if22b208.mtc.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Least recently used cache of the prepared statements of a single connection, keyed by their SQL text.
+ *
+ * <p>Cached statements stay open while the connection is in the pool, so a repository query is parsed by the
+ * driver only once per connection. Since the PostgreSQL driver counts executions per statement object, reusing
+ * the object also lets hot queries reach the driver's {@code prepareThreshold} and switch to a server-side
+ * prepared statement with a cached plan. Like its connection, the cache is only used by one thread at a time.</p>
+ */
+@Slf4j
+class StatementCache {
+    private final Map<String, PreparedStatement> statements;
+
+    private final Map<String, PreparedStatement> generatedKeyStatements;
+
+    private final LongAdder hits;
+
+    private final LongAdder misses;
+
+    StatementCache(int capacity, LongAdder hits, LongAdder misses) {
+        this.statements = createLruMap(capacity);
+        this.generatedKeyStatements = createLruMap(capacity);
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Gets the cached statement for the query, preparing it if it is not cached yet.
+     *
+     * @param connection           The connection owning the cache.
+     * @param sql                  The SQL text.
+     * @param returnGeneratedKeys  True if the statement has to return the generated keys.
+     * @return The prepared statement. It must not be closed by the caller.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    PreparedStatement prepare(Connection connection, String sql, boolean returnGeneratedKeys)
+            throws SQLException {
+        Map<String, PreparedStatement> cache = returnGeneratedKeys ? this.generatedKeyStatements : this.statements;
+        PreparedStatement statement = cache.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            this.hits.increment();
+            return statement;
+        }
+
+        this.misses.increment();
+        statement = returnGeneratedKeys ?
+                connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) :
+                connection.prepareStatement(sql);
+        cache.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Closes and removes all cached statements, e.g. after a failed statement left one in an unknown state.
+     */
+    void clear() {
+        closeAll(this.statements);
+        closeAll(this.generatedKeyStatements);
+    }
+
+    int size() {
+        return this.statements.size() + this.generatedKeyStatements.size();
+    }
+
+    private static void closeAll(Map<String, PreparedStatement> cache) {
+        for (PreparedStatement statement : cache.values()) {
+            closeQuietly(statement);
+        }
+        cache.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close statement: {}", e.getMessage());
+        }
+    }
+
+    private static Map<String, PreparedStatement> createLruMap(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+}
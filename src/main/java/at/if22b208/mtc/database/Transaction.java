@@ -1,45 +1,163 @@
 package at.if22b208.mtc.database;
 
-import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import at.if22b208.mtc.exception.DatabaseTransactionException;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * A database transaction bound to the creating thread.
+ *
+ * <p>All queries the {@link Database} executes on this thread while the transaction is open run on the same
+ * connection. The connection is checked out from the pool with the first query and owned by the transaction
+ * until it is committed, rolled back or closed. Closing a transaction that has neither been committed nor
+ * rolled back rolls it back.</p>
+ */
 @Slf4j
-public class Transaction {
+public class Transaction implements AutoCloseable {
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
 
-    private final Connection connection;
+    private final Transaction enclosing;
+
+    private PooledConnection connection;
+
+    private boolean finished;
+
+    /**
+     * Actions run once the transaction has been committed or rolled back.
+     */
+    private List<Runnable> completionActions;
 
     public Transaction() {
-        this.connection = Database.getInstance().getConnection();
-        try {
-            this.connection.setAutoCommit(false);
-        } catch (SQLException e) {
-            log.error("Failed to disable auto-commit mode: {}", e.getMessage());
+        this.enclosing = CURRENT.get();
+        if (this.enclosing != null) {
+            log.warn("Starting a transaction while another transaction is open on this thread.");
         }
+        CURRENT.set(this);
     }
 
-    public void commit()
+    /**
+     * Gets the open transaction of the current thread.
+     *
+     * @return The transaction, or {@code null} if no transaction is open.
+     */
+    static Transaction current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the action once the open transaction of the current thread has been committed or rolled back, or
+     * immediately if there is no open transaction. Used to discard state derived from rows the transaction has
+     * written, e.g. cache entries, which other threads could otherwise load again before the commit.
+     *
+     * @param action The action to run.
+     */
+    public static void afterCompletion(Runnable action) {
+        Transaction transaction = CURRENT.get();
+        if (transaction == null) {
+            action.run();
+            return;
+        }
+        if (transaction.completionActions == null) {
+            transaction.completionActions = new ArrayList<>();
+        }
+        transaction.completionActions.add(action);
+    }
+
+    /**
+     * Gets the connection of this transaction, checking it out from the pool on first use.
+     *
+     * @return The connection, with auto-commit disabled.
+     * @throws DatabaseTransactionException If no connection could be checked out.
+     */
+    PooledConnection getConnection()
             throws DatabaseTransactionException {
-        if (this.connection != null) {
+        if (this.finished) {
+            throw new DatabaseTransactionException("Transaction has already been finished.");
+        }
+        if (this.connection == null) {
+            PooledConnection pooled = Database.getInstance().checkOut();
             try {
-                this.connection.commit();
+                pooled.getConnection().setAutoCommit(false);
             } catch (SQLException e) {
-                throw new DatabaseTransactionException("Failed to commit transaction.");
+                Database.getInstance().checkIn(pooled);
+                throw new DatabaseTransactionException("Failed to disable auto-commit mode.");
             }
+            this.connection = pooled;
         }
+        return this.connection;
+    }
 
+    public void commit()
+            throws DatabaseTransactionException {
+        try {
+            if (this.connection != null) {
+                this.connection.getConnection().commit();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseTransactionException("Failed to commit transaction.");
+        } finally {
+            finish();
+        }
     }
 
     public void rollback()
             throws DatabaseTransactionException {
+        try {
+            if (this.connection != null) {
+                this.connection.getConnection().rollback();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseTransactionException("Failed to rollback transaction.");
+        } finally {
+            finish();
+        }
+    }
+
+    /**
+     * Rolls the transaction back unless it has already been committed or rolled back.
+     */
+    @Override
+    public void close() {
+        if (this.finished) {
+            return;
+        }
         if (this.connection != null) {
-            try {
-                this.connection.rollback();
-            } catch (SQLException e) {
-                throw new DatabaseTransactionException("Failed to rollback transaction.");
+            log.debug("Rolling back transaction that has not been committed.");
+        }
+        try {
+            rollback();
+        } catch (DatabaseTransactionException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the connection to the pool, unbinds the transaction from the thread and runs the completion actions.
+     */
+    private void finish() {
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+        if (this.connection != null) {
+            Database.getInstance().checkIn(this.connection);
+            this.connection = null;
+        }
+        if (CURRENT.get() == this) {
+            if (this.enclosing == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(this.enclosing);
+            }
+        }
+        if (this.completionActions != null) {
+            for (Runnable action : this.completionActions) {
+                action.run();
             }
+            this.completionActions = null;
         }
     }
 }
@@ -0,0 +1,9 @@
+package at.if22b208.mtc.dto.battle;
+
+/**
+ * A round of a battle log. The damages are the damages the cards fought with; {@code winnerCard} is the name of
+ * the winning card, {@code null} for a drawn round.
+ */
+public record BattleRoundDto(int round, String cardA, double damageA, String cardB, double damageB,
+                             String winnerCard) {
+}
@@ -0,0 +1,17 @@
+package at.if22b208.mtc.dto.session;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Getter;
+
+/**
+ * A session signing key, its secret Base64 encoded. The secret is case-sensitive, so the body is read as received
+ * and the property names are matched case-insensitively instead.
+ */
+@Getter
+@JsonFormat(with = JsonFormat.Feature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+public class SigningKeyDto {
+    private String keyId;
+
+    private String secret;
+}
@@ -0,0 +1,387 @@
+package at.if22b208.mtc.entity;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+
+import at.if22b208.mtc.config.MtcConstants;
+import at.if22b208.mtc.entity.enumeration.AttackEffectiveness;
+import at.if22b208.mtc.entity.enumeration.CardElementType;
+import at.if22b208.mtc.entity.enumeration.CardName;
+import at.if22b208.mtc.entity.enumeration.CardType;
+
+/**
+ * Simulates the rounds of a {@link Battle} over primitive arrays, without allocating while fighting.
+ *
+ * <p>Every card of both decks is given an id, its index in {@link #getCard(int)}. A deck is a slice of
+ * {@code int} card ids, the base damage of a card is kept in a {@code double[]} and its type, element, special
+ * creatures and owner are encoded in an {@code int} bitmask, so a round compares bits and looks up the
+ * effectiveness of an attack in a table instead of inspecting card objects. A kernel can be reused for any
+ * number of battles by loading new decks, but not by several threads at a time.</p>
+ *
+ * <p>The damage a card fights with is computed every round from its base damage and the card it faces; neither
+ * the base damage nor the {@link Card} is ever changed, so a card fights each round with the same damage no
+ * matter how many rounds it has fought before, and card objects can be shared between battles.</p>
+ */
+public class BattleKernel {
+    public static final int PLAYER_A = 0;
+
+    public static final int PLAYER_B = 1;
+
+    /**
+     * The winner of a drawn battle and of a drawn round.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Bits 0 to 7 hold the special creatures, one bit per {@link CardName} ordinal.
+     */
+    private static final int SPELL = 1 << 8;
+
+    private static final int ELEMENT_SHIFT = 9;
+
+    private static final int ELEMENT_MASK = 0b11;
+
+    /**
+     * The card has been created for Player A, respectively Player B.
+     */
+    private static final int OWNED_BY_A = 1 << 11;
+
+    private static final int OWNED_BY_B = 1 << 12;
+
+    private static final int GOBLIN = bit(CardName.GOBLIN);
+
+    private static final int DRAGON = bit(CardName.DRAGON);
+
+    private static final int ORK = bit(CardName.ORK);
+
+    private static final int WIZARD = bit(CardName.WIZARD);
+
+    private static final int KNIGHT = bit(CardName.KNIGHT);
+
+    private static final int WATER_SPELL = bit(CardName.WATER_SPELL);
+
+    private static final int KRAKEN = bit(CardName.KRAKEN);
+
+    private static final int FIRE_ELF = bit(CardName.FIRE_ELF);
+
+    /**
+     * The damage of card A, respectively card B, is nullified by a special rule.
+     */
+    private static final int ZERO_A = 1;
+
+    private static final int ZERO_B = 2;
+
+    private static final int ELEMENTS = CardElementType.values().length;
+
+    /**
+     * Damage multiplier of an attack, indexed by the element of the attacker times {@link #ELEMENTS} plus the
+     * element of the defender.
+     */
+    private static final double[] EFFECTIVENESS = new double[ELEMENTS * ELEMENTS];
+
+    static {
+        for (CardElementType attacker : CardElementType.values()) {
+            for (CardElementType defender : CardElementType.values()) {
+                EFFECTIVENESS[attacker.ordinal() * ELEMENTS + defender.ordinal()] =
+                        switch (getAttackEffectiveness(attacker, defender)) {
+                            case EFFECTIVE -> 2;
+                            case NOT_EFFECTIVE -> 0.5;
+                            case NO_EFFECT -> 1;
+                        };
+            }
+        }
+    }
+
+    private Card[] cards;
+
+    private int[] traits;
+
+    private double[] baseDamage;
+
+    /**
+     * The card ids of the deck of each player, in deck order.
+     */
+    private final int[][] decks = new int[2][];
+
+    private final int[] deckSizes = new int[2];
+
+    /**
+     * The cards drawn in every round, Player A's card at {@code 2 * round} and Player B's card after it.
+     */
+    private final int[] roundCards = new int[2 * MtcConstants.MAX_ROUNDS_PER_BATTLE];
+
+    /**
+     * The damage the drawn cards fought with in every round, in the order of {@link #roundCards}.
+     */
+    private final double[] roundDamage = new double[2 * MtcConstants.MAX_ROUNDS_PER_BATTLE];
+
+    private final int[] roundWinners = new int[MtcConstants.MAX_ROUNDS_PER_BATTLE];
+
+    private int roundsPlayed;
+
+    private int cardCount;
+
+    public BattleKernel() {
+        this(8);
+    }
+
+    /**
+     * Creates a kernel with room for the given number of cards in both decks together.
+     *
+     * @param capacity The number of cards; larger battles grow the arrays.
+     */
+    public BattleKernel(int capacity) {
+        allocate(capacity);
+    }
+
+    /**
+     * Loads the decks of both players, replacing the decks of the previous battle.
+     *
+     * @param playerA The uuid of Player A.
+     * @param deckA   The deck of Player A.
+     * @param playerB The uuid of Player B.
+     * @param deckB   The deck of Player B.
+     */
+    public void load(UUID playerA, List<Card> deckA, UUID playerB, List<Card> deckB) {
+        int size = deckA.size() + deckB.size();
+        if (this.cards.length < size) {
+            allocate(size);
+        }
+        this.deckSizes[PLAYER_A] = 0;
+        this.deckSizes[PLAYER_B] = 0;
+        int id = 0;
+        for (Card card : deckA) {
+            this.decks[PLAYER_A][this.deckSizes[PLAYER_A]++] = add(id++, card, playerA, playerB);
+        }
+        for (Card card : deckB) {
+            this.decks[PLAYER_B][this.deckSizes[PLAYER_B]++] = add(id++, card, playerA, playerB);
+        }
+        this.cardCount = id;
+        this.roundsPlayed = 0;
+    }
+
+    /**
+     * Fights the loaded decks against each other until a deck is empty or the maximum number of rounds is
+     * reached.
+     *
+     * @param random The source of the card draws, drawing Player A's card before Player B's card every round.
+     * @return The winning player, {@link #PLAYER_A} or {@link #PLAYER_B}, or {@link #NONE} for a draw.
+     */
+    public int fight(Random random) {
+        for (int round = 0; round < MtcConstants.MAX_ROUNDS_PER_BATTLE; round++) {
+            int sizeA = this.deckSizes[PLAYER_A];
+            int sizeB = this.deckSizes[PLAYER_B];
+            int a = sizeA == 0 ? NONE : this.decks[PLAYER_A][random.nextInt(sizeA)];
+            int b = sizeB == 0 ? NONE : this.decks[PLAYER_B][random.nextInt(sizeB)];
+            if (a == NONE || b == NONE) {
+                return a == b ? NONE : a == NONE ? PLAYER_B : PLAYER_A;
+            }
+
+            int traitsA = this.traits[a];
+            int traitsB = this.traits[b];
+            boolean spellA = (traitsA & SPELL) != 0;
+            boolean spellB = (traitsB & SPELL) != 0;
+            double effectivenessA = 1;
+            double effectivenessB = 1;
+            int zeroed;
+            if (!spellA && !spellB) {
+                zeroed = monsterFight(traitsA, traitsB);
+            } else {
+                int elementA = traitsA >>> ELEMENT_SHIFT & ELEMENT_MASK;
+                int elementB = traitsB >>> ELEMENT_SHIFT & ELEMENT_MASK;
+                effectivenessA = EFFECTIVENESS[elementA * ELEMENTS + elementB];
+                effectivenessB = EFFECTIVENESS[elementB * ELEMENTS + elementA];
+                zeroed = spellA && spellB ? 0 : mixedFight(traitsA, traitsB);
+            }
+
+            double damageA = (zeroed & ZERO_A) != 0 ? 0 : this.baseDamage[a] * effectivenessA;
+            double damageB = (zeroed & ZERO_B) != 0 ? 0 : this.baseDamage[b] * effectivenessB;
+            int winner = damageA > damageB ? PLAYER_A : damageA < damageB ? PLAYER_B : NONE;
+            this.roundCards[2 * round] = a;
+            this.roundCards[2 * round + 1] = b;
+            this.roundDamage[2 * round] = damageA;
+            this.roundDamage[2 * round + 1] = damageB;
+            this.roundWinners[round] = winner;
+            this.roundsPlayed++;
+            if (winner == PLAYER_A) {
+                overtake(a, b);
+            } else if (winner == PLAYER_B) {
+                overtake(b, a);
+            }
+        }
+        return NONE;
+    }
+
+    public int getRoundsPlayed() {
+        return this.roundsPlayed;
+    }
+
+    /**
+     * Gets the card a player drew in a round.
+     *
+     * @param round  The index of the round, starting at 0.
+     * @param player The player, {@link #PLAYER_A} or {@link #PLAYER_B}.
+     * @return The id of the card.
+     */
+    public int getRoundCard(int round, int player) {
+        return this.roundCards[2 * round + player];
+    }
+
+    /**
+     * Gets the damage the card a player drew in a round fought with.
+     *
+     * @param round  The index of the round, starting at 0.
+     * @param player The player, {@link #PLAYER_A} or {@link #PLAYER_B}.
+     * @return The damage.
+     */
+    public double getRoundDamage(int round, int player) {
+        return this.roundDamage[2 * round + player];
+    }
+
+    /**
+     * Gets the player whose card won a round.
+     *
+     * @param round The index of the round, starting at 0.
+     * @return {@link #PLAYER_A}, {@link #PLAYER_B} or {@link #NONE} if the round was a draw.
+     */
+    public int getRoundWinner(int round) {
+        return this.roundWinners[round];
+    }
+
+    /**
+     * Gets the number of cards loaded for the battle, the ids of the cards range from 0 to this number.
+     *
+     * @return The number of cards.
+     */
+    public int getCardCount() {
+        return this.cardCount;
+    }
+
+    public int getDeckSize(int player) {
+        return this.deckSizes[player];
+    }
+
+    /**
+     * Gets a card of a deck.
+     *
+     * @param player The player, {@link #PLAYER_A} or {@link #PLAYER_B}.
+     * @param index  The index of the card in the deck.
+     * @return The id of the card.
+     */
+    public int getDeckCard(int player, int index) {
+        return this.decks[player][index];
+    }
+
+    public Card getCard(int id) {
+        return this.cards[id];
+    }
+
+    /**
+     * Gets the base damage of a card, the damage before effectiveness and special rules of a round.
+     *
+     * @param id The id of the card.
+     * @return The damage.
+     */
+    public double getBaseDamage(int id) {
+        return this.baseDamage[id];
+    }
+
+    private void allocate(int capacity) {
+        this.cards = new Card[capacity];
+        this.traits = new int[capacity];
+        this.baseDamage = new double[capacity];
+        this.decks[PLAYER_A] = new int[capacity];
+        this.decks[PLAYER_B] = new int[capacity];
+    }
+
+    private int add(int id, Card card, UUID playerA, UUID playerB) {
+        int traits = card.getCreatures() | card.getCardElementType().ordinal() << ELEMENT_SHIFT;
+        if (card.getCardType() == CardType.SPELL) {
+            traits |= SPELL;
+        }
+        if (Objects.equals(card.getUserUuid(), playerA)) {
+            traits |= OWNED_BY_A;
+        }
+        if (Objects.equals(card.getUserUuid(), playerB)) {
+            traits |= OWNED_BY_B;
+        }
+        this.cards[id] = card;
+        this.traits[id] = traits;
+        this.baseDamage[id] = card.getDamage();
+        return id;
+    }
+
+    private static int monsterFight(int traitsA, int traitsB) {
+        return zeroIfMatched(traitsA, GOBLIN, traitsB, DRAGON) |
+                zeroIfMatched(traitsA, ORK, traitsB, WIZARD) |
+                zeroIfMatched(traitsA, DRAGON, traitsB, FIRE_ELF);
+    }
+
+    private static int mixedFight(int traitsA, int traitsB) {
+        return zeroIfMatched(traitsA, KNIGHT, traitsB, WATER_SPELL) |
+                zeroIfMatched(traitsA, SPELL, traitsB, KRAKEN);
+    }
+
+    /**
+     * Determines whether the damage of the card having the {@code victim} trait is nullified because the other
+     * card has the {@code rival} trait, checking card A first.
+     *
+     * @return {@link #ZERO_A}, {@link #ZERO_B} or 0 if the rule does not apply.
+     */
+    private static int zeroIfMatched(int traitsA, int victim, int traitsB, int rival) {
+        if ((traitsA & victim) != 0 && (traitsB & rival) != 0) {
+            return ZERO_A;
+        } else if ((traitsB & victim) != 0 && (traitsA & rival) != 0) {
+            return ZERO_B;
+        }
+        return 0;
+    }
+
+    /**
+     * Moves the losing card to the end of the winner's deck. As before, the players are determined by the owner
+     * the cards have been created for, not by the deck they are in, and the order of the decks is kept, so a
+     * battle replays identically with the same card draws.
+     */
+    private void overtake(int winner, int loser) {
+        int winningPlayer = (this.traits[winner] & OWNED_BY_A) != 0 ? PLAYER_A : PLAYER_B;
+        int losingPlayer = (this.traits[loser] & OWNED_BY_B) != 0 ? PLAYER_B : PLAYER_A;
+
+        int[] loserDeck = this.decks[losingPlayer];
+        int loserSize = this.deckSizes[losingPlayer];
+        for (int i = 0; i < loserSize; i++) {
+            if (loserDeck[i] == loser) {
+                System.arraycopy(loserDeck, i + 1, loserDeck, i, loserSize - i - 1);
+                this.deckSizes[losingPlayer]--;
+                this.decks[winningPlayer][this.deckSizes[winningPlayer]++] = loser;
+                return;
+            }
+        }
+    }
+
+    private static int bit(CardName creature) {
+        return 1 << creature.ordinal();
+    }
+
+    /**
+     * Gets the effectiveness of an attack based on the elemental types of the cards involved.
+     *
+     * @param attacker The element of the attacking card.
+     * @param defender The element of the defending card.
+     * @return The effectiveness of the attack.
+     */
+    private static AttackEffectiveness getAttackEffectiveness(CardElementType attacker, CardElementType defender) {
+        if (attacker == defender) {
+            return AttackEffectiveness.NO_EFFECT;
+        }
+
+        if (attacker == CardElementType.WATER && defender == CardElementType.FIRE ||
+                attacker == CardElementType.FIRE && defender == CardElementType.NORMAL ||
+                attacker == CardElementType.NORMAL && defender == CardElementType.WATER) {
+            return AttackEffectiveness.EFFECTIVE;
+        } else {
+            return AttackEffectiveness.NOT_EFFECTIVE;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package at.if22b208.mtc.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import lombok.Getter;
+
+/**
+ * The rounds of a battle in a compact binary form, encoded once the battle has finished and decoded only when
+ * a client asks for the log.
+ *
+ * <p>The log starts with the cards of the battle, Player A's deck first: uuid, damage and name of each card.
+ * Every round follows as a record of {@value #RECORD_SIZE} bytes: the round number, the index of the card each
+ * player drew, the damage each card fought with and the player whose card won. Rounds are read straight from
+ * the bytes, without decoding the whole log.</p>
+ */
+public class BattleLog {
+    private static final byte VERSION = 1;
+
+    /**
+     * Round number ({@code short}), cards ({@code byte}, {@code byte}), damages ({@code double}, {@code double})
+     * and winner ({@code byte}).
+     */
+    static final int RECORD_SIZE = 2 + 1 + 1 + 8 + 8 + 1;
+
+    /**
+     * The uuid of the battle.
+     */
+    @Getter
+    private final UUID uuid;
+
+    @Getter
+    private final UUID playerAUuid;
+
+    @Getter
+    private final UUID playerBUuid;
+
+    /**
+     * The uuid of the winner of the battle, {@code null} for a draw.
+     */
+    @Getter
+    private final UUID winnerUuid;
+
+    private final byte[] bytes;
+
+    private final UUID[] cardUuids;
+
+    private final String[] cardNames;
+
+    private final double[] cardDamages;
+
+    private final ByteBuffer rounds;
+
+    private BattleLog(UUID uuid, UUID playerAUuid, UUID playerBUuid, UUID winnerUuid, byte[] bytes) {
+        this.uuid = uuid;
+        this.playerAUuid = playerAUuid;
+        this.playerBUuid = playerBUuid;
+        this.winnerUuid = winnerUuid;
+        this.bytes = bytes;
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unknown battle log version.");
+            }
+            int cards = in.readUnsignedByte();
+            this.cardUuids = new UUID[cards];
+            this.cardNames = new String[cards];
+            this.cardDamages = new double[cards];
+            for (int i = 0; i < cards; i++) {
+                this.cardUuids[i] = new UUID(in.readLong(), in.readLong());
+                this.cardDamages[i] = in.readDouble();
+                this.cardNames[i] = in.readUTF();
+            }
+            int rounds = in.readUnsignedShort();
+            int offset = bytes.length - in.available();
+            this.rounds = ByteBuffer.wrap(bytes, offset, rounds * RECORD_SIZE).slice();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated battle log.", e);
+        }
+    }
+
+    /**
+     * Encodes the rounds fought by a kernel.
+     *
+     * @param uuid    The uuid of the battle.
+     * @param playerA Player A.
+     * @param playerB Player B.
+     * @param winner  The winner of the battle, {@code null} for a draw.
+     * @param kernel  The kernel, after the battle has been fought.
+     * @return The log.
+     * @throws IllegalArgumentException If the battle had more than 255 cards.
+     */
+    public static BattleLog record(UUID uuid, User playerA, User playerB, User winner, BattleKernel kernel) {
+        if (kernel.getCardCount() > 0xFF) {
+            throw new IllegalArgumentException("Battle log holds at most 255 cards.");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * kernel.getCardCount() +
+                RECORD_SIZE * kernel.getRoundsPlayed());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(kernel.getCardCount());
+            for (int id = 0; id < kernel.getCardCount(); id++) {
+                Card card = kernel.getCard(id);
+                UUID cardUuid = card.getUuid() == null ? new UUID(0, 0) : card.getUuid();
+                out.writeLong(cardUuid.getMostSignificantBits());
+                out.writeLong(cardUuid.getLeastSignificantBits());
+                out.writeDouble(kernel.getBaseDamage(id));
+                out.writeUTF(card.getName() == null ? "" : card.getName());
+            }
+            out.writeShort(kernel.getRoundsPlayed());
+            for (int round = 0; round < kernel.getRoundsPlayed(); round++) {
+                out.writeShort(round + 1);
+                out.writeByte(kernel.getRoundCard(round, BattleKernel.PLAYER_A));
+                out.writeByte(kernel.getRoundCard(round, BattleKernel.PLAYER_B));
+                out.writeDouble(kernel.getRoundDamage(round, BattleKernel.PLAYER_A));
+                out.writeDouble(kernel.getRoundDamage(round, BattleKernel.PLAYER_B));
+                out.writeByte(kernel.getRoundWinner(round));
+            }
+        } catch (IOException e) {
+            // Not thrown by a ByteArrayOutputStream
+            throw new UncheckedIOException(e);
+        }
+        return new BattleLog(uuid, playerA.getUuid(), playerB.getUuid(), winner == null ? null : winner.getUuid(),
+                bytes.toByteArray());
+    }
+
+    /**
+     * Reads a log encoded by {@link #record(UUID, User, User, User, BattleKernel)}.
+     *
+     * @param uuid        The uuid of the battle.
+     * @param playerAUuid The uuid of Player A.
+     * @param playerBUuid The uuid of Player B.
+     * @param winnerUuid  The uuid of the winner, {@code null} for a draw.
+     * @param bytes       The encoded log.
+     * @return The log.
+     * @throws IllegalArgumentException If the bytes are not a battle log.
+     */
+    public static BattleLog decode(UUID uuid, UUID playerAUuid, UUID playerBUuid, UUID winnerUuid, byte[] bytes) {
+        return new BattleLog(uuid, playerAUuid, playerBUuid, winnerUuid, bytes);
+    }
+
+    /**
+     * Gets the encoded log.
+     *
+     * @return The bytes, not to be modified.
+     */
+    public byte[] getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Gets the number of rounds played.
+     *
+     * @return The number of rounds.
+     */
+    public int size() {
+        return this.rounds.limit() / RECORD_SIZE;
+    }
+
+    public boolean isDraw() {
+        return this.winnerUuid == null;
+    }
+
+    /**
+     * Checks whether the user fought in the battle.
+     *
+     * @param userUuid The uuid of the user.
+     * @return True if the user is Player A or Player B.
+     */
+    public boolean isPlayer(UUID userUuid) {
+        return userUuid.equals(this.playerAUuid) || userUuid.equals(this.playerBUuid);
+    }
+
+    /**
+     * Gets the number of a round.
+     *
+     * @param round The index of the round, starting at 0.
+     * @return The round number, starting at 1.
+     */
+    public int getNumber(int round) {
+        return this.rounds.getShort(round * RECORD_SIZE);
+    }
+
+    /**
+     * Gets the uuid of the card a player drew in a round.
+     *
+     * @param round  The index of the round, starting at 0.
+     * @param player The player, {@link BattleKernel#PLAYER_A} or {@link BattleKernel#PLAYER_B}.
+     * @return The card uuid.
+     */
+    public UUID getCardUuid(int round, int player) {
+        return this.cardUuids[getCard(round, player)];
+    }
+
+    /**
+     * Gets the name of the card a player drew in a round.
+     *
+     * @param round  The index of the round, starting at 0.
+     * @param player The player, {@link BattleKernel#PLAYER_A} or {@link BattleKernel#PLAYER_B}.
+     * @return The card name.
+     */
+    public String getCardName(int round, int player) {
+        return this.cardNames[getCard(round, player)];
+    }
+
+    /**
+     * Gets the base damage of the card a player drew in a round.
+     *
+     * @param round  The index of the round, starting at 0.
+     * @param player The player, {@link BattleKernel#PLAYER_A} or {@link BattleKernel#PLAYER_B}.
+     * @return The damage of the card.
+     */
+    public double getCardDamage(int round, int player) {
+        return this.cardDamages[getCard(round, player)];
+    }
+
+    /**
+     * Gets the damage the card a player drew in a round fought with.
+     *
+     * @param round  The index of the round, starting at 0.
+     * @param player The player, {@link BattleKernel#PLAYER_A} or {@link BattleKernel#PLAYER_B}.
+     * @return The damage.
+     */
+    public double getDamage(int round, int player) {
+        return this.rounds.getDouble(round * RECORD_SIZE + 4 + 8 * player);
+    }
+
+    /**
+     * Gets the player whose card won a round.
+     *
+     * @param round The index of the round, starting at 0.
+     * @return {@link BattleKernel#PLAYER_A}, {@link BattleKernel#PLAYER_B} or {@link BattleKernel#NONE} for a
+     * draw.
+     */
+    public int getWinner(int round) {
+        return this.rounds.get(round * RECORD_SIZE + 20);
+    }
+
+    private int getCard(int round, int player) {
+        return Byte.toUnsignedInt(this.rounds.get(round * RECORD_SIZE + 2 + player));
+    }
+}
@@ -0,0 +1,48 @@
+package at.if22b208.mtc.entity;
+
+import java.util.UUID;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The outcome of a battle, handed to both players.
+ */
+@Builder
+@Data
+public class BattleResult {
+    /**
+     * The uuid of the battle, by which its log is fetched.
+     */
+    private final UUID uuid;
+
+    private final User playerA;
+
+    private final User playerB;
+
+    /**
+     * The winner of the battle, {@code null} for a draw.
+     */
+    private final User winner;
+
+    private final boolean draw;
+
+    private final int roundsPlayed;
+
+    /**
+     * Creates the result of a finished battle.
+     *
+     * @param battle The finished battle.
+     * @return The result.
+     */
+    public static BattleResult of(Battle battle) {
+        return BattleResult.builder()
+                .uuid(battle.getUuid())
+                .playerA(battle.getPlayerA())
+                .playerB(battle.getPlayerB())
+                .winner(battle.getWinner())
+                .draw(battle.isDraw())
+                .roundsPlayed(battle.getRounds().size())
+                .build();
+    }
+}
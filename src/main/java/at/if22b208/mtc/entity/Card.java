@@ -10,6 +10,7 @@ package at.if22b208.mtc.entity;
 import java.util.UUID;
 
 import at.if22b208.mtc.entity.enumeration.CardElementType;
+import at.if22b208.mtc.entity.enumeration.CardName;
 import at.if22b208.mtc.entity.enumeration.CardType;
 import lombok.Builder;
 import lombok.Data;
@@ -60,11 +61,26 @@ public class Card {
     private CardElementType cardElementType;
 
     /**
-     * Builder class for {@code Card}, providing a name transformation based on certain keywords.
+     * The special creatures of the card, one bit per {@link CardName} ordinal.
+     */
+    private int creatures;
+
+    /**
+     * Checks whether the card is the specified special creature.
+     *
+     * @param creature The creature.
+     * @return True if the card is the creature.
+     */
+    public boolean is(CardName creature) {
+        return (this.creatures & (1 << creature.ordinal())) != 0;
+    }
+
+    /**
+     * Builder class for {@code Card}, deriving type, element and special creatures from the name.
      */
     public static class CardBuilder {
         /**
-         * Sets the name of the card and determines its type and element based on keywords.
+         * Sets the name of the card and determines its type, element and special creatures based on keywords.
          *
          * @param name The name of the card.
          * @return The modified builder instance.
@@ -74,18 +90,20 @@ public class Card {
                 this.name = null;
                 return this;
             }
-            this.name = name.toLowerCase();
-            this.cardType = this.name.contains("spell") ? CardType.SPELL : CardType.MONSTER;
-            if (this.name.contains("fire")) {
-                this.cardElementType = CardElementType.FIRE;
-            } else {
-                if (this.name.contains("water")) {
-                    this.cardElementType = CardElementType.WATER;
-                }
-                else {
-                    this.cardElementType = CardElementType.NORMAL;
-                }
-            }
+            return traits(CardTraits.of(name));
+        }
+
+        /**
+         * Sets the name, type, element and special creatures of the card from precomputed traits.
+         *
+         * @param traits The traits of the card name.
+         * @return The modified builder instance.
+         */
+        public CardBuilder traits(CardTraits traits) {
+            this.name = traits.name();
+            this.cardType = traits.cardType();
+            this.cardElementType = traits.elementType();
+            this.creatures = traits.creatures();
             return this;
         }
     }
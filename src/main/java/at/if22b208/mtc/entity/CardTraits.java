@@ -0,0 +1,81 @@
+package at.if22b208.mtc.entity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import at.if22b208.mtc.entity.enumeration.CardElementType;
+import at.if22b208.mtc.entity.enumeration.CardName;
+import at.if22b208.mtc.entity.enumeration.CardType;
+
+/**
+ * The properties of a card derived from its name: type, element and the special creatures relevant in battles.
+ *
+ * <p>The traits are derived once per distinct name and shared by all cards of that name, which also share the
+ * lowercase name instance.</p>
+ *
+ * @param name        The lowercase card name.
+ * @param cardType    The type of the card (e.g., Spell or Monster).
+ * @param elementType The element type of the card (e.g., Fire, Water, or Normal).
+ * @param creatures   The special creatures of the card, one bit per {@link CardName} ordinal.
+ */
+public record CardTraits(String name, CardType cardType, CardElementType elementType, int creatures) {
+    /**
+     * Upper bound of the distinct names kept, names beyond are derived on every use.
+     */
+    private static final int MAX_CACHED_NAMES = 10_000;
+
+    private static final Map<String, CardTraits> BY_NAME = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the traits of a card name.
+     *
+     * @param name The card name, in any case.
+     * @return The traits.
+     */
+    public static CardTraits of(String name) {
+        CardTraits traits = BY_NAME.get(name);
+        if (traits != null) {
+            return traits;
+        }
+        traits = derive(name);
+        if (BY_NAME.size() < MAX_CACHED_NAMES) {
+            BY_NAME.putIfAbsent(name, traits);
+        }
+        return traits;
+    }
+
+    /**
+     * Checks whether the card is the specified special creature.
+     *
+     * @param creature The creature.
+     * @return True if the card is the creature.
+     */
+    public boolean is(CardName creature) {
+        return (this.creatures & (1 << creature.ordinal())) != 0;
+    }
+
+    private static CardTraits derive(String name) {
+        String lowerCase = name.toLowerCase();
+        CardType cardType = lowerCase.contains("spell") ? CardType.SPELL : CardType.MONSTER;
+        CardElementType elementType;
+        if (lowerCase.contains("fire")) {
+            elementType = CardElementType.FIRE;
+        } else if (lowerCase.contains("water")) {
+            elementType = CardElementType.WATER;
+        } else {
+            elementType = CardElementType.NORMAL;
+        }
+
+        int creatures = 0;
+        for (CardName creature : CardName.values()) {
+            // The water spell and the fire elf are only special under exactly this name
+            boolean matches = creature == CardName.WATER_SPELL || creature == CardName.FIRE_ELF ?
+                    lowerCase.equals(creature.getValue()) :
+                    lowerCase.contains(creature.getValue());
+            if (matches) {
+                creatures |= 1 << creature.ordinal();
+            }
+        }
+        return new CardTraits(lowerCase, cardType, elementType, creatures);
+    }
+}
@@ -18,7 +18,7 @@ import java.util.UUID;
 /**
  * A builder-pattern based class for creating instances of {@code User}.
  */
-@Builder
+@Builder(toBuilder = true)
 @Data
 public class User {
     /**
@@ -37,6 +37,11 @@ public class User {
      */
     private String password;
 
+    /**
+     * The number of PBKDF2 iterations the password hash was computed with.
+     */
+    private int passwordIterations;
+
     /**
      * The balance of the user, represented as a {@code BigInteger}.
      */
@@ -48,7 +53,7 @@ public class User {
     private List<Card> stack;
 
     /**
-     * The list of cards in the user's deck.
+     * The list of cards in the user's deck. Loaded on demand, {@code null} until the deck has been loaded.
      */
     private List<Card> deck;
 
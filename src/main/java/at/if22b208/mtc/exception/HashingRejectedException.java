@@ -0,0 +1,15 @@
+package at.if22b208.mtc.exception;
+
+/**
+ * Exception thrown when a password hash is not computed because the hashing executor is saturated.
+ */
+public class HashingRejectedException extends Exception {
+    /**
+     * Constructs a new {@code HashingRejectedException} with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the {@link #getMessage()} method).
+     */
+    public HashingRejectedException(String message) {
+        super(message);
+    }
+}
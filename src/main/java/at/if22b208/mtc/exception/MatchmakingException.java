@@ -0,0 +1,15 @@
+package at.if22b208.mtc.exception;
+
+/**
+ * Exception thrown to indicate that a user cannot enter the battle queue.
+ */
+public class MatchmakingException extends Exception {
+    /**
+     * Constructs a new {@code MatchmakingException} with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the {@link #getMessage()} method).
+     */
+    public MatchmakingException(String message) {
+        super(message);
+    }
+}
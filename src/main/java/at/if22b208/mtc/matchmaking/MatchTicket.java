@@ -0,0 +1,88 @@
+package at.if22b208.mtc.matchmaking;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
+
+import at.if22b208.mtc.entity.BattleResult;
+import at.if22b208.mtc.entity.User;
+import lombok.Getter;
+
+/**
+ * A player in the battle queue, holding the future completed with the result of the player's battle.
+ *
+ * <p>A ticket leaves the pool exactly once: when a player is paired with it, or on its timeout or cancellation.
+ * The {@link Matchmaker} decides which of these happens by removing the ticket from its pool under its monitor,
+ * and only the party that removed the ticket completes it. Leaving the pool cancels the pending timeout.</p>
+ */
+public class MatchTicket {
+    @Getter
+    private final User user;
+
+    /**
+     * The Elo of the user on entering the queue, by which the ticket is ordered in the pool.
+     */
+    @Getter
+    private final int elo;
+
+    /**
+     * Orders tickets with equal Elo by their arrival.
+     */
+    @Getter
+    private final long sequence;
+
+    @Getter
+    private final CompletableFuture<BattleResult> result = new CompletableFuture<>();
+
+    @Getter
+    private final long enqueuedAt = System.nanoTime();
+
+    /**
+     * The waiting ticket this ticket has been paired with on entering the queue, {@code null} if the ticket waits.
+     */
+    @Getter
+    private MatchTicket opponent;
+
+    private volatile boolean left;
+
+    private volatile Future<?> timeout;
+
+    MatchTicket(User user, long sequence) {
+        this.user = user;
+        this.elo = user.getElo();
+        this.sequence = sequence;
+    }
+
+    /**
+     * Marks the ticket as removed from the pool and cancels its timeout, if already scheduled.
+     */
+    void leavePool() {
+        this.left = true;
+        Future<?> timeout = this.timeout;
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+    }
+
+    /**
+     * Gets the time the ticket has been waiting.
+     *
+     * @param now The current value of {@link System#nanoTime()}.
+     * @return The waiting time in milliseconds.
+     */
+    long getWaitedMillis(long now) {
+        return TimeUnit.NANOSECONDS.toMillis(now - this.enqueuedAt);
+    }
+
+    void setOpponent(MatchTicket opponent) {
+        this.opponent = opponent;
+    }
+
+    void setTimeout(Future<?> timeout) {
+        this.timeout = timeout;
+        // The ticket may have been paired before its timeout was scheduled
+        if (this.left) {
+            timeout.cancel(false);
+        }
+    }
+}
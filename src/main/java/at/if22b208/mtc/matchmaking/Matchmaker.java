@@ -0,0 +1,322 @@
+package at.if22b208.mtc.matchmaking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+import at.if22b208.mtc.config.MatchmakingConstants;
+import at.if22b208.mtc.entity.User;
+import at.if22b208.mtc.exception.MatchmakingException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pairs players entering the battle queue with the waiting player closest in Elo, without a thread per waiting
+ * player.
+ *
+ * <p>Waiting players are kept in a pool ordered by Elo. A player entering the queue searches the pool outwards
+ * from the own Elo and is paired with the closest waiting player within the accepted gap. The accepted gap of a
+ * player starts at {@code initialWindow} and widens by {@code windowGrowthPerSecond} while the player waits, up
+ * to {@code maxWindow}; two players are paired if their gap is within the window of either. A player finding no
+ * opponent leaves a {@link MatchTicket} and is answered through the future of the ticket.</p>
+ *
+ * <p>No waiting player accepts a wider gap than the one waiting longest, so the search stops at the larger of
+ * the own window and the window of the longest waiting player. A join therefore takes {@code O(log n + k)},
+ * where {@code k} is the number of waiting players within that gap that reject the joining player. Waiting
+ * players within each other's windows are paired by the sweep, so {@code k} stays small unless the pool holds
+ * long-waiting players next to a burst of new ones.</p>
+ *
+ * <p>As windows widen, players already waiting become acceptable to each other. A sweep pairs neighbours in
+ * the pool every {@link MatchmakingConstants#SWEEP_INTERVAL_MILLIS} and hands them to the {@code onMatch}
+ * callback, which has to complete both tickets. A waiting ticket is removed when it times out or when its
+ * future is cancelled, e.g. because the client disconnected.</p>
+ */
+@Slf4j
+public class Matchmaker {
+    private static final Comparator<MatchTicket> BY_ELO = Comparator.comparingInt(MatchTicket::getElo)
+            .thenComparingLong(MatchTicket::getSequence);
+
+    private final TreeSet<MatchTicket> pool = new TreeSet<>(BY_ELO);
+
+    /**
+     * The waiting tickets by user, in the order the users joined, so the first ticket has the widest window.
+     */
+    private final LinkedHashMap<UUID, MatchTicket> waitingByUser = new LinkedHashMap<>();
+
+    private final long timeoutMillis;
+
+    private final int initialWindow;
+
+    private final int windowGrowthPerSecond;
+
+    private final int maxWindow;
+
+    private final BiConsumer<MatchTicket, MatchTicket> onMatch;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private long sequence;
+
+    private long matches;
+
+    private long timeouts;
+
+    private long cancellations;
+
+    private long totalQueueMillis;
+
+    private long maxQueueMillis;
+
+    private long totalRatingSpread;
+
+    private int maxRatingSpread;
+
+    /**
+     * Creates a matchmaker with the default windows of {@link MatchmakingConstants}.
+     *
+     * @param timeoutMillis The time a player waits for an opponent.
+     * @param onMatch       Called with two waiting players paired by the sweep, the one waiting longer first.
+     */
+    public Matchmaker(long timeoutMillis, BiConsumer<MatchTicket, MatchTicket> onMatch) {
+        this(timeoutMillis, MatchmakingConstants.INITIAL_ELO_WINDOW, MatchmakingConstants.ELO_WINDOW_GROWTH_PER_SECOND,
+                MatchmakingConstants.MAX_ELO_WINDOW, MatchmakingConstants.SWEEP_INTERVAL_MILLIS, onMatch);
+    }
+
+    Matchmaker(long timeoutMillis, int initialWindow, int windowGrowthPerSecond, int maxWindow,
+               long sweepIntervalMillis, BiConsumer<MatchTicket, MatchTicket> onMatch) {
+        this.timeoutMillis = timeoutMillis;
+        this.initialWindow = initialWindow;
+        this.windowGrowthPerSecond = windowGrowthPerSecond;
+        this.maxWindow = maxWindow;
+        this.onMatch = onMatch;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("matchmaking");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enters the queue with the given user.
+     *
+     * @param user The user with the deck loaded.
+     * @return The ticket of the user. If a waiting player has been found, {@link MatchTicket#getOpponent()} holds
+     * the ticket of that player and the caller has to complete both tickets; otherwise the ticket waits.
+     * @throws MatchmakingException If the user is already waiting.
+     */
+    public MatchTicket join(User user)
+            throws MatchmakingException {
+        MatchTicket ticket;
+        MatchTicket opponent;
+        synchronized (this) {
+            if (this.waitingByUser.containsKey(user.getUuid())) {
+                throw new MatchmakingException("User is already waiting for a battle.");
+            }
+            ticket = new MatchTicket(user, this.sequence++);
+            opponent = findOpponent(ticket, ticket.getEnqueuedAt());
+            if (opponent == null) {
+                this.pool.add(ticket);
+                this.waitingByUser.put(user.getUuid(), ticket);
+            } else {
+                remove(opponent);
+                recordMatch(opponent, ticket, ticket.getEnqueuedAt());
+            }
+        }
+
+        if (opponent == null) {
+            await(ticket);
+        } else {
+            opponent.leavePool();
+            ticket.leavePool();
+            ticket.setOpponent(opponent);
+        }
+        return ticket;
+    }
+
+    /**
+     * Checks whether a player is waiting for an opponent.
+     *
+     * @return True if a player is waiting.
+     */
+    public synchronized boolean hasWaitingPlayer() {
+        return !this.pool.isEmpty();
+    }
+
+    /**
+     * Gets a snapshot of the usage of the matchmaker.
+     *
+     * @return The metrics.
+     */
+    public synchronized MatchmakingMetrics getMetrics() {
+        return MatchmakingMetrics.builder()
+                .waiting(this.pool.size())
+                .matches(this.matches)
+                .timeouts(this.timeouts)
+                .cancellations(this.cancellations)
+                .totalQueueMillis(this.totalQueueMillis)
+                .maxQueueMillis(this.maxQueueMillis)
+                .totalRatingSpread(this.totalRatingSpread)
+                .maxRatingSpread(this.maxRatingSpread)
+                .build();
+    }
+
+    /**
+     * Gets the Elo gap a ticket accepts.
+     *
+     * @param ticket The ticket.
+     * @param now    The current value of {@link System#nanoTime()}.
+     * @return The accepted gap.
+     */
+    int getWindow(MatchTicket ticket, long now) {
+        long widened = this.initialWindow + ticket.getWaitedMillis(now) * this.windowGrowthPerSecond / 1000;
+        return (int) Math.min(widened, this.maxWindow);
+    }
+
+    /**
+     * Searches the pool outwards from the Elo of the ticket for the closest acceptable opponent, up to the widest
+     * gap any waiting player accepts.
+     */
+    private MatchTicket findOpponent(MatchTicket ticket, long now) {
+        if (this.pool.isEmpty()) {
+            return null;
+        }
+        Iterator<MatchTicket> above = this.pool.tailSet(ticket, false).iterator();
+        Iterator<MatchTicket> below = this.pool.headSet(ticket, false).descendingIterator();
+        MatchTicket nextAbove = above.hasNext() ? above.next() : null;
+        MatchTicket nextBelow = below.hasNext() ? below.next() : null;
+        int window = getWindow(ticket, now);
+        MatchTicket longestWaiting = this.waitingByUser.values().iterator().next();
+        int searchGap = Math.max(window, getWindow(longestWaiting, now));
+
+        while (nextAbove != null || nextBelow != null) {
+            MatchTicket candidate;
+            if (nextBelow == null || (nextAbove != null && gap(ticket, nextAbove) < gap(ticket, nextBelow))) {
+                candidate = nextAbove;
+                nextAbove = above.hasNext() ? above.next() : null;
+            } else {
+                candidate = nextBelow;
+                nextBelow = below.hasNext() ? below.next() : null;
+            }
+
+            int gap = gap(ticket, candidate);
+            if (gap > searchGap) {
+                // All remaining candidates are further away than any of them accepts
+                return null;
+            }
+            if (gap <= Math.max(window, getWindow(candidate, now))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pairs neighbours in the pool whose windows have widened enough to accept each other.
+     */
+    private void sweep() {
+        List<MatchTicket[]> paired = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            MatchTicket previous = null;
+            for (MatchTicket ticket : this.pool) {
+                if (previous != null && gap(previous, ticket) <= Math.max(getWindow(previous, now),
+                        getWindow(ticket, now))) {
+                    paired.add(previous.getEnqueuedAt() <= ticket.getEnqueuedAt()
+                            ? new MatchTicket[]{previous, ticket}
+                            : new MatchTicket[]{ticket, previous});
+                    previous = null;
+                } else {
+                    previous = ticket;
+                }
+            }
+            for (MatchTicket[] pair : paired) {
+                remove(pair[0]);
+                remove(pair[1]);
+                recordMatch(pair[0], pair[1], now);
+            }
+        }
+
+        for (MatchTicket[] pair : paired) {
+            pair[0].leavePool();
+            pair[1].leavePool();
+            try {
+                this.onMatch.accept(pair[0], pair[1]);
+            } catch (RuntimeException e) {
+                log.error("Failed to start battle of paired players: {}", e.getMessage());
+                pair[0].getResult().completeExceptionally(e);
+                pair[1].getResult().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void await(MatchTicket ticket) {
+        ticket.getResult().whenComplete((result, e) -> {
+            if (e instanceof CancellationException) {
+                leave(ticket, null);
+            }
+        });
+        ticket.setTimeout(this.scheduler.schedule(() -> leave(ticket, new TimeoutException(
+                "No opponent found within " + this.timeoutMillis + " ms.")), this.timeoutMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Removes a waiting ticket that has not been paired yet.
+     *
+     * @param ticket The ticket.
+     * @param cause  The exception to complete the ticket with, or {@code null} if the ticket has been cancelled.
+     */
+    private void leave(MatchTicket ticket, Throwable cause) {
+        synchronized (this) {
+            if (!remove(ticket)) {
+                // Paired in the meantime
+                return;
+            }
+            if (cause == null) {
+                this.cancellations++;
+            } else {
+                this.timeouts++;
+            }
+        }
+        ticket.leavePool();
+        if (cause != null) {
+            ticket.getResult().completeExceptionally(cause);
+        }
+        log.debug("User '{}' left the battle queue.", ticket.getUser().getUsername());
+    }
+
+    private boolean remove(MatchTicket ticket) {
+        if (!this.pool.remove(ticket)) {
+            return false;
+        }
+        this.waitingByUser.remove(ticket.getUser().getUuid());
+        return true;
+    }
+
+    private void recordMatch(MatchTicket playerA, MatchTicket playerB, long now) {
+        long queueA = playerA.getWaitedMillis(now);
+        long queueB = playerB.getWaitedMillis(now);
+        int spread = gap(playerA, playerB);
+        this.matches++;
+        this.totalQueueMillis += queueA + queueB;
+        this.maxQueueMillis = Math.max(this.maxQueueMillis, Math.max(queueA, queueB));
+        this.totalRatingSpread += spread;
+        this.maxRatingSpread = Math.max(this.maxRatingSpread, spread);
+    }
+
+    private static int gap(MatchTicket a, MatchTicket b) {
+        return Math.abs(a.getElo() - b.getElo());
+    }
+}
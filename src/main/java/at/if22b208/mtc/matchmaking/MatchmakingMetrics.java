@@ -0,0 +1,50 @@
+package at.if22b208.mtc.matchmaking;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the usage of a {@link Matchmaker}.
+ */
+@Data
+@Builder
+public class MatchmakingMetrics {
+    /**
+     * Players currently waiting for an opponent.
+     */
+    private final int waiting;
+
+    private final long matches;
+
+    /**
+     * Players that left the queue because no opponent was found in time.
+     */
+    private final long timeouts;
+
+    /**
+     * Players that left the queue because their result was cancelled.
+     */
+    private final long cancellations;
+
+    /**
+     * Total time matched players waited for their opponent, in milliseconds.
+     */
+    private final long totalQueueMillis;
+
+    private final long maxQueueMillis;
+
+    /**
+     * Sum of the Elo gaps of all matches.
+     */
+    private final long totalRatingSpread;
+
+    private final int maxRatingSpread;
+
+    public double getAverageQueueMillis() {
+        return this.matches == 0 ? 0 : (double) this.totalQueueMillis / (2 * this.matches);
+    }
+
+    public double getAverageRatingSpread() {
+        return this.matches == 0 ? 0 : (double) this.totalRatingSpread / this.matches;
+    }
+}
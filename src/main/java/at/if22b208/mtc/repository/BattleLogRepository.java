@@ -0,0 +1,114 @@
+package at.if22b208.mtc.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import at.if22b208.mtc.database.Database;
+import at.if22b208.mtc.database.Result;
+import at.if22b208.mtc.database.Row;
+import at.if22b208.mtc.entity.BattleLog;
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+import lombok.val;
+
+/**
+ * The {@code BattleLogRepository} class is responsible for handling database operations related to battle logs.
+ *
+ * <p>The rounds of a battle are stored in the binary form of {@link BattleLog} and only decoded when read.</p>
+ *
+ * @see Repository
+ * @see BattleLog
+ */
+public class BattleLogRepository implements Repository<BattleLog, UUID> {
+    private static BattleLogRepository INSTANCE;
+
+    private static final String TABLE = "battle_log";
+
+    private static final String COLUMNS = "uuid, player_a, player_b, winner, rounds";
+
+    private BattleLogRepository() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Retrieves all battle logs from the database.
+     *
+     * @return A list of all battle logs in the database.
+     */
+    @Override
+    public List<Optional<BattleLog>> findAll()
+            throws DatabaseTransactionException {
+        String query = "SELECT " + COLUMNS + " FROM " + SCHEMA + TABLE;
+        val database = Database.getInstance();
+        Result result = database.executeSelectQuery(query);
+
+        List<Optional<BattleLog>> logs = new ArrayList<>();
+        for (Row row : result) {
+            logs.add(Optional.of(buildBattleLogFromRow(row)));
+        }
+        return logs;
+    }
+
+    /**
+     * Finds the log of a battle by the UUID of the battle.
+     *
+     * @param uuid The UUID of the battle.
+     * @return An Optional containing the found battle log, or an empty Optional if not found.
+     */
+    @Override
+    public Optional<BattleLog> findById(UUID uuid)
+            throws DatabaseTransactionException {
+        String query = "SELECT " + COLUMNS + " FROM " + SCHEMA + TABLE + " WHERE uuid = ?";
+        val database = Database.getInstance();
+        Result result = database.executeSelectQuery(query, uuid);
+
+        for (Row row : result) {
+            return Optional.of(buildBattleLogFromRow(row));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Stores the log of a finished battle.
+     *
+     * @param battleLog The battle log to be stored.
+     * @return The stored battle log.
+     */
+    @Override
+    public BattleLog create(BattleLog battleLog)
+            throws DatabaseTransactionException {
+        String query = "INSERT INTO " + SCHEMA + TABLE + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+        val database = Database.getInstance();
+        database.executeUpdateQuery(query, battleLog.getUuid(), battleLog.getPlayerAUuid(), battleLog.getPlayerBUuid(),
+                battleLog.getWinnerUuid(), battleLog.getBytes());
+        return battleLog;
+    }
+
+    /**
+     * Builds a BattleLog from a database row.
+     *
+     * @param row The database row containing battle log data.
+     * @return A BattleLog built from the database row.
+     */
+    private BattleLog buildBattleLogFromRow(Row row) {
+        return BattleLog.decode(
+                row.getUuid("uuid"),
+                row.getUuid("player_a"),
+                row.getUuid("player_b"),
+                row.isNull("winner") ? null : row.getUuid("winner"),
+                row.getBytes("rounds"));
+    }
+
+    /**
+     * Gets the singleton instance of the {@code BattleLogRepository}.
+     *
+     * @return The singleton instance of the {@code BattleLogRepository}.
+     */
+    public static synchronized BattleLogRepository getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new BattleLogRepository();
+        }
+        return INSTANCE;
+    }
+}
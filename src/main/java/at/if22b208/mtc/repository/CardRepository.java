@@ -1,11 +1,15 @@
 package at.if22b208.mtc.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import at.if22b208.mtc.config.DatabaseConstants;
 import at.if22b208.mtc.database.Database;
 import at.if22b208.mtc.database.Result;
 import at.if22b208.mtc.database.Row;
@@ -27,6 +31,12 @@ public class CardRepository implements Repository<Card, UUID> {
 
     private static final String TABLE = "card";
 
+    private static final String DECK_CARD_TABLE = "deck_card";
+
+    private static final String PACKAGE_QUEUE_TABLE = "available_package";
+
+    private static final String PACKAGE_ID_SEQUENCE = "package_id_seq";
+
     /**
      * Retrieves all cards from the database.
      *
@@ -51,12 +61,84 @@ public class CardRepository implements Repository<Card, UUID> {
         val result = database.executeSelectQuery(query, uuid);
 
         Optional<Card> card = Optional.empty();
-        for (Row row : result.getRows()) {
+        for (Row row : result) {
             card = Optional.of(buildCardFromRow(row));
         }
         return card;
     }
 
+    /**
+     * Finds the cards with the given UUIDs in a single query.
+     *
+     * @param uuids The UUIDs of the cards to find.
+     * @return The found cards, in no particular order. Unknown UUIDs are skipped.
+     */
+    public List<Card> findAllById(Collection<UUID> uuids)
+            throws DatabaseTransactionException {
+        if (uuids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String query = "SELECT uuid, name, damage, user_uuid, package_id FROM " + SCHEMA + TABLE +
+                " WHERE uuid = ANY(?)";
+        val database = Database.getInstance();
+        return database.executeSelectQuery(query, this::buildCardFromRow, (Object) uuids.toArray(new UUID[0]));
+    }
+
+    /**
+     * Finds the owner of a card.
+     *
+     * @param uuid The UUID of the card.
+     * @return An Optional containing the UUID of the owner, or an empty Optional if the card is not owned or
+     * does not exist.
+     */
+    public Optional<UUID> findOwnerById(UUID uuid)
+            throws DatabaseTransactionException {
+        String query = "SELECT user_uuid FROM " + SCHEMA + TABLE + " WHERE uuid = ?";
+        val database = Database.getInstance();
+        for (Row row : database.executeSelectQuery(query, uuid)) {
+            return Optional.ofNullable(row.getUuid("user_uuid"));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the UUIDs of the deck cards of the given users with a single lookup on the {@code deck_card} table.
+     *
+     * @param userUuids The UUIDs of the deck owners.
+     * @return The UUIDs of the deck cards in slot order, by owner. Users without deck are missing.
+     */
+    public Map<UUID, List<UUID>> findDeckCardUuids(Collection<UUID> userUuids)
+            throws DatabaseTransactionException {
+        Map<UUID, List<UUID>> decks = new HashMap<>();
+        if (userUuids.isEmpty()) {
+            return decks;
+        }
+        String query = "SELECT user_uuid, card_uuid FROM " + SCHEMA + DECK_CARD_TABLE +
+                " WHERE user_uuid = ANY(?) ORDER BY user_uuid, slot";
+        val database = Database.getInstance();
+        Result result = database.executeSelectQuery(query, (Object) userUuids.toArray(new UUID[0]));
+
+        int userColumn = result.getColumnIndex("user_uuid");
+        int cardColumn = result.getColumnIndex("card_uuid");
+        for (Row row : result) {
+            decks.computeIfAbsent(row.getUuid(userColumn), user -> new ArrayList<>()).add(row.getUuid(cardColumn));
+        }
+        return decks;
+    }
+
+    /**
+     * Checks whether a card is part of any deck.
+     *
+     * @param card The card to check.
+     * @return True if the card is in a deck, false otherwise.
+     */
+    public boolean isInDeck(Card card)
+            throws DatabaseTransactionException {
+        String query = "SELECT 1 FROM " + SCHEMA + DECK_CARD_TABLE + " WHERE card_uuid = ?";
+        val database = Database.getInstance();
+        return !database.executeSelectQuery(query, card.getUuid()).isEmpty();
+    }
+
     /**
      * Creates a new card in the database.
      *
@@ -75,73 +157,99 @@ public class CardRepository implements Repository<Card, UUID> {
     }
 
     /**
-     * Finds all cards owned by a specific user.
+     * Finds the UUIDs of all cards owned by a specific user.
      *
      * @param user The user for whom to retrieve owned cards.
-     * @return A list of Optional cards owned by the user.
+     * @return The UUIDs of the cards owned by the user.
      */
-    public List<Optional<Card>> findByOwner(User user)
+    public List<UUID> findUuidsByOwner(User user)
             throws DatabaseTransactionException {
-        String query = "SELECT uuid, name, damage, package_id, user_uuid FROM " + SCHEMA + TABLE +
-                " WHERE user_uuid = ?";
+        String query = "SELECT uuid FROM " + SCHEMA + TABLE + " WHERE user_uuid = ?";
         val database = Database.getInstance();
-        Result result = database.executeSelectQuery(query, user.getUuid());
-
-        List<Optional<Card>> cards = new ArrayList<>();
-        for (Row row : result.getRows()) {
-            cards.add(Optional.of(buildCardFromRow(row)));
-        }
-        return cards;
+        return database.executeSelectQuery(query, row -> row.getUuid("uuid"), user.getUuid());
     }
 
     /**
-     * Finds available cards in a package.
+     * Adds packages to the queue of packages that can be bought.
      *
-     * @return A list of Optional cards available in a package.
+     * @param packageIds The IDs of the packages, whose cards must already exist.
      */
-    public List<Optional<Card>> findAvailablePackage()
+    public void enqueuePackages(Collection<Integer> packageIds)
             throws DatabaseTransactionException {
-        String packageQuery = "WITH random_package AS (SELECT DISTINCT package_id FROM " + SCHEMA + TABLE +
-                " WHERE user_uuid IS NULL)";
-        String query = packageQuery + " " + "SELECT uuid, name, damage, package_id, user_uuid FROM " + SCHEMA + TABLE +
-                " WHERE package_id = (SELECT package_id FROM random_package ORDER BY package_id ASC LIMIT 1)";
+        String query = "INSERT INTO " + SCHEMA + PACKAGE_QUEUE_TABLE + " (package_id) SELECT unnest(?)";
         val database = Database.getInstance();
-        Result result = database.executeSelectQuery(query);
+        database.executeUpdateQuery(query, (Object) packageIds.toArray(new Integer[0]));
+    }
 
-        List<Optional<Card>> cards = new ArrayList<>();
-        for (Row row : result.getRows()) {
-            cards.add(Optional.of(buildCardFromRow(row)));
-        }
-        return cards;
+    /**
+     * Claims the oldest available package and transfers its cards to the user with a single statement.
+     *
+     * <p>Packages locked by concurrent buyers are skipped instead of waited for, so concurrent purchases never
+     * claim the same package and never block each other. The claim becomes permanent with the commit of the
+     * surrounding transaction.</p>
+     *
+     * @param user The user buying the package.
+     * @return The cards of the claimed package, now owned by the user, or an empty list if no package is
+     * available.
+     */
+    public List<Card> claimAvailablePackage(User user)
+            throws DatabaseTransactionException {
+        String query = "WITH claimed AS (DELETE FROM " + SCHEMA + PACKAGE_QUEUE_TABLE + " WHERE package_id = " +
+                "(SELECT package_id FROM " + SCHEMA + PACKAGE_QUEUE_TABLE +
+                " ORDER BY package_id LIMIT 1 FOR UPDATE SKIP LOCKED) RETURNING package_id) " +
+                "UPDATE " + SCHEMA + TABLE + " c SET user_uuid = ? FROM claimed WHERE c.package_id = claimed.package_id " +
+                "RETURNING c.uuid, c.name, c.damage, c.package_id, c.user_uuid";
+        val database = Database.getInstance();
+        return database.executeSelectQuery(query, this::buildCardFromRow, user.getUuid());
     }
 
     /**
-     * Updates the owner of a specific card.
+     * Reserves new package IDs from the {@code package_id_seq} sequence. IDs are never handed out twice, even
+     * if the reserving transaction is rolled back.
      *
-     * @param card The card to be updated.
-     * @param user The new owner of the card.
+     * @param count The number of package IDs to reserve.
+     * @return The reserved package IDs.
      */
-    public void updateOwner(Card card, User user)
+    public List<Integer> nextPackageIds(int count)
             throws DatabaseTransactionException {
-        String query = "UPDATE " + SCHEMA + TABLE + " SET user_uuid = ? WHERE uuid = ?";
+        String query = "SELECT nextval('" + SCHEMA + PACKAGE_ID_SEQUENCE + "')::int4 AS id FROM generate_series(1, ?)";
         val database = Database.getInstance();
-        database.executeUpdateQuery(query, user.getUuid(), card.getUuid());
+        return database.executeSelectQuery(query, row -> row.getInt("id"), count);
     }
 
     /**
-     * Finds the maximum package ID currently in use.
+     * Creates cards with multi-row inserts of up to {@link DatabaseConstants#BULK_INSERT_SIZE} cards. Cards whose
+     * UUID already exists are skipped.
      *
-     * @return The maximum package ID or null if no packages exist.
+     * @param cards The cards to be created.
+     * @return The number of created cards, less than the number of cards if a UUID already existed.
      */
-    public Integer findNextPackageId()
+    public int createAll(List<Card> cards)
             throws DatabaseTransactionException {
-        String query = "SELECT MAX(package_id) as max FROM " + SCHEMA + TABLE;
+        String query = "INSERT INTO " + SCHEMA + TABLE + " (uuid, name, damage, package_id, user_uuid)" +
+                " SELECT * FROM unnest(?, ?, ?, ?, ?) ON CONFLICT (uuid) DO NOTHING RETURNING uuid";
         val database = Database.getInstance();
-        Result result = database.executeSelectQuery(query);
-        for (Row row : result.getRows()) {
-            return row.getInt("max");
+
+        int created = 0;
+        for (int offset = 0; offset < cards.size(); offset += DatabaseConstants.BULK_INSERT_SIZE) {
+            List<Card> chunk = cards.subList(offset, Math.min(offset + DatabaseConstants.BULK_INSERT_SIZE, cards.size()));
+            int size = chunk.size();
+            UUID[] uuids = new UUID[size];
+            String[] names = new String[size];
+            Double[] damages = new Double[size];
+            Integer[] packageIds = new Integer[size];
+            UUID[] owners = new UUID[size];
+            for (int i = 0; i < size; i++) {
+                Card card = chunk.get(i);
+                uuids[i] = card.getUuid();
+                names[i] = card.getName();
+                damages[i] = card.getDamage();
+                packageIds[i] = card.getPackageId();
+                owners[i] = card.getUserUuid();
+            }
+            created += database.executeSelectQuery(query, uuids, names, damages, packageIds, owners).size();
         }
-        return null;
+        return created;
     }
 
     /**
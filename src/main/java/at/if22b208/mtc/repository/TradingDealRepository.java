@@ -1,6 +1,7 @@
 package at.if22b208.mtc.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,6 +27,8 @@ public class TradingDealRepository implements Repository<TradingDeal, UUID> {
 
     private static final String TABLE = "trading_deal";
 
+    private static final String CARD_TABLE = "card";
+
     private TradingDealRepository() {
         // Private constructor to ensure singleton pattern.
     }
@@ -43,7 +46,7 @@ public class TradingDealRepository implements Repository<TradingDeal, UUID> {
         Result result = database.executeSelectQuery(query);
 
         List<Optional<TradingDeal>> deals = new ArrayList<>();
-        for (Row row : result.getRows()) {
+        for (Row row : result) {
             deals.add(Optional.of(buildTradingDealFromRow(row)));
         }
         return deals;
@@ -62,12 +65,28 @@ public class TradingDealRepository implements Repository<TradingDeal, UUID> {
         val database = Database.getInstance();
         Result result = database.executeSelectQuery(query, uuid);
 
-        for (Row row : result.getRows()) {
+        for (Row row : result) {
             return Optional.of(buildTradingDealFromRow(row));
         }
         return Optional.empty();
     }
 
+    /**
+     * Checks whether any of the given cards is offered in a trading deal.
+     *
+     * @param cardUuids The UUIDs of the cards to check.
+     * @return True if at least one of the cards is locked in a trading deal, false otherwise.
+     */
+    public boolean existsByCardUuids(Collection<UUID> cardUuids)
+            throws DatabaseTransactionException {
+        if (cardUuids.isEmpty()) {
+            return false;
+        }
+        String query = "SELECT 1 FROM " + SCHEMA + TABLE + " WHERE card_uuid = ANY(?) LIMIT 1";
+        val database = Database.getInstance();
+        return !database.executeSelectQuery(query, (Object) cardUuids.toArray(new UUID[0])).isEmpty();
+    }
+
     /**
      * Creates a new trading deal in the database.
      *
@@ -85,6 +104,28 @@ public class TradingDealRepository implements Repository<TradingDeal, UUID> {
         return deal;
     }
 
+    /**
+     * Carries out a trading deal with a single statement: the deal is deleted, its card is transferred to the
+     * buyer and the offered card to the owner of the deal card. The offered card is only transferred if it is
+     * still owned by the buyer, a deal deleted concurrently transfers nothing.
+     *
+     * @param dealUuid        The UUID of the trading deal.
+     * @param offeredCardUuid The UUID of the card offered by the buyer.
+     * @param buyerUuid       The UUID of the user accepting the deal.
+     * @return The number of transferred cards, {@code 2} if the swap was complete.
+     */
+    public int carryOut(UUID dealUuid, UUID offeredCardUuid, UUID buyerUuid)
+            throws DatabaseTransactionException {
+        String query = "WITH deal AS (DELETE FROM " + SCHEMA + TABLE + " WHERE uuid = ? RETURNING card_uuid), " +
+                "parties AS (SELECT d.card_uuid, c.user_uuid AS seller_uuid FROM deal d JOIN " + SCHEMA +
+                CARD_TABLE + " c ON c.uuid = d.card_uuid) " +
+                "UPDATE " + SCHEMA + CARD_TABLE + " c SET user_uuid = " +
+                "CASE WHEN c.uuid = p.card_uuid THEN ?::uuid ELSE p.seller_uuid END FROM parties p " +
+                "WHERE c.uuid = p.card_uuid OR (c.uuid = ? AND c.user_uuid = ?) RETURNING c.uuid";
+        val database = Database.getInstance();
+        return database.executeSelectQuery(query, dealUuid, buyerUuid, offeredCardUuid, buyerUuid).size();
+    }
+
     /**
      * Deletes a trading deal from the database by its UUID.
      *
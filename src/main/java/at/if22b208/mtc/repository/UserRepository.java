@@ -1,26 +1,30 @@
 package at.if22b208.mtc.repository;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import at.if22b208.mtc.cache.CacheMetrics;
+import at.if22b208.mtc.cache.UserCache;
+import at.if22b208.mtc.config.CacheConstants;
+import at.if22b208.mtc.config.DatabaseConstants;
 import at.if22b208.mtc.database.Database;
 import at.if22b208.mtc.database.Result;
 import at.if22b208.mtc.database.Row;
+import at.if22b208.mtc.database.Transaction;
 import at.if22b208.mtc.entity.Card;
 import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
-import at.if22b208.mtc.service.CardService;
-import at.if22b208.mtc.util.JsonUtils;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 /**
  * The {@code UserRepository} class is responsible for handling database operations related to users.
  *
- * <p>This repository provides methods for finding, creating, and updating user data in the database.</p>
+ * <p>This repository provides methods for finding, creating, and updating user data in the database. Users
+ * found by UUID or username are cached; every update of a user row invalidates the cached user.</p>
  *
  * @see Repository
  * @see User
@@ -31,6 +35,15 @@ public class UserRepository implements Repository<User, UUID> {
 
     private static final String TABLE = "user";
 
+    private static final String DECK_CARD_TABLE = "deck_card";
+
+    private static final String COLUMNS =
+            "uuid, username, password, password_iterations, balance, name, biography, image, elo, wins, losses";
+
+    private final UserCache cache = new UserCache(
+            Integer.getInteger(CacheConstants.USER_CACHE_SIZE_PROPERTY, CacheConstants.DEFAULT_USER_CACHE_SIZE),
+            CacheConstants.USER_CACHE_TTL_MILLIS);
+
     private UserRepository() {
         // Private constructor to ensure singleton pattern.
     }
@@ -42,16 +55,23 @@ public class UserRepository implements Repository<User, UUID> {
      */
     public List<Optional<User>> findAll()
             throws DatabaseTransactionException {
-        String query = "SELECT uuid, username, password, balance, deck, name, biography, image, elo, wins, losses " +
-                "FROM " + SCHEMA + TABLE;
+        String query = "SELECT " + COLUMNS + " FROM " + SCHEMA + TABLE;
         val database = Database.getInstance();
-        Result result = database.executeSelectQuery(query);
+        return database.executeSelectQuery(query, row -> Optional.of(buildUserFromRow(row)));
+    }
 
-        List<Optional<User>> users = new ArrayList<>();
-        for (Row row : result.getRows()) {
-            users.add(Optional.of(buildUserFromRow(row)));
-        }
-        return users;
+    /**
+     * Passes all users to the consumer in descending order of their ELO rating while they are read from the
+     * database, without holding the complete user table in memory.
+     *
+     * @param consumer The consumer receiving the users.
+     */
+    public void streamAllByElo(Consumer<User> consumer)
+            throws DatabaseTransactionException {
+        String query = "SELECT " + COLUMNS + " FROM " + SCHEMA + TABLE + " ORDER BY elo DESC";
+        val database = Database.getInstance();
+        database.executeStreamingQuery(query, DatabaseConstants.DEFAULT_FETCH_SIZE,
+                row -> consumer.accept(buildUserFromRow(row)));
     }
 
     /**
@@ -63,13 +83,20 @@ public class UserRepository implements Repository<User, UUID> {
     @Override
     public Optional<User> findById(UUID uuid)
             throws DatabaseTransactionException {
-        String query = "SELECT uuid, username, password, balance, deck, name, biography, image, elo, wins, losses " +
-                "FROM " + SCHEMA + TABLE + " WHERE uuid = ?";
+        User cached = this.cache.getById(uuid);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long generation = this.cache.getGeneration();
+        String query = "SELECT " + COLUMNS + " FROM " + SCHEMA + TABLE + " WHERE uuid = ?";
         val database = Database.getInstance();
         Result result = database.executeSelectQuery(query, uuid);
 
-        for (Row row : result.getRows()) {
-            return Optional.of(buildUserFromRow(row));
+        for (Row row : result) {
+            User user = buildUserFromRow(row);
+            this.cache.put(user, generation);
+            return Optional.of(user);
         }
         return Optional.empty();
     }
@@ -82,15 +109,21 @@ public class UserRepository implements Repository<User, UUID> {
      */
     public Optional<User> findByUsername(String username)
             throws DatabaseTransactionException {
-        String query = "SELECT uuid, username, password, balance, deck, name, biography, image, elo, wins, losses FROM "
-                + SCHEMA + TABLE + " WHERE username = ?";
+        User cached = this.cache.getByUsername(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long generation = this.cache.getGeneration();
+        String query = "SELECT " + COLUMNS + " FROM " + SCHEMA + TABLE + " WHERE username = ?";
         val database = Database.getInstance();
         val result = database.executeSelectQuery(query, username);
 
         Optional<User> user = Optional.empty();
-        for (Row row : result.getRows()) {
+        for (Row row : result) {
             user = Optional.of(buildUserFromRow(row));
         }
+        user.ifPresent(found -> this.cache.put(found, generation));
         return user;
     }
 
@@ -103,10 +136,11 @@ public class UserRepository implements Repository<User, UUID> {
     @Override
     public User create(User user)
             throws DatabaseTransactionException {
-        String query = "INSERT INTO " + SCHEMA + TABLE + " (uuid, username, password, balance) VALUES " +
-                "((" + GENERATE_UUID_SEQUENCE_STRING + "), ?, ?, ?)";
+        String query = "INSERT INTO " + SCHEMA + TABLE + " (uuid, username, password, password_iterations, balance) " +
+                "VALUES ((" + GENERATE_UUID_SEQUENCE_STRING + "), ?, ?, ?, ?)";
         val database = Database.getInstance();
-        UUID uuid = database.executeInsertQuery(query, user.getUsername(), user.getPassword(), user.getBalance());
+        UUID uuid = database.executeInsertQuery(query, user.getUsername(), user.getPassword(),
+                user.getPasswordIterations(), user.getBalance());
         return user.withUuid(uuid);
     }
 
@@ -120,6 +154,20 @@ public class UserRepository implements Repository<User, UUID> {
         String query = "UPDATE " + SCHEMA + TABLE + " SET name = ?, biography = ?, image = ? WHERE uuid = ?";
         val database = Database.getInstance();
         database.executeUpdateQuery(query, user.getName(), user.getBiography(), user.getImage(), user.getUuid());
+        invalidate(user);
+    }
+
+    /**
+     * Updates the password hash of the user and the number of iterations it was computed with.
+     *
+     * @param user The user whose password needs to be updated.
+     */
+    public void updatePassword(User user)
+            throws DatabaseTransactionException {
+        String query = "UPDATE " + SCHEMA + TABLE + " SET password = ?, password_iterations = ? WHERE uuid = ?";
+        val database = Database.getInstance();
+        database.executeUpdateQuery(query, user.getPassword(), user.getPasswordIterations(), user.getUuid());
+        invalidate(user);
     }
 
     /**
@@ -132,6 +180,7 @@ public class UserRepository implements Repository<User, UUID> {
         String query = "UPDATE " + SCHEMA + TABLE + " SET balance = ? WHERE uuid = ?";
         val database = Database.getInstance();
         database.executeUpdateQuery(query, user.getBalance(), user.getUuid());
+        invalidate(user);
     }
 
     /**
@@ -144,6 +193,42 @@ public class UserRepository implements Repository<User, UUID> {
         String query = "UPDATE " + SCHEMA + TABLE + " SET elo = ? WHERE uuid = ?";
         val database = Database.getInstance();
         database.executeUpdateQuery(query, user.getElo(), user.getUuid());
+        invalidate(user);
+    }
+
+    /**
+     * Locks the row of the user until the end of the transaction and reads the current ELO rating. Callers
+     * locking several users have to lock them in the same order, e.g. by UUID, to rule out deadlocks.
+     *
+     * @param user The user to lock.
+     * @return The ELO rating committed for the user.
+     * @throws DatabaseTransactionException If the user does not exist or the query fails.
+     */
+    public int lockElo(User user)
+            throws DatabaseTransactionException {
+        String query = "SELECT elo FROM " + SCHEMA + TABLE + " WHERE uuid = ? FOR UPDATE";
+        val database = Database.getInstance();
+        List<Integer> elo = database.executeSelectQuery(query, row -> row.getInt("elo"), user.getUuid());
+        if (elo.isEmpty()) {
+            throw new DatabaseTransactionException("User " + user.getUuid() + " not found.");
+        }
+        return elo.get(0);
+    }
+
+    /**
+     * Sets the ELO rating and adds to the wins and losses counts of the user in the database with a single
+     * statement. The counts are incremented by the database, so concurrent battles of the user are all counted.
+     *
+     * @param user   The user with the new ELO rating.
+     * @param wins   The number of wins to add.
+     * @param losses The number of losses to add.
+     */
+    public void updateStats(User user, int wins, int losses)
+            throws DatabaseTransactionException {
+        String query = "UPDATE " + SCHEMA + TABLE + " SET elo = ?, wins = wins + ?, losses = losses + ? WHERE uuid = ?";
+        val database = Database.getInstance();
+        database.executeUpdateQuery(query, user.getElo(), wins, losses, user.getUuid());
+        invalidate(user);
     }
 
     /**
@@ -156,6 +241,7 @@ public class UserRepository implements Repository<User, UUID> {
         String query = "UPDATE " + SCHEMA + TABLE + " SET losses = ? WHERE uuid = ?";
         val database = Database.getInstance();
         database.executeUpdateQuery(query, user.getLosses(), user.getUuid());
+        invalidate(user);
     }
 
     /**
@@ -168,39 +254,59 @@ public class UserRepository implements Repository<User, UUID> {
         String query = "UPDATE " + SCHEMA + TABLE + " SET wins = ? WHERE uuid = ?";
         val database = Database.getInstance();
         database.executeUpdateQuery(query, user.getWins(), user.getUuid());
+        invalidate(user);
     }
 
     /**
-     * Updates the deck of the user in the database.
+     * Gets a snapshot of the usage of the user cache.
+     *
+     * @return The cache metrics.
+     */
+    public CacheMetrics getCacheMetrics() {
+        return this.cache.getMetrics();
+    }
+
+    /**
+     * Removes the user from the cache, now and once the open transaction has finished, since other threads can
+     * read and cache the old row until the change is committed.
+     *
+     * @param user The changed user.
+     */
+    private void invalidate(User user) {
+        this.cache.invalidate(user);
+        Transaction.afterCompletion(() -> this.cache.invalidate(user));
+    }
+
+    /**
+     * Replaces the deck of the user in the database. The cards are stored in the {@code deck_card} table, one row
+     * per slot in deck order.
      *
      * @param user The user whose deck needs to be updated.
      */
     public void updateDeck(User user)
             throws DatabaseTransactionException {
-        String query = "UPDATE " + SCHEMA + TABLE + " SET deck = ? WHERE uuid = ?";
+        String deleteQuery = "DELETE FROM " + SCHEMA + DECK_CARD_TABLE + " WHERE user_uuid = ?";
+        String insertQuery = "INSERT INTO " + SCHEMA + DECK_CARD_TABLE + " (user_uuid, card_uuid, slot) " +
+                "SELECT ?, deck.card_uuid, deck.slot - 1 FROM unnest(?) WITH ORDINALITY AS deck (card_uuid, slot)";
         val database = Database.getInstance();
-        database.executeUpdateQuery(query,
-                JsonUtils.getJsonStringFromArray(
-                        user.getDeck().stream().map(Card::getUuid).toArray()), user.getUuid());
+        database.executeUpdateQuery(deleteQuery, user.getUuid());
+        database.executeUpdateQuery(insertQuery, user.getUuid(),
+                user.getDeck().stream().map(Card::getUuid).toArray(UUID[]::new));
     }
 
     /**
      * Builds a User entity from a database row.
      *
      * @param row The database row containing user data.
-     * @return A User entity built from the database row.
+     * @return A User entity built from the database row. The deck is loaded on demand.
      */
-    private User buildUserFromRow(Row row)
-            throws DatabaseTransactionException {
+    private User buildUserFromRow(Row row) {
         return User.builder()
                 .uuid(row.getUuid("uuid"))
                 .username(row.getString("username"))
                 .password(row.getString("password"))
+                .passwordIterations(row.getInt("password_iterations"))
                 .balance(BigInteger.valueOf(row.getLong("balance")))
-                .deck(row.getString("deck") == null ?
-                        new ArrayList<>() :
-                        getDeckFromRow(row)
-                )
                 .name(row.getString("name"))
                 .biography(row.getString("biography"))
                 .image(row.getString("image"))
@@ -210,16 +316,6 @@ public class UserRepository implements Repository<User, UUID> {
                 .build();
     }
 
-    private static List<Card> getDeckFromRow(Row row)
-            throws DatabaseTransactionException {
-        List<Card> cards = new ArrayList<>();
-        List<UUID> deck = JsonUtils.getListFromJsonString(row.getString("deck"), UUID.class);
-        for (UUID uuid : deck) {
-            cards.add(CardService.getInstance().getById(uuid));
-        }
-        return cards;
-    }
-
     /**
      * Gets the singleton instance of the {@code UserRepository}.
      *
@@ -0,0 +1,24 @@
+package at.if22b208.mtc.server;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import at.if22b208.mtc.server.http.Request;
+import at.if22b208.mtc.server.http.Response;
+
+/**
+ * A controller whose responses may complete after the request thread has returned, e.g. once another request
+ * arrived. The non-blocking server releases the worker thread in the meantime and cancels the future if the
+ * client disconnects; the blocking server waits for the response on the request thread.
+ */
+public interface AsyncController extends Controller {
+    CompletableFuture<Response> handleRequestAsync(Request request)
+            throws JsonProcessingException;
+
+    @Override
+    default Response handleRequest(Request request)
+            throws JsonProcessingException {
+        return handleRequestAsync(request).join();
+    }
+}
@@ -0,0 +1,32 @@
+package at.if22b208.mtc.server;
+
+import java.util.Locale;
+
+/**
+ * Enumerates the strategies for executing requests once they have been read from a connection.
+ */
+public enum ExecutionMode {
+    /**
+     * A fixed number of platform threads shared by all requests.
+     */
+    FIXED_POOL,
+
+    /**
+     * A new (virtual, if supported by the runtime) thread per request, bounded by a maximum of requests in flight.
+     */
+    PER_REQUEST;
+
+    /**
+     * Resolves an execution mode by its name, ignoring case.
+     *
+     * @param value        The name of the execution mode, may be {@code null}.
+     * @param defaultValue The mode to return if no value is given.
+     * @return The matching execution mode.
+     */
+    public static ExecutionMode fromValue(String value, ExecutionMode defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return ExecutionMode.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -3,35 +3,87 @@ package at.if22b208.mtc.server;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
+import at.if22b208.mtc.config.MessageConstants;
+import at.if22b208.mtc.config.ServerConstants;
+import at.if22b208.mtc.server.nio.NioServer;
+import at.if22b208.mtc.server.util.RequestExecutor;
 import at.if22b208.mtc.server.util.RequestHandler;
 import at.if22b208.mtc.server.util.Router;
-import lombok.AllArgsConstructor;
+import at.if22b208.mtc.util.ResponseUtils;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-@AllArgsConstructor
 @Slf4j
 public class Server {
-    private int port;
+    private final int port;
 
-    private Router router;
+    private final Router router;
 
-    public void start() {
-        final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    private final ServerMode mode;
+
+    @Getter
+    private final RequestExecutor requestExecutor;
+
+    public Server(int port, Router router, ServerMode mode, RequestExecutor requestExecutor) {
+        this.port = port;
+        this.router = router;
+        this.mode = mode;
+        this.requestExecutor = requestExecutor;
+    }
+
+    public Server(int port, Router router, ServerMode mode) {
+        this(port, router, mode,
+                RequestExecutor.fixedPool(ServerConstants.WORKER_THREADS, ServerConstants.DEFAULT_MAX_QUEUED));
+    }
+
+    public Server(int port, Router router) {
+        this(port, router, ServerMode.BLOCKING);
+    }
 
-        log.info("Start http-server...");
+    public void start() {
+        log.info("Start http-server in {} mode, executing requests with {} (max. {} in flight)...",
+                this.mode, this.requestExecutor.getMode(), this.requestExecutor.getMaxInFlight());
         log.info("http-server running at: http://localhost:{}", this.port);
 
+        try {
+            if (this.mode == ServerMode.NON_BLOCKING) {
+                new NioServer(this.port, this.router, this.requestExecutor, ServerConstants.REACTOR_THREADS).start();
+            } else {
+                startBlocking();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            this.requestExecutor.shutdown();
+        }
+    }
+
+    private void startBlocking()
+            throws IOException {
         try (ServerSocket serverSocket = new ServerSocket(this.port)) {
             while (true) {
                 final Socket clientConnection = serverSocket.accept();
                 final RequestHandler socketHandler = new RequestHandler(clientConnection, this.router);
-                executorService.submit(socketHandler);
+                try {
+                    this.requestExecutor.execute(socketHandler);
+                } catch (RejectedExecutionException e) {
+                    reject(clientConnection);
+                }
             }
+        }
+    }
+
+    /**
+     * Answers a connection the executor has no room for with {@code 503 Service Unavailable} and closes it.
+     */
+    private static void reject(Socket clientConnection) {
+        try (clientConnection) {
+            clientConnection.getOutputStream().write(
+                    ResponseUtils.serviceUnavailable(MessageConstants.SERVER_OVERLOADED).getBytes(false));
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            log.debug("Could not reject connection: {}", e.getMessage());
         }
     }
 }
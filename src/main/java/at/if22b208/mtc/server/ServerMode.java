@@ -0,0 +1,34 @@
+package at.if22b208.mtc.server;
+
+import java.util.Locale;
+
+/**
+ * Enumerates the connection handling strategies supported by the {@link Server}.
+ */
+public enum ServerMode {
+    /**
+     * Blocking {@code ServerSocket} accept loop, one worker thread per connection. Every connection is closed after
+     * its first response, so idle clients never hold a worker.
+     */
+    BLOCKING,
+
+    /**
+     * Selector based front-end, worker threads are only occupied by complete requests. Supports persistent
+     * connections and pipelined requests.
+     */
+    NON_BLOCKING;
+
+    /**
+     * Resolves a server mode by its name, ignoring case.
+     *
+     * @param value        The name of the server mode, may be {@code null}.
+     * @param defaultValue The mode to return if no value is given.
+     * @return The matching server mode.
+     */
+    public static ServerMode fromValue(String value, ServerMode defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return ServerMode.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
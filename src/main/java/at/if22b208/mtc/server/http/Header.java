@@ -1,22 +1,80 @@
 package at.if22b208.mtc.server.http;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class Header {
     public static final String CONTENT_LENGTH_HEADER = "Content-Length";
 
+    public static final String CONNECTION_HEADER = "Connection";
+
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+
+    public static final String TRANSFER_ENCODING_HEADER = "Transfer-Encoding";
+
     public static final String HEADER_NAME_VALUE_SEPARATOR = ":";
 
+    /**
+     * Header names the parser resolves to a shared constant instead of allocating a new string per request.
+     */
+    private static final String[] WELL_KNOWN_HEADERS = {
+            CONTENT_LENGTH_HEADER,
+            CONNECTION_HEADER,
+            AUTHORIZATION_HEADER,
+            TRANSFER_ENCODING_HEADER,
+            "Content-Type",
+            "Host",
+            "Accept",
+            "Accept-Encoding",
+            "Accept-Language",
+            "User-Agent",
+            "Keep-Alive",
+            "Cache-Control",
+            "Cookie",
+            "Expect",
+            "Upgrade"
+    };
+
+    private static final byte[][] WELL_KNOWN_HEADER_BYTES = new byte[WELL_KNOWN_HEADERS.length][];
+
+    private static final Map<String, String> CANONICAL_NAMES = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        for (int i = 0; i < WELL_KNOWN_HEADERS.length; i++) {
+            WELL_KNOWN_HEADER_BYTES[i] =
+                    WELL_KNOWN_HEADERS[i].toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+            CANONICAL_NAMES.put(WELL_KNOWN_HEADERS[i], WELL_KNOWN_HEADERS[i]);
+        }
+    }
+
     private final Map<String, String> headers = new HashMap<>();
 
     public void ingest(String headerLine) {
         final String[] split = headerLine.split(HEADER_NAME_VALUE_SEPARATOR, 2);
-        headers.put(split[0], split[1].trim());
+        put(split[0], split[1].trim());
+    }
+
+    /**
+     * Adds a header. Well-known header names are stored in their canonical spelling.
+     *
+     * @param name  The header name.
+     * @param value The header value.
+     */
+    public void put(String name, String value) {
+        headers.put(canonicalize(name), value);
     }
 
+    /**
+     * Gets a header value. Well-known header names are matched case-insensitively.
+     *
+     * @param headerName The header name.
+     * @return The header value, or {@code null} if the header is not present.
+     */
     public String getHeader(String headerName) {
-        return headers.get(headerName);
+        return headers.get(canonicalize(headerName));
     }
 
     public int getContentLength() {
@@ -26,5 +84,39 @@ public class Header {
         }
         return Integer.parseInt(header);
     }
-}
 
+    /**
+     * Resolves the canonical constant of a well-known header name without allocating.
+     *
+     * @param bytes  The buffer holding the header name.
+     * @param offset The offset of the header name.
+     * @param length The length of the header name.
+     * @return The canonical header name, or {@code null} if the name is not well-known.
+     */
+    public static String intern(byte[] bytes, int offset, int length) {
+        for (int i = 0; i < WELL_KNOWN_HEADER_BYTES.length; i++) {
+            byte[] candidate = WELL_KNOWN_HEADER_BYTES[i];
+            if (candidate.length == length && equalsIgnoreCase(candidate, bytes, offset)) {
+                return WELL_KNOWN_HEADERS[i];
+            }
+        }
+        return null;
+    }
+
+    private static boolean equalsIgnoreCase(byte[] lowerCase, byte[] bytes, int offset) {
+        for (int i = 0; i < lowerCase.length; i++) {
+            byte b = bytes[offset + i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != lowerCase[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String canonicalize(String name) {
+        return CANONICAL_NAMES.getOrDefault(name, name);
+    }
+}
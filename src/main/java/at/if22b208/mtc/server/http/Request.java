@@ -1,15 +1,23 @@
 package at.if22b208.mtc.server.http;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 
 @Data
 public class Request {
+    public static final String HTTP_1_0 = "HTTP/1.0";
+
+    public static final String HTTP_1_1 = "HTTP/1.1";
 
     private Method method;
 
+    private String version = HTTP_1_1;
+
     private String urlContent;
 
     private String pathname;
@@ -22,6 +30,12 @@ public class Request {
 
     private String body;
 
+    /**
+     * The body as received, decoded into {@link #body} on first access.
+     */
+    @Getter(AccessLevel.NONE)
+    private byte[] rawBody;
+
     public String getServiceRoute() {
         if (this.pathParts == null ||
                 this.pathParts.isEmpty()) {
@@ -65,7 +79,40 @@ public class Request {
         return this.getPathParts().get(1) == null ? "" : this.getPathParts().get(1).toLowerCase();
     }
 
+    /**
+     * Checks whether the client wants to keep the connection open after this request.
+     * HTTP/1.1 connections are persistent unless the client sends {@code Connection: close},
+     * HTTP/1.0 connections only if the client sends {@code Connection: keep-alive}.
+     *
+     * @return True if the connection may be reused for further requests.
+     */
+    public boolean isKeepAlive() {
+        String connection = this.header.getHeader(Header.CONNECTION_HEADER);
+        if (HTTP_1_0.equalsIgnoreCase(this.version)) {
+            return "keep-alive".equalsIgnoreCase(connection);
+        }
+        return !"close".equalsIgnoreCase(connection);
+    }
+
+    public void setRawBody(byte[] rawBody) {
+        this.rawBody = rawBody;
+        this.body = null;
+    }
+
     public String getBody() {
-        return this.body == null ? "" : this.body.toLowerCase();
+        return this.getCaseSensitiveBody().toLowerCase();
+    }
+
+    /**
+     * Gets the body as received, for values that must not be lowercased like secrets.
+     *
+     * @return The decoded body, or an empty string if the request has no body.
+     */
+    public String getCaseSensitiveBody() {
+        if (this.body == null && this.rawBody != null) {
+            this.body = new String(this.rawBody, StandardCharsets.UTF_8);
+            this.rawBody = null;
+        }
+        return this.body == null ? "" : this.body;
     }
 }
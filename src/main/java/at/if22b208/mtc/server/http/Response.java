@@ -1,9 +1,12 @@
 package at.if22b208.mtc.server.http;
 
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
+import at.if22b208.mtc.config.ServerConstants;
+
 public class Response {
     private final int status;
 
@@ -20,16 +23,36 @@ public class Response {
         this.content = content;
     }
 
-    public String get() {
+    /**
+     * Serializes the response including its status line and headers as UTF-8 bytes, ready to be written to the
+     * connection. The {@code Content-Length} header states the length of the encoded content in bytes.
+     *
+     * @param keepAlive True if the connection stays open for further requests.
+     * @return The serialized response.
+     */
+    public byte[] getBytes(boolean keepAlive) {
+        byte[] body = this.content.getBytes(StandardCharsets.UTF_8);
+        byte[] head = getHead(keepAlive, body.length).getBytes(StandardCharsets.ISO_8859_1);
+
+        byte[] bytes = new byte[head.length + body.length];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        System.arraycopy(body, 0, bytes, head.length, body.length);
+        return bytes;
+    }
+
+    private String getHead(boolean keepAlive, int contentLength) {
         String localDatetime = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneId.of("UTC")));
+        String connection = keepAlive ?
+                "Connection: keep-alive\r\n" +
+                        "Keep-Alive: timeout=" + ServerConstants.KEEP_ALIVE_TIMEOUT_MILLIS / 1000 + "\r\n" :
+                "Connection: close\r\n";
         return "HTTP/1.1 " + this.status + " " + this.message + "\r\n" +
                 "Cache-Control: max-age=0\r\n" +
-                "Connection: close\r\n" +
+                connection +
                 "Date: " + localDatetime + "\r\n" +
                 "Expires: " + localDatetime + "\r\n" +
                 "Content-Type: " + this.contentType + "\r\n" +
-                "Content-Length: " + this.content.length() + "\r\n" +
-                "\r\n" +
-                this.content;
+                "Content-Length: " + contentLength + "\r\n" +
+                "\r\n";
     }
 }
@@ -0,0 +1,184 @@
+package at.if22b208.mtc.server.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Future;
+
+import at.if22b208.mtc.server.http.Request;
+import at.if22b208.mtc.server.util.RequestParser;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * State of a single client connection handled by a {@link Reactor}.
+ *
+ * <p>Apart from {@link #setResponse(ByteBuffer, boolean)}, which is called by a worker thread before handing the
+ * connection back to the reactor, and {@link #awaitResponse(Future)}, which is called by a worker thread before
+ * the response completes, all methods are only invoked from the owning reactor thread.</p>
+ */
+@Slf4j
+class Connection {
+    private static final int BUFFER_SIZE = 8192;
+
+    @Getter
+    private final SocketChannel channel;
+
+    @Getter
+    @Setter
+    private SelectionKey key;
+
+    /**
+     * Bytes received from the client that have not been parsed yet, in read mode.
+     */
+    @Getter
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+    private final RequestParser parser = new RequestParser();
+
+    @Getter
+    private volatile ByteBuffer response;
+
+    @Getter
+    private volatile boolean keepAlive;
+
+    /**
+     * True while a request of this connection is processed or its response is written.
+     */
+    @Getter
+    @Setter
+    private boolean processing;
+
+    @Getter
+    private int servedRequests;
+
+    /**
+     * The response of the request currently processed, while it is awaited without a worker thread.
+     */
+    private volatile Future<?> pendingResponse;
+
+    @Getter
+    private long lastActivity = System.currentTimeMillis();
+
+    Connection(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Sets the response to write for the request currently processed.
+     *
+     * @param response  The serialized response.
+     * @param keepAlive True if the connection stays open after the response has been written.
+     */
+    void setResponse(ByteBuffer response, boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        this.response = response;
+    }
+
+    /**
+     * Marks the current request as answered, making the connection ready for the next request.
+     */
+    void completeRequest() {
+        this.servedRequests++;
+        this.processing = false;
+        this.response = null;
+        this.pendingResponse = null;
+        this.lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Remembers the response awaited for the current request, to cancel it if the client disconnects.
+     *
+     * @param pendingResponse The future of the response.
+     */
+    void awaitResponse(Future<?> pendingResponse) {
+        this.pendingResponse = pendingResponse;
+    }
+
+    /**
+     * Checks whether the response of the current request is awaited without a worker thread.
+     *
+     * @return True if a pending response is awaited.
+     */
+    boolean isAwaitingResponse() {
+        return this.pendingResponse != null && !this.pendingResponse.isDone();
+    }
+
+    /**
+     * Checks whether the read buffer is full, so no further bytes can be read until requests are parsed.
+     *
+     * @return True if the read buffer is full.
+     */
+    boolean isReadBufferFull() {
+        return this.readBuffer.remaining() == this.readBuffer.capacity();
+    }
+
+    /**
+     * Checks whether the connection has been waiting for a request for longer than the given timeout.
+     *
+     * @param now           The current time in milliseconds.
+     * @param timeoutMillis The idle timeout in milliseconds.
+     * @return True if the connection is idle and timed out.
+     */
+    boolean isIdleSince(long now, long timeoutMillis) {
+        return !this.processing && now - this.lastActivity > timeoutMillis;
+    }
+
+    /**
+     * Reads the available bytes from the channel into the read buffer.
+     *
+     * @return The number of bytes read, or {@code -1} if the client closed the connection.
+     * @throws IOException If reading from the channel fails.
+     */
+    int read()
+            throws IOException {
+        this.readBuffer.compact();
+        try {
+            this.lastActivity = System.currentTimeMillis();
+            return this.channel.read(this.readBuffer);
+        } finally {
+            this.readBuffer.flip();
+        }
+    }
+
+    /**
+     * Parses the next request from the buffered bytes.
+     *
+     * @return The request, or {@code null} if more bytes are required.
+     * @throws IllegalArgumentException If the received bytes are not a valid request.
+     */
+    Request nextRequest() {
+        return this.parser.parse(this.readBuffer);
+    }
+
+    /**
+     * Writes as much of the pending response as the channel accepts.
+     *
+     * @return {@code true} if the response has been written completely.
+     * @throws IOException If writing to the channel fails.
+     */
+    boolean write()
+            throws IOException {
+        this.channel.write(this.response);
+        return !this.response.hasRemaining();
+    }
+
+    /**
+     * Closes the channel and cancels its selection key.
+     */
+    void close() {
+        if (this.pendingResponse != null) {
+            this.pendingResponse.cancel(true);
+        }
+        if (this.key != null) {
+            this.key.cancel();
+        }
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package at.if22b208.mtc.server.nio;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import at.if22b208.mtc.server.util.Router;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Non-blocking HTTP front-end based on a {@link ServerSocketChannel}.
+ *
+ * <p>A selector accepts new connections on the calling thread and distributes them round-robin over a
+ * small pool of {@link Reactor}s. Only complete requests are handed to the worker pool.</p>
+ */
+@Slf4j
+public class NioServer {
+    private final int port;
+
+    private final Router router;
+
+    private final Executor workers;
+
+    private final int reactorThreads;
+
+    public NioServer(int port, Router router, Executor workers, int reactorThreads) {
+        this.port = port;
+        this.router = router;
+        this.workers = workers;
+        this.reactorThreads = reactorThreads;
+    }
+
+    /**
+     * Binds the server socket and runs the accept loop until the thread is interrupted.
+     *
+     * @throws IOException If the server socket cannot be opened.
+     */
+    public void start()
+            throws IOException {
+        List<Reactor> reactors = new ArrayList<>();
+        for (int i = 0; i < this.reactorThreads; i++) {
+            Reactor reactor = new Reactor(this.router, this.workers);
+            reactors.add(reactor);
+
+            Thread thread = new Thread(reactor, "reactor-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open();
+             Selector acceptSelector = Selector.open()) {
+            serverChannel.bind(new InetSocketAddress(this.port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+
+            int next = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                acceptSelector.select();
+                acceptSelector.selectedKeys().clear();
+
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    reactors.get(next).register(channel);
+                    next = (next + 1) % reactors.size();
+                }
+            }
+        } finally {
+            reactors.forEach(Reactor::shutdown);
+        }
+    }
+}
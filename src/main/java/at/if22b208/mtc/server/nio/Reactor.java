@@ -0,0 +1,280 @@
+package at.if22b208.mtc.server.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import at.if22b208.mtc.config.MessageConstants;
+import at.if22b208.mtc.config.ServerConstants;
+import at.if22b208.mtc.server.http.ContentType;
+import at.if22b208.mtc.server.http.HttpStatus;
+import at.if22b208.mtc.server.http.Request;
+import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.util.Router;
+import at.if22b208.mtc.util.ResponseUtils;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Event loop multiplexing many client connections on a single thread.
+ *
+ * <p>The reactor reads and parses requests without blocking and hands every complete request to the worker
+ * pool. Connections that are idle or waiting for a response do not occupy any thread. Responses produced by
+ * the workers are queued and written back by the reactor thread.</p>
+ *
+ * <p>Connections are persistent. Requests of a connection are processed one after another, so pipelined
+ * requests are answered in the order they were received. Idle connections are closed after the keep-alive
+ * timeout.</p>
+ *
+ * <p>Responses of an {@link at.if22b208.mtc.server.AsyncController} are awaited without a worker thread. In the
+ * meantime the reactor keeps reading the connection, so a disconnect cancels the pending response.</p>
+ */
+@Slf4j
+class Reactor implements Runnable {
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final Selector selector;
+
+    private final Router router;
+
+    private final Executor workers;
+
+    private final Queue<SocketChannel> pendingRegistrations = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Connection> pendingResponses = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Connections whose response is awaited asynchronously and have to be watched for disconnects.
+     */
+    private final Queue<Connection> awaitingConnections = new ConcurrentLinkedQueue<>();
+
+    private long lastSweep = System.currentTimeMillis();
+
+    Reactor(Router router, Executor workers)
+            throws IOException {
+        this.selector = Selector.open();
+        this.router = router;
+        this.workers = workers;
+    }
+
+    /**
+     * Hands a freshly accepted channel over to this reactor. May be called from any thread.
+     *
+     * @param channel The accepted client channel.
+     */
+    void register(SocketChannel channel) {
+        this.pendingRegistrations.add(channel);
+        this.selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                registerPendingChannels();
+                writePendingResponses();
+                watchAwaitingConnections();
+                closeIdleConnections();
+
+                this.selector.select(SWEEP_INTERVAL_MILLIS);
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    Connection connection = (Connection) key.attachment();
+                    if (!key.isValid()) {
+                        connection.close();
+                        continue;
+                    }
+                    try {
+                        if (key.isReadable()) {
+                            handleRead(connection);
+                        } else if (key.isWritable()) {
+                            handleWrite(connection);
+                        }
+                    } catch (IOException e) {
+                        log.debug("Closing connection: {}", e.getMessage());
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            log.error("Reactor stopped: {}", e.getMessage());
+        }
+    }
+
+    private void registerPendingChannels() {
+        SocketChannel channel;
+        while ((channel = this.pendingRegistrations.poll()) != null) {
+            Connection connection = new Connection(channel);
+            try {
+                channel.configureBlocking(false);
+                connection.setKey(channel.register(this.selector, SelectionKey.OP_READ, connection));
+            } catch (IOException e) {
+                log.error(e.getMessage());
+                connection.close();
+            }
+        }
+    }
+
+    private void writePendingResponses() {
+        Connection connection;
+        while ((connection = this.pendingResponses.poll()) != null) {
+            if (!connection.getKey().isValid()) {
+                connection.close();
+                continue;
+            }
+            try {
+                handleWrite(connection);
+            } catch (IOException e) {
+                log.debug("Closing connection: {}", e.getMessage());
+                connection.close();
+            }
+        }
+    }
+
+    private void watchAwaitingConnections() {
+        Connection connection;
+        while ((connection = this.awaitingConnections.poll()) != null) {
+            if (connection.isAwaitingResponse() && connection.getKey().isValid()) {
+                connection.getKey().interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    private void closeIdleConnections() {
+        long now = System.currentTimeMillis();
+        if (now - this.lastSweep < SWEEP_INTERVAL_MILLIS) {
+            return;
+        }
+        this.lastSweep = now;
+
+        for (SelectionKey key : this.selector.keys()) {
+            Connection connection = (Connection) key.attachment();
+            if (connection.isIdleSince(now, ServerConstants.KEEP_ALIVE_TIMEOUT_MILLIS)) {
+                log.debug("Closing idle connection.");
+                connection.close();
+            }
+        }
+    }
+
+    private void handleRead(Connection connection)
+            throws IOException {
+        if (connection.read() < 0) {
+            // Also cancels a pending response
+            connection.close();
+            return;
+        }
+        if (connection.isProcessing()) {
+            // Only watching for a disconnect, pipelined requests stay buffered
+            if (connection.isReadBufferFull()) {
+                connection.getKey().interestOps(0);
+            }
+            return;
+        }
+        dispatchNextRequest(connection);
+    }
+
+    /**
+     * Parses the next buffered request of the connection and hands it to a worker. If the request is not yet
+     * complete, the connection waits for more data.
+     */
+    private void dispatchNextRequest(Connection connection) {
+        Request request;
+        try {
+            request = connection.nextRequest();
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejecting malformed request: {}", e.getMessage());
+            connection.setProcessing(true);
+            connection.getKey().interestOps(0);
+            respond(connection, new Response(HttpStatus.BAD_REQUEST, ContentType.PLAIN_TEXT, ""), false);
+            return;
+        }
+        if (request == null) {
+            connection.getKey().interestOps(SelectionKey.OP_READ);
+            return;
+        }
+
+        // Stop reading until the response has been written, pipelined requests stay buffered
+        connection.setProcessing(true);
+        connection.getKey().interestOps(0);
+        try {
+            this.workers.execute(() -> process(connection, request));
+        } catch (RejectedExecutionException e) {
+            respond(connection, ResponseUtils.serviceUnavailable(MessageConstants.SERVER_OVERLOADED), false);
+        }
+    }
+
+    private void handleWrite(Connection connection)
+            throws IOException {
+        if (!connection.write()) {
+            connection.getKey().interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+
+        if (!connection.isKeepAlive()) {
+            connection.close();
+            return;
+        }
+        connection.completeRequest();
+        dispatchNextRequest(connection);
+    }
+
+    /**
+     * Dispatches the request on a worker thread and queues the response for the reactor. A response that is not
+     * yet complete is awaited without occupying the worker thread.
+     */
+    private void process(Connection connection, Request request) {
+        CompletableFuture<Response> future;
+        try {
+            future = this.router.dispatchAsync(request);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        boolean keepAlive = request.isKeepAlive() &&
+                connection.getServedRequests() + 1 < ServerConstants.MAX_REQUESTS_PER_CONNECTION;
+
+        if (!future.isDone()) {
+            connection.awaitResponse(future);
+            this.awaitingConnections.add(connection);
+            this.selector.wakeup();
+        }
+        future.whenComplete((response, e) -> {
+            if (e != null) {
+                if (!(e instanceof CancellationException)) {
+                    log.error(e.getMessage());
+                }
+                response = new Response(HttpStatus.INTERNAL_SERVER_ERROR, ContentType.PLAIN_TEXT, "");
+            }
+            respond(connection, response, keepAlive);
+        });
+    }
+
+    private void respond(Connection connection, Response response, boolean keepAlive) {
+        connection.setResponse(ByteBuffer.wrap(response.getBytes(keepAlive)), keepAlive);
+        this.pendingResponses.add(connection);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Closes the selector, which terminates the event loop.
+     */
+    void shutdown() {
+        try {
+            this.selector.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package at.if22b208.mtc.server.session;
+
+/**
+ * Role of a logged-in user, carried as a claim of the session token.
+ */
+public enum Role {
+    USER,
+    ADMIN
+}
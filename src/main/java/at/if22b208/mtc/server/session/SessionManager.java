@@ -1,42 +1,139 @@
 package at.if22b208.mtc.server.session;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
 
+import at.if22b208.mtc.config.SessionConstants;
+import at.if22b208.mtc.entity.User;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues and validates the session tokens of logged-in users.
+ *
+ * <p>Sessions are not stored: a token carries the claims of its session (user uuid, username, role, expiry),
+ * signed by a {@link TokenSigner}. Any instance knowing the signing key validates the token without shared
+ * state, so the key has to be configured with {@link SessionConstants#SIGNING_KEY_PROPERTY} when running several
+ * instances. The admin rotates keys at runtime through {@code /sessions/keys}, which calls
+ * {@link #rotateKey(String, byte[])} and {@link #retireKey(String)}. A single session cannot be revoked before it
+ * expires.</p>
+ */
+@Slf4j
 public class SessionManager {
-    private static final Map<String, UserSession> sessionMap = new HashMap<>();
+    private static final String SEPARATOR = "|";
+
+    private static SessionManager INSTANCE;
+
+    private final TokenSigner signer;
+
+    private final long timeoutMillis;
 
-    public static String createSession(String username) {
-        UserSession session = new UserSession(username, System.currentTimeMillis());
-        String token = generateToken(username);
-        sessionMap.put(token, session);
-        return token;
+    SessionManager(TokenSigner signer, long timeoutMillis) {
+        this.signer = signer;
+        this.timeoutMillis = timeoutMillis;
     }
 
-    public static boolean isValidSession(String token) {
+    /**
+     * Creates a session for the user.
+     *
+     * @param user The logged-in user.
+     * @return The signed token describing the session.
+     */
+    public String createSession(User user) {
+        long now = System.currentTimeMillis();
+        Role role = SessionConstants.ADMIN_USERNAME.equals(user.getUsername()) ? Role.ADMIN : Role.USER;
+        // The username goes last, so it may contain the separator
+        return this.signer.sign(String.join(SEPARATOR,
+                user.getUuid().toString(),
+                role.name(),
+                Long.toString(now),
+                Long.toString(now + this.timeoutMillis),
+                user.getUsername()));
+    }
+
+    /**
+     * Validates a token and reads its session.
+     *
+     * @param token The token, optionally prefixed with {@code Bearer }.
+     * @return The session, or an empty optional if the token is invalid or the session has expired.
+     */
+    public Optional<UserSession> getSession(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
         if (token.startsWith("Bearer ")) {
             token = token.substring(7);
         }
-        UserSession session = sessionMap.get(token);
-        return session != null && !isSessionExpired(session);
+        return this.signer.verify(token)
+                .flatMap(SessionManager::parse)
+                .filter(session -> !session.isExpired(System.currentTimeMillis()));
     }
 
-    private static boolean isSessionExpired(UserSession session) {
-        long currentTime = System.currentTimeMillis();
-        long sessionStartTime = session.getStartTime();
-        long sessionTimeout = 30 * 60 * 1000; // = 30 minutes
-        return currentTime - sessionStartTime > sessionTimeout;
+    /**
+     * Signs all new tokens with the given key. Tokens signed with previous keys stay valid until the keys are
+     * retired with {@link #retireKey(String)}.
+     *
+     * @param keyId  The id of the key.
+     * @param secret The secret of the key.
+     */
+    public void rotateKey(String keyId, byte[] secret) {
+        this.signer.rotate(keyId, secret);
+        log.info("Signing session tokens with key '{}'.", keyId);
     }
 
-    public static UserSession getUserSession(String token) {
-        return sessionMap.get(token);
+    /**
+     * Invalidates all tokens signed with the given key.
+     *
+     * @param keyId The id of a key that is not the current key.
+     * @return True if the key was known.
+     */
+    public boolean retireKey(String keyId) {
+        return this.signer.retire(keyId);
     }
 
-    public static void invalidateSession(String token) {
-        sessionMap.remove(token);
+    private static Optional<UserSession> parse(String payload) {
+        String[] claims = payload.split("\\" + SEPARATOR, 5);
+        if (claims.length != 5) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UserSession.builder()
+                    .userUuid(UUID.fromString(claims[0]))
+                    .role(Role.valueOf(claims[1]))
+                    .startTime(Long.parseLong(claims[2]))
+                    .expiresAt(Long.parseLong(claims[3]))
+                    .username(claims[4])
+                    .build());
+        } catch (IllegalArgumentException e) {
+            // Signed, but not by this version of the application
+            return Optional.empty();
+        }
+    }
+
+    private static TokenSigner createSigner() {
+        String keyId = System.getProperty(SessionConstants.SIGNING_KEY_ID_PROPERTY,
+                SessionConstants.DEFAULT_SIGNING_KEY_ID);
+        String secret = System.getProperty(SessionConstants.SIGNING_KEY_PROPERTY);
+        if (secret != null) {
+            return new TokenSigner(keyId, Base64.getDecoder().decode(secret));
+        }
+        log.warn("No session signing key configured ({}), tokens are only valid on this instance.",
+                SessionConstants.SIGNING_KEY_PROPERTY);
+        byte[] random = new byte[SessionConstants.MIN_SIGNING_KEY_LENGTH];
+        new SecureRandom().nextBytes(random);
+        return new TokenSigner(keyId, random);
     }
 
-    private static String generateToken(String username) {
-        return username + "-mtcgToken";
+    /**
+     * Gets the singleton instance of the {@code SessionManager}.
+     *
+     * @return The singleton instance of the {@code SessionManager}.
+     */
+    public static synchronized SessionManager getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new SessionManager(createSigner(), SessionConstants.SESSION_TIMEOUT_MILLIS);
+        }
+        return INSTANCE;
     }
 }
@@ -0,0 +1,126 @@
+package at.if22b208.mtc.server.session;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import at.if22b208.mtc.config.SessionConstants;
+
+/**
+ * Signs and verifies tokens with HMAC keys that can be rotated at runtime.
+ *
+ * <p>A token has the form {@code <key id>.<payload>.<signature>}, payload and signature Base64url encoded, the
+ * signature covering key id and payload. New tokens are signed with the current key; tokens signed with any
+ * known key are accepted, so after {@link #rotate(String, byte[]) rotating} the key, tokens signed with the
+ * previous key stay valid until that key is {@link #retire(String) retired}. Signatures are compared in constant
+ * time.</p>
+ */
+public class TokenSigner {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKeySpec> keys = new ConcurrentHashMap<>();
+
+    private volatile String currentKeyId;
+
+    public TokenSigner(String keyId, byte[] secret) {
+        rotate(keyId, secret);
+    }
+
+    /**
+     * Adds a key and signs all new tokens with it. Previously added keys remain valid for verification.
+     *
+     * @param keyId  The id of the key, must not contain a dot.
+     * @param secret The secret of the key, at least {@link SessionConstants#MIN_SIGNING_KEY_LENGTH} bytes.
+     */
+    public synchronized void rotate(String keyId, byte[] secret) {
+        if (keyId == null || keyId.isEmpty() || keyId.contains(".")) {
+            throw new IllegalArgumentException("Invalid key id '" + keyId + "'.");
+        }
+        if (secret == null || secret.length < SessionConstants.MIN_SIGNING_KEY_LENGTH) {
+            throw new IllegalArgumentException("Signing keys must have at least " +
+                    SessionConstants.MIN_SIGNING_KEY_LENGTH + " bytes.");
+        }
+        this.keys.put(keyId, new SecretKeySpec(secret, SessionConstants.SIGNING_ALGORITHM));
+        this.currentKeyId = keyId;
+    }
+
+    /**
+     * Removes a key, so tokens signed with it are no longer accepted. The current key cannot be retired.
+     *
+     * @param keyId The id of the key.
+     * @return True if the key was removed.
+     */
+    public synchronized boolean retire(String keyId) {
+        if (keyId.equals(this.currentKeyId)) {
+            throw new IllegalArgumentException("The current signing key cannot be retired.");
+        }
+        return this.keys.remove(keyId) != null;
+    }
+
+    public String getCurrentKeyId() {
+        return this.currentKeyId;
+    }
+
+    /**
+     * Signs a payload with the current key.
+     *
+     * @param payload The payload.
+     * @return The token holding payload and signature.
+     */
+    public String sign(String payload) {
+        String keyId = this.currentKeyId;
+        String signed = keyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(mac(this.keys.get(keyId), signed));
+    }
+
+    /**
+     * Verifies the signature of a token.
+     *
+     * @param token The token.
+     * @return The payload, or an empty optional if the token is malformed, signed with an unknown key or the
+     * signature does not match.
+     */
+    public Optional<String> verify(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        int payloadStart = token.indexOf('.');
+        if (payloadStart <= 0 || signatureStart == payloadStart) {
+            return Optional.empty();
+        }
+        SecretKeySpec key = this.keys.get(token.substring(0, payloadStart));
+        if (key == null) {
+            return Optional.empty();
+        }
+        try {
+            String signed = token.substring(0, signatureStart);
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(mac(key, signed), signature)) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(DECODER.decode(signed.substring(payloadStart + 1)),
+                    StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // Not Base64url encoded
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] mac(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(SessionConstants.SIGNING_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // Every Java platform supports HmacSHA256
+            throw new IllegalStateException("Unable to sign session token.", e);
+        }
+    }
+}
@@ -1,12 +1,37 @@
 package at.if22b208.mtc.server.session;
 
+import java.util.UUID;
+
 import lombok.Builder;
 import lombok.Data;
 
+/**
+ * Session of a logged-in user, as described by the claims of a session token.
+ */
 @Builder
 @Data
 public class UserSession {
+    private final UUID userUuid;
+
     private final String username;
 
+    private final Role role;
+
     private final long startTime;
+
+    private final long expiresAt;
+
+    /**
+     * Checks whether the session has expired.
+     *
+     * @param now The current time in milliseconds.
+     * @return True if the session is no longer valid.
+     */
+    public boolean isExpired(long now) {
+        return now >= this.expiresAt;
+    }
+
+    public boolean isAdmin() {
+        return this.role == Role.ADMIN;
+    }
 }
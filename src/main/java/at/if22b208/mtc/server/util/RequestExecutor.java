@@ -0,0 +1,219 @@
+package at.if22b208.mtc.server.util;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import at.if22b208.mtc.server.ExecutionMode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes requests on an underlying executor while limiting the number of requests in flight.
+ *
+ * <p>A request takes a permit before it is handed to a thread, so no thread is started or occupied for a
+ * request that is not allowed to run yet. Requests beyond the permits wait in a bounded queue without a thread
+ * and are started by the request releasing the next permit; requests beyond the queue are rejected with a
+ * {@link RejectedExecutionException}, which the server answers with {@code 503 Service Unavailable}.</p>
+ */
+@Slf4j
+public class RequestExecutor implements Executor {
+    @Getter
+    private final ExecutionMode mode;
+
+    @Getter
+    private final int maxInFlight;
+
+    @Getter
+    private final int maxQueued;
+
+    private final ExecutorService delegate;
+
+    private final Semaphore permits;
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    RequestExecutor(ExecutionMode mode, ExecutorService delegate, int maxInFlight, int maxQueued) {
+        this.mode = mode;
+        this.delegate = delegate;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Creates an executor backed by a fixed pool of platform threads.
+     *
+     * @param threads   The number of worker threads, which is also the maximum of requests in flight.
+     * @param maxQueued The maximum number of requests waiting for a thread.
+     * @return The request executor.
+     */
+    public static RequestExecutor fixedPool(int threads, int maxQueued) {
+        return new RequestExecutor(ExecutionMode.FIXED_POOL, Executors.newFixedThreadPool(threads), threads,
+                maxQueued);
+    }
+
+    /**
+     * Creates an executor starting a new thread per request. Virtual threads are used if the runtime supports
+     * them, otherwise platform threads from a pool of at most {@code maxInFlight} threads.
+     *
+     * @param maxInFlight The maximum number of requests processed concurrently.
+     * @param maxQueued   The maximum number of requests waiting for a permit.
+     * @return The request executor.
+     */
+    public static RequestExecutor perRequest(int maxInFlight, int maxQueued) {
+        return new RequestExecutor(ExecutionMode.PER_REQUEST, newThreadPerTaskExecutor(maxInFlight), maxInFlight,
+                maxQueued);
+    }
+
+    /**
+     * Creates a request executor for the given mode.
+     *
+     * @param mode        The execution mode.
+     * @param threads     The number of threads used by {@link ExecutionMode#FIXED_POOL}.
+     * @param maxInFlight The maximum of requests in flight used by {@link ExecutionMode#PER_REQUEST}.
+     * @param maxQueued   The maximum number of requests waiting to be processed.
+     * @return The request executor.
+     */
+    public static RequestExecutor of(ExecutionMode mode, int threads, int maxInFlight, int maxQueued) {
+        return mode == ExecutionMode.PER_REQUEST ? perRequest(maxInFlight, maxQueued) : fixedPool(threads, maxQueued);
+    }
+
+    /**
+     * Runs the task once a permit is available.
+     *
+     * @param task The task.
+     * @throws RejectedExecutionException If all permits are taken and the queue is full, or the executor has
+     *                                    been shut down.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (this.permits.tryAcquire()) {
+            dispatch(task);
+            return;
+        }
+
+        if (this.queued.incrementAndGet() > this.maxQueued) {
+            this.queued.decrementAndGet();
+            this.rejected.increment();
+            throw new RejectedExecutionException("Request queue is full.");
+        }
+        this.pending.add(task);
+        // A permit may have been released before the task was queued
+        drain();
+    }
+
+    /**
+     * Starts queued tasks while permits are available.
+     */
+    private void drain() {
+        while (!this.pending.isEmpty() && this.permits.tryAcquire()) {
+            Runnable task = this.pending.poll();
+            if (task == null) {
+                this.permits.release();
+                continue;
+            }
+            this.queued.decrementAndGet();
+            try {
+                dispatch(task);
+            } catch (RejectedExecutionException e) {
+                log.warn("Dropping queued request, executor has been shut down.");
+            }
+        }
+    }
+
+    /**
+     * Hands a task holding a permit to a thread.
+     */
+    private void dispatch(Runnable task) {
+        try {
+            this.delegate.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task) {
+        this.inFlight.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            this.inFlight.decrementAndGet();
+            this.permits.release();
+            drain();
+        }
+    }
+
+    /**
+     * Gets the number of requests currently being processed.
+     *
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Gets the number of submitted requests that are waiting for a permit.
+     *
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+        return this.queued.get();
+    }
+
+    /**
+     * Gets the number of requests rejected because the queue was full.
+     *
+     * @return The number of rejected requests.
+     */
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Stops accepting new requests.
+     */
+    public void shutdown() {
+        this.delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "RequestExecutor(mode=" + this.mode + ", inFlight=" + getInFlight() + "/" + this.maxInFlight +
+                ", queued=" + getQueueDepth() + "/" + this.maxQueued + ", rejected=" + getRejected() + ")";
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(int maxThreads) {
+        try {
+            // Available from Java 21 on, resolved reflectively to keep compiling against older releases
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads not supported by this runtime, using a pool of up to {} platform threads.",
+                    maxThreads);
+            // Never more tasks than permits, so the queue only bridges a thread finishing its previous task
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
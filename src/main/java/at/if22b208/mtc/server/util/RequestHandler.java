@@ -1,65 +1,116 @@
 package at.if22b208.mtc.server.util;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 
+import at.if22b208.mtc.config.ServerConstants;
 import at.if22b208.mtc.server.http.ContentType;
 import at.if22b208.mtc.server.http.HttpStatus;
 import at.if22b208.mtc.server.http.Request;
 import at.if22b208.mtc.server.http.Response;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Serves a single request of a client connection in the blocking server mode.
+ *
+ * <p>The connection is closed after the response, which announces {@code Connection: close}, even if the client
+ * asked to keep it alive: the handler occupies a worker and a request permit while it waits for the client, so
+ * an idle persistent connection would keep other clients from being served. Persistent connections and
+ * pipelined requests are served by the non-blocking server, which waits for idle connections without a
+ * worker.</p>
+ */
 @Slf4j
 public class RequestHandler implements Runnable {
+    private static final int BUFFER_SIZE = 8192;
+
     private final Socket clientSocket;
 
     private final Router router;
 
-    private final PrintWriter printWriter;
+    private final InputStream inputStream;
+
+    private final OutputStream outputStream;
 
-    private final BufferedReader bufferedReader;
+    private final RequestParser parser = new RequestParser();
+
+    /**
+     * Bytes received from the client, in read mode.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
 
     public RequestHandler(Socket clientSocket, Router router)
             throws IOException {
         this.clientSocket = clientSocket;
-        this.bufferedReader = new BufferedReader(new InputStreamReader(this.clientSocket.getInputStream()));
-        this.printWriter = new PrintWriter(this.clientSocket.getOutputStream(), true);
+        this.inputStream = this.clientSocket.getInputStream();
+        this.outputStream = new BufferedOutputStream(this.clientSocket.getOutputStream(), BUFFER_SIZE);
         this.router = router;
     }
 
     @Override
     public void run() {
         try {
-            Response response;
-            Request request = new RequestBuilder().buildRequest(this.bufferedReader);
+            // Bounds the time a client sending its request slowly holds the worker
+            this.clientSocket.setSoTimeout(ServerConstants.KEEP_ALIVE_TIMEOUT_MILLIS);
 
-            if (request.getPathname() == null) {
-                response = new Response(
-                        HttpStatus.BAD_REQUEST,
-                        ContentType.JSON,
-                        "[]"
-                );
-            } else {
-                response = this.router.resolve(request.getServiceRoute()).handleRequest(request);
+            Request request;
+            try {
+                request = readRequest();
+            } catch (IllegalArgumentException e) {
+                log.warn("Rejecting malformed request: {}", e.getMessage());
+                outputStream.write(new Response(HttpStatus.BAD_REQUEST, ContentType.PLAIN_TEXT, "").getBytes(false));
+                outputStream.flush();
+                return;
             }
-            printWriter.write(response.get());
+            if (request == null) {
+                return;
+            }
+
+            Response response = this.router.dispatch(request);
+            outputStream.write(response.getBytes(false));
+            outputStream.flush();
+        } catch (SocketTimeoutException e) {
+            log.debug("Closing connection, request not received in time.");
         } catch (Exception e) {
             log.error(e.getMessage());
         } finally {
             try {
-                if (printWriter != null) {
-                    printWriter.close();
-                }
-                if (bufferedReader != null) {
-                    bufferedReader.close();
-                    clientSocket.close();
-                }
+                outputStream.close();
+                inputStream.close();
+                clientSocket.close();
             } catch (IOException e) {
                 log.error(e.getMessage());
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads from the connection until the parser has completed the next request.
+     *
+     * @return The request, or {@code null} if the client closed the connection.
+     * @throws IOException If reading from the connection fails or times out.
+     */
+    private Request readRequest()
+            throws IOException {
+        while (true) {
+            Request request = parser.parse(buffer);
+            if (request != null) {
+                return request;
+            }
+
+            buffer.clear();
+            int read = inputStream.read(buffer.array(), 0, buffer.capacity());
+            if (read < 0) {
+                if (parser.isPartial()) {
+                    log.debug("Client closed the connection within a request.");
+                }
+                return null;
+            }
+            buffer.limit(read);
+        }
+    }
+}
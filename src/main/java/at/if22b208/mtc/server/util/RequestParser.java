@@ -0,0 +1,295 @@
+package at.if22b208.mtc.server.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import at.if22b208.mtc.config.ServerConstants;
+import at.if22b208.mtc.server.http.Header;
+import at.if22b208.mtc.server.http.Method;
+import at.if22b208.mtc.server.http.Request;
+
+/**
+ * Incremental parser turning the bytes received on a connection into {@link Request}s.
+ *
+ * <p>The parser is fed with whatever bytes are available and keeps its state between calls, so a request may
+ * arrive in arbitrarily small fragments without being rescanned. Every byte handed to {@link #parse(ByteBuffer)}
+ * is consumed; bytes belonging to a following pipelined request stay in the buffer.</p>
+ *
+ * <p>The body length is taken from the {@code Content-Length} header and counted in bytes. The body buffer grows
+ * as the bytes arrive rather than being sized by the announced length, so a client cannot make the server
+ * allocate memory it never sends. The body is kept as raw bytes and only decoded when it is accessed. A parser
+ * instance belongs to a single connection and is not thread-safe.</p>
+ */
+public class RequestParser {
+    private static final byte CR = '\r';
+
+    private static final byte LF = '\n';
+
+    private static final byte SP = ' ';
+
+    private static final byte COLON = ':';
+
+    /**
+     * Capacity the body buffer starts with, doubled whenever it is full until the announced length is reached.
+     */
+    private static final int INITIAL_BODY_CAPACITY = 8 * 1024;
+
+    private static final Method[] METHODS = Method.values();
+
+    private static final byte[][] METHOD_NAMES = new byte[METHODS.length][];
+
+    static {
+        for (int i = 0; i < METHODS.length; i++) {
+            METHOD_NAMES[i] = METHODS[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private enum State {
+        REQUEST_LINE,
+        HEADERS,
+        BODY
+    }
+
+    private State state = State.REQUEST_LINE;
+
+    /**
+     * Holds the line currently being parsed, reused for all lines of all requests of the connection.
+     */
+    private byte[] line = new byte[256];
+
+    private int lineLength;
+
+    private int headerSize;
+
+    private Request request;
+
+    private byte[] body;
+
+    private int bodyLength;
+
+    private int bodyRead;
+
+    /**
+     * Consumes the available bytes until a request is complete.
+     *
+     * @param buffer The buffer holding the received bytes, in read mode.
+     * @return The parsed request, or {@code null} if more bytes are required.
+     * @throws IllegalArgumentException If the received bytes are not a valid request.
+     */
+    public Request parse(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            if (this.state == State.BODY) {
+                if (this.bodyRead == this.body.length) {
+                    this.body = Arrays.copyOf(this.body, Math.min(this.body.length * 2, this.bodyLength));
+                }
+                int count = Math.min(buffer.remaining(), this.body.length - this.bodyRead);
+                buffer.get(this.body, this.bodyRead, count);
+                this.bodyRead += count;
+                if (this.bodyRead == this.bodyLength) {
+                    return complete();
+                }
+                continue;
+            }
+
+            if (!readLine(buffer)) {
+                return null;
+            }
+            if (this.state == State.REQUEST_LINE) {
+                // Tolerate empty lines between pipelined requests
+                if (this.lineLength > 0) {
+                    parseRequestLine();
+                    this.state = State.HEADERS;
+                }
+            } else if (this.lineLength > 0) {
+                parseHeader();
+            } else {
+                Request headerComplete = startBody();
+                if (headerComplete != null) {
+                    return headerComplete;
+                }
+            }
+            this.lineLength = 0;
+        }
+        return null;
+    }
+
+    /**
+     * Discards any partially parsed request.
+     */
+    public void reset() {
+        this.state = State.REQUEST_LINE;
+        this.lineLength = 0;
+        this.headerSize = 0;
+        this.request = null;
+        this.body = null;
+        this.bodyLength = 0;
+        this.bodyRead = 0;
+    }
+
+    /**
+     * Checks whether the parser holds the fragment of a request that is not yet complete.
+     *
+     * @return True if a request has been started but not completed.
+     */
+    public boolean isPartial() {
+        return this.state != State.REQUEST_LINE || this.lineLength > 0;
+    }
+
+    /**
+     * Appends bytes to the current line until its line feed is reached.
+     *
+     * @return True if the line is complete, excluding its line terminator.
+     */
+    private boolean readLine(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (++this.headerSize > ServerConstants.MAX_HEADER_SIZE) {
+                throw new IllegalArgumentException("Request header exceeds " + ServerConstants.MAX_HEADER_SIZE + " bytes.");
+            }
+            if (b == LF) {
+                if (this.lineLength > 0 && this.line[this.lineLength - 1] == CR) {
+                    this.lineLength--;
+                }
+                return true;
+            }
+            if (this.lineLength == this.line.length) {
+                this.line = Arrays.copyOf(this.line, this.line.length * 2);
+            }
+            this.line[this.lineLength++] = b;
+        }
+        return false;
+    }
+
+    private void parseRequestLine() {
+        int methodEnd = indexOf(SP, 0);
+        if (methodEnd <= 0) {
+            throw new IllegalArgumentException("Malformed request line.");
+        }
+        int urlEnd = indexOf(SP, methodEnd + 1);
+        if (urlEnd < 0) {
+            urlEnd = this.lineLength;
+        }
+        if (urlEnd == methodEnd + 1) {
+            throw new IllegalArgumentException("Malformed request line.");
+        }
+
+        this.request = new Request();
+        this.request.setMethod(parseMethod(methodEnd));
+        this.request.setUrlContent(ascii(methodEnd + 1, urlEnd));
+        if (urlEnd < this.lineLength) {
+            this.request.setVersion(parseVersion(urlEnd + 1));
+        }
+    }
+
+    private void parseHeader() {
+        int separator = indexOf(COLON, 0);
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Malformed header line.");
+        }
+
+        String name = Header.intern(this.line, 0, separator);
+        if (name == null) {
+            name = ascii(0, separator);
+        }
+
+        int valueStart = separator + 1;
+        int valueEnd = this.lineLength;
+        while (valueStart < valueEnd && isWhitespace(this.line[valueStart])) {
+            valueStart++;
+        }
+        while (valueEnd > valueStart && isWhitespace(this.line[valueEnd - 1])) {
+            valueEnd--;
+        }
+        this.request.getHeader().put(name, ascii(valueStart, valueEnd));
+    }
+
+    /**
+     * Handles the end of the header block.
+     *
+     * @return The request if it has no body, otherwise {@code null}.
+     */
+    private Request startBody() {
+        Header header = this.request.getHeader();
+        if (header.getHeader(Header.TRANSFER_ENCODING_HEADER) != null) {
+            throw new IllegalArgumentException("Transfer encodings are not supported.");
+        }
+
+        int contentLength;
+        try {
+            contentLength = header.getContentLength();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Content-Length.");
+        }
+        if (contentLength < 0 || contentLength > ServerConstants.MAX_BODY_SIZE) {
+            throw new IllegalArgumentException("Invalid Content-Length.");
+        }
+
+        if (contentLength == 0) {
+            return complete();
+        }
+        this.body = new byte[Math.min(contentLength, INITIAL_BODY_CAPACITY)];
+        this.bodyLength = contentLength;
+        this.bodyRead = 0;
+        this.state = State.BODY;
+        return null;
+    }
+
+    private Request complete() {
+        Request completed = this.request;
+        if (this.body != null) {
+            completed.setRawBody(this.body);
+        }
+        reset();
+        return completed;
+    }
+
+    private Method parseMethod(int end) {
+        for (int i = 0; i < METHOD_NAMES.length; i++) {
+            byte[] name = METHOD_NAMES[i];
+            if (name.length == end && Arrays.equals(name, 0, end, this.line, 0, end)) {
+                return METHODS[i];
+            }
+        }
+        throw new IllegalArgumentException("Unsupported method " + ascii(0, end) + ".");
+    }
+
+    private String parseVersion(int start) {
+        if (matches(Request.HTTP_1_1, start)) {
+            return Request.HTTP_1_1;
+        }
+        if (matches(Request.HTTP_1_0, start)) {
+            return Request.HTTP_1_0;
+        }
+        return ascii(start, this.lineLength);
+    }
+
+    private boolean matches(String constant, int start) {
+        if (this.lineLength - start != constant.length()) {
+            return false;
+        }
+        for (int i = 0; i < constant.length(); i++) {
+            if (this.line[start + i] != constant.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte value, int from) {
+        for (int i = from; i < this.lineLength; i++) {
+            if (this.line[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String ascii(int start, int end) {
+        return new String(this.line, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == SP || b == '\t';
+    }
+}
@@ -1,9 +1,17 @@
 package at.if22b208.mtc.server.util;
 
+import at.if22b208.mtc.server.AsyncController;
 import at.if22b208.mtc.server.Controller;
+import at.if22b208.mtc.server.http.ContentType;
+import at.if22b208.mtc.server.http.HttpStatus;
+import at.if22b208.mtc.server.http.Request;
+import at.if22b208.mtc.server.http.Response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class Router {
     private final Map<String, Controller> serviceRegistry = new HashMap<>();
@@ -20,4 +28,39 @@ public class Router {
         return this.serviceRegistry.get(route);
     }
 
+    /**
+     * Resolves the controller for the given request and lets it handle the request.
+     *
+     * @param request The parsed request.
+     * @return The response of the controller, or a bad request response if the request has no path.
+     * @throws JsonProcessingException If the controller fails to process JSON.
+     */
+    public Response dispatch(Request request)
+            throws JsonProcessingException {
+        if (request.getPathname() == null) {
+            return new Response(
+                    HttpStatus.BAD_REQUEST,
+                    ContentType.JSON,
+                    "[]"
+            );
+        }
+        return this.resolve(request.getServiceRoute()).handleRequest(request);
+    }
+
+    /**
+     * Resolves the controller for the given request and lets it handle the request without waiting for the
+     * response of an {@link AsyncController}.
+     *
+     * @param request The parsed request.
+     * @return The future completed with the response of the controller.
+     * @throws JsonProcessingException If the controller fails to process JSON.
+     */
+    public CompletableFuture<Response> dispatchAsync(Request request)
+            throws JsonProcessingException {
+        if (request.getPathname() != null &&
+                this.resolve(request.getServiceRoute()) instanceof AsyncController controller) {
+            return controller.handleRequestAsync(request);
+        }
+        return CompletableFuture.completedFuture(dispatch(request));
+    }
 }
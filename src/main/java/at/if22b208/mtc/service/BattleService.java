@@ -1,53 +1,158 @@
 package at.if22b208.mtc.service;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import at.if22b208.mtc.config.MatchmakingConstants;
+import at.if22b208.mtc.database.Transaction;
 import at.if22b208.mtc.entity.Battle;
+import at.if22b208.mtc.entity.BattleLog;
+import at.if22b208.mtc.entity.BattleResult;
 import at.if22b208.mtc.entity.User;
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+import at.if22b208.mtc.exception.MatchmakingException;
+import at.if22b208.mtc.matchmaking.MatchTicket;
+import at.if22b208.mtc.matchmaking.Matchmaker;
+import at.if22b208.mtc.matchmaking.MatchmakingMetrics;
+import at.if22b208.mtc.repository.BattleLogRepository;
+import at.if22b208.mtc.util.BattleExecutor;
+import at.if22b208.mtc.util.EloSystem;
 
 /**
  * The {@code BattleService} class manages the battle queue and facilitates the creation of battles between users.
  *
- * <p>This service class provides methods for entering the battle queue and handling the initiation of battles.</p>
+ * <p>Players are paired by Elo by the {@link Matchmaker}. Every battle is simulated on the
+ * {@link BattleExecutor}, outside any transaction, and its outcome and log are persisted in one short transaction
+ * of its own. Both players receive the result through their future once the outcome has been committed.</p>
  */
 public class BattleService {
     private static BattleService INSTANCE;
 
-    private final BlockingQueue<Battle> battles;
+    private final Matchmaker matchmaker;
 
     private BattleService() {
         // Private constructor to ensure singleton pattern.
-        this.battles = new LinkedBlockingQueue<>();
+        this.matchmaker = new Matchmaker(MatchmakingConstants.MATCHMAKING_TIMEOUT_MILLIS, this::fight);
     }
 
     /**
      * Enters the battle queue with the specified user.
      *
-     * <p>If the queue is empty, a new battle is created with the user as Player A.
-     * If the queue is not empty, the user is paired with the battle at the front of the queue as Player B.</p>
+     * <p>If a waiting player is within the accepted Elo gap, the user is paired with the closest such player as
+     * Player B and the battle is submitted right away. Otherwise the user waits for an opponent; the
+     * returned future completes once an opponent has been found and the battle has been fought, or exceptionally
+     * with a {@link java.util.concurrent.TimeoutException} if no opponent is found in time. Cancelling the future
+     * leaves the queue.</p>
      *
-     * @param user The user entering the battle queue.
-     * @return The created or joined battle.
-     * @throws InterruptedException If the thread is interrupted while waiting for a battle.
+     * @param user The user entering the battle queue, with the deck loaded.
+     * @return The future completed with the result of the battle.
+     * @throws MatchmakingException If the user is already waiting for a battle.
      */
-    public Battle enterBattleQueue(User user)
-            throws InterruptedException {
-        if (battles.isEmpty()) {
-            Battle battle = new Battle();
-            battle.setPlayerA(user);
-            battles.add(battle);
-
-            battle.getLatch().await();
-            return battle;
+    public CompletableFuture<BattleResult> enterBattleQueue(User user)
+            throws MatchmakingException {
+        MatchTicket ticket = this.matchmaker.join(user);
+        MatchTicket opponent = ticket.getOpponent();
+        if (opponent != null) {
+            fight(opponent, ticket);
         }
+        return ticket.getResult();
+    }
+
+    /**
+     * Gets a snapshot of the usage of the battle queue, including queue times and Elo gaps of matches.
+     *
+     * @return The metrics.
+     */
+    public MatchmakingMetrics getMatchmakingMetrics() {
+        return this.matchmaker.getMetrics();
+    }
+
+    /**
+     * Submits the battle of two paired players to the {@link BattleExecutor} and completes both tickets with its
+     * result.
+     *
+     * @param playerA The player waiting longer.
+     * @param playerB The other player.
+     */
+    private void fight(MatchTicket playerA, MatchTicket playerB) {
+        BattleExecutor.getInstance()
+                .submit(() -> persist(simulate(playerA.getUser(), playerB.getUser())))
+                .whenComplete((result, e) -> {
+                    if (e == null) {
+                        playerA.getResult().complete(result);
+                        playerB.getResult().complete(result);
+                    } else {
+                        playerA.getResult().completeExceptionally(e);
+                        playerB.getResult().completeExceptionally(e);
+                    }
+                });
+    }
+
+    /**
+     * Simulates a battle. Touches no database.
+     *
+     * @param playerA The player waiting longer.
+     * @param playerB The other player.
+     * @return The finished battle.
+     */
+    private static Battle simulate(User playerA, User playerB) {
+        Battle battle = new Battle();
+        battle.setPlayerA(playerA);
+        battle.setPlayerB(playerB);
+        battle.battle();
+        return battle;
+    }
 
-        Battle battleFromQueue = battles.take();
-        battleFromQueue.setPlayerB(user);
+    /**
+     * Persists the outcome and the log of a finished battle in a transaction of its own.
+     *
+     * <p>The players may have fought other battles since they were loaded, so the Elo ratings are updated from
+     * the committed ratings, read with both rows locked, and the wins and losses are incremented by the
+     * database. The rows are locked in UUID order, so two battles of the same players cannot deadlock.</p>
+     *
+     * @param battle The finished battle.
+     * @return The result of the battle.
+     */
+    private static BattleResult persist(Battle battle)
+            throws DatabaseTransactionException {
+        try (Transaction transaction = new Transaction()) {
+            if (!battle.isDraw()) {
+                User playerA = battle.getPlayerA();
+                User playerB = battle.getPlayerB();
+                UserService userService = UserService.getInstance();
+                if (playerA.getUuid().compareTo(playerB.getUuid()) < 0) {
+                    playerA.setElo(userService.lockElo(playerA));
+                    playerB.setElo(userService.lockElo(playerB));
+                } else {
+                    playerB.setElo(userService.lockElo(playerB));
+                    playerA.setElo(userService.lockElo(playerA));
+                }
 
-        battleFromQueue.battle();
+                boolean playerAWon = Objects.equals(battle.getWinner().getUuid(), playerA.getUuid());
+                EloSystem.updateRatings(playerA, playerB, playerAWon);
+                User winner = playerAWon ? playerA : playerB;
+                User loser = playerAWon ? playerB : playerA;
+                userService.updateStats(winner, 1, 0);
+                userService.updateStats(loser, 0, 1);
+                winner.setWins(winner.getWins() + 1);
+                loser.setLosses(loser.getLosses() + 1);
+            }
+            BattleLogRepository.getInstance().create(battle.getRounds());
+            transaction.commit();
+        }
+        return BattleResult.of(battle);
+    }
 
-        return battleFromQueue;
+    /**
+     * Retrieves the log of a battle.
+     *
+     * @param uuid The UUID of the battle.
+     * @return The log, or {@code null} if there is no battle with the UUID.
+     */
+    public BattleLog getLog(UUID uuid)
+            throws DatabaseTransactionException {
+        return BattleLogRepository.getInstance().findById(uuid).orElse(null);
     }
 
     /**
@@ -1,10 +1,16 @@
 package at.if22b208.mtc.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import at.if22b208.mtc.cache.CardCatalog;
+import at.if22b208.mtc.cache.CardDefinition;
 import at.if22b208.mtc.entity.Card;
 import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
@@ -66,70 +72,140 @@ public class CardService implements Service<Card, UUID> {
     @Override
     public Card getById(UUID uuid)
             throws DatabaseTransactionException {
-        return CardRepository.getInstance()
-                .findById(uuid)
-                .orElse(null);
+        CardDefinition definition = CardCatalog.getInstance().get(uuid);
+        if (definition != null) {
+            // Only the owner can have changed
+            return definition.toCard(CardRepository.getInstance().findOwnerById(uuid).orElse(null));
+        }
+
+        Optional<Card> card = CardRepository.getInstance().findById(uuid);
+        card.ifPresent(CardCatalog.getInstance()::add);
+        return card.orElse(null);
+    }
+
+    /**
+     * Retrieves the decks of the given users. The deck cards are looked up in the {@link CardCatalog}, missing
+     * cards are read with a single query.
+     *
+     * @param userUuids The UUIDs of the deck owners.
+     * @return The deck cards in slot order, by owner. Users without deck are missing.
+     */
+    public Map<UUID, List<Card>> getDecksByOwners(Collection<UUID> userUuids)
+            throws DatabaseTransactionException {
+        Map<UUID, List<UUID>> deckCardUuids = CardRepository.getInstance().findDeckCardUuids(userUuids);
+
+        List<UUID> cardUuids = new ArrayList<>();
+        deckCardUuids.values().forEach(cardUuids::addAll);
+        Map<UUID, CardDefinition> definitions = getDefinitions(cardUuids);
+
+        Map<UUID, List<Card>> decks = new HashMap<>();
+        deckCardUuids.forEach((userUuid, uuids) -> decks.put(userUuid, toCards(uuids, definitions, userUuid)));
+        return decks;
+    }
+
+    /**
+     * Checks whether a card is part of any deck.
+     *
+     * @param card The card to check.
+     * @return True if the card is in a deck, false otherwise.
+     */
+    public boolean isInDeck(Card card)
+            throws DatabaseTransactionException {
+        return CardRepository.getInstance().isInDeck(card);
     }
 
     /**
-     * Retrieves a list of all cards owned by a specific user.
+     * Retrieves a list of all cards owned by a specific user. Only the UUIDs are read from the database, the
+     * cards are looked up in the {@link CardCatalog}.
      *
      * @param user The user whose cards need to be retrieved.
      * @return A list of cards owned by the specified user.
      */
     public List<Card> getAllByOwner(User user)
             throws DatabaseTransactionException {
-        return CardRepository.getInstance()
-                .findByOwner(user)
-                .stream()
-                .flatMap(Optional::stream)
-                .toList();
+        List<UUID> uuids = CardRepository.getInstance().findUuidsByOwner(user);
+        return toCards(uuids, getDefinitions(uuids), user.getUuid());
     }
 
     /**
-     * Gets the next available package ID.
+     * Creates packages of cards and makes them available for buying. Every package gets a new package ID, the
+     * cards of all packages are written with multi-row inserts.
      *
-     * @return The next available package ID.
+     * @param packages The cards of every package.
+     * @throws InvalidPackageException If a card already exists. No package is created in this case once the
+     *                                 caller rolls back the transaction.
      */
-    public int getNextPackageId()
-            throws DatabaseTransactionException {
-        Integer nextPackageId = CardRepository.getInstance().findNextPackageId();
-        if (nextPackageId == null) {
-            return 1;
-        } else {
-            return nextPackageId + 1;
+    public void createPackages(List<List<Card>> packages)
+            throws InvalidPackageException, DatabaseTransactionException {
+        CardRepository repository = CardRepository.getInstance();
+        List<Integer> packageIds = repository.nextPackageIds(packages.size());
+
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < packages.size(); i++) {
+            for (Card card : packages.get(i)) {
+                card.setPackageId(packageIds.get(i));
+                cards.add(card);
+            }
+        }
+
+        if (repository.createAll(cards) != cards.size()) {
+            throw new InvalidPackageException("Card already exists.");
         }
+        repository.enqueuePackages(packageIds);
     }
 
     /**
-     * Retrieves a package of cards with the required size (currently set to 5 cards).
+     * Claims the next available package for the user, who becomes the owner of its cards.
      *
+     * @param user The user buying the package.
      * @return A list of cards representing the package.
-     * @throws InvalidPackageException If the package size is not as expected.
+     * @throws InvalidPackageException If no package is available.
      */
-    public List<Card> getPackage()
+    public List<Card> claimPackage(User user)
             throws InvalidPackageException, DatabaseTransactionException {
-        List<Card> cards = CardRepository.getInstance().findAvailablePackage()
-                .stream()
-                .flatMap(Optional::stream)
-                .toList();
-
-        if (cards.size() != 5) {
-            log.warn("Invalid package size. Expected 5 cards, but found {} cards.", cards.size());
-            throw new InvalidPackageException("Invalid package size. Expected 5 cards.");
+        List<Card> cards = CardRepository.getInstance().claimAvailablePackage(user);
+        if (cards.isEmpty()) {
+            throw new InvalidPackageException("No package available.");
         }
+        cards.forEach(CardCatalog.getInstance()::add);
         return cards;
     }
 
     /**
-     * Updates the owner of a card to a new user.
+     * Looks up the definitions of the cards in the {@link CardCatalog}, reading the missing cards with a single
+     * query.
      *
-     * @param card The card whose owner needs to be updated.
-     * @param user The new owner of the card.
+     * @param uuids The UUIDs of the cards.
+     * @return The definitions by card UUID.
      */
-    public void updateOwner(Card card, User user)
+    private Map<UUID, CardDefinition> getDefinitions(Collection<UUID> uuids)
             throws DatabaseTransactionException {
-        CardRepository.getInstance().updateOwner(card, user);
+        CardCatalog catalog = CardCatalog.getInstance();
+        Map<UUID, CardDefinition> definitions = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            CardDefinition definition = catalog.get(uuid);
+            if (definition == null) {
+                missing.add(uuid);
+            } else {
+                definitions.put(uuid, definition);
+            }
+        }
+        for (Card card : CardRepository.getInstance().findAllById(missing)) {
+            definitions.put(card.getUuid(), catalog.add(card));
+        }
+        return definitions;
+    }
+
+    private static List<Card> toCards(List<UUID> uuids, Map<UUID, CardDefinition> definitions, UUID ownerUuid) {
+        List<Card> cards = new ArrayList<>(uuids.size());
+        for (UUID uuid : uuids) {
+            CardDefinition definition = definitions.get(uuid);
+            if (definition != null) {
+                cards.add(definition.toCard(ownerUuid));
+            }
+        }
+        return cards;
     }
 
     /**
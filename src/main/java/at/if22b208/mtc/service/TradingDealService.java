@@ -1,10 +1,13 @@
 package at.if22b208.mtc.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import at.if22b208.mtc.entity.Card;
 import at.if22b208.mtc.entity.TradingDeal;
+import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.DatabaseTransactionException;
 import at.if22b208.mtc.exception.InvalidTradingDealException;
 import at.if22b208.mtc.repository.TradingDealRepository;
@@ -42,6 +45,20 @@ public class TradingDealService implements Service<TradingDeal, UUID> {
                 .orElse(null);
     }
 
+    public boolean isAnyCardLocked(Collection<UUID> cardUuids)
+            throws DatabaseTransactionException {
+        return TradingDealRepository.getInstance().existsByCardUuids(cardUuids);
+    }
+
+    public void carryOut(TradingDeal deal, Card offeredCard, User buyer)
+            throws InvalidTradingDealException, DatabaseTransactionException {
+        int transferred = TradingDealRepository.getInstance()
+                .carryOut(deal.getUuid(), offeredCard.getUuid(), buyer.getUuid());
+        if (transferred != 2) {
+            throw new InvalidTradingDealException("Trading deal could not be carried out.");
+        }
+    }
+
     public void deleteById(UUID uuid)
             throws DatabaseTransactionException {
         TradingDealRepository.getInstance().delete(uuid);
@@ -2,10 +2,14 @@ package at.if22b208.mtc.service;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import at.if22b208.mtc.cache.CacheMetrics;
 import at.if22b208.mtc.entity.Card;
 import at.if22b208.mtc.entity.User;
 import at.if22b208.mtc.exception.BalanceTransactionException;
@@ -32,6 +36,17 @@ public class UserService implements Service<User, UUID> {
                 .toList();
     }
 
+    /**
+     * Passes all users to the consumer, highest ELO rating first, while they are read, without loading the
+     * complete user table at once.
+     *
+     * @param consumer The consumer receiving the users.
+     */
+    public void forEachByElo(Consumer<User> consumer)
+            throws DatabaseTransactionException {
+        UserRepository.getInstance().streamAllByElo(consumer);
+    }
+
     @Override
     public User getById(UUID uuid)
             throws DatabaseTransactionException {
@@ -76,11 +91,45 @@ public class UserService implements Service<User, UUID> {
         }
     }
 
+    /**
+     * Stores a new password hash of the user, along with the iterations it was computed with.
+     *
+     * @param user The user with the new password hash.
+     */
+    public void updatePassword(User user)
+            throws DatabaseTransactionException {
+        UserRepository.getInstance().updatePassword(user);
+    }
+
     public void updateElo(User user)
             throws DatabaseTransactionException {
         UserRepository.getInstance().updateElo(user);
     }
 
+    /**
+     * Locks the user until the end of the transaction and reads the committed ELO rating.
+     *
+     * @param user The user to lock.
+     * @return The ELO rating.
+     * @see UserRepository#lockElo(User)
+     */
+    public int lockElo(User user)
+            throws DatabaseTransactionException {
+        return UserRepository.getInstance().lockElo(user);
+    }
+
+    /**
+     * Persists the ELO rating of the user and adds to the wins and losses counts, e.g. after a battle.
+     *
+     * @param user   The user with the updated ELO rating.
+     * @param wins   The number of wins to add.
+     * @param losses The number of losses to add.
+     */
+    public void updateStats(User user, int wins, int losses)
+            throws DatabaseTransactionException {
+        UserRepository.getInstance().updateStats(user, wins, losses);
+    }
+
     public void updateLoss(User user, BigInteger amount, BalanceOperation operation)
             throws BalanceTransactionException {
         try {
@@ -105,10 +154,41 @@ public class UserService implements Service<User, UUID> {
         }
     }
 
+    /**
+     * Retrieves a user by UUID, including the cards of the deck.
+     *
+     * @param uuid The UUID of the user.
+     * @return The user with the deck loaded, or {@code null} if not found.
+     */
+    public User getByIdWithDeck(UUID uuid)
+            throws DatabaseTransactionException {
+        User user = getById(uuid);
+        if (user != null) {
+            loadDecks(List.of(user));
+        }
+        return user;
+    }
+
     public List<Card> getDeckByOwner(User user)
             throws DatabaseTransactionException {
-        Optional<User> optional = UserRepository.getInstance().findByUsername(user.getUsername());
-        return optional.map(User::getDeck).orElse(new ArrayList<>());
+        if (user.getDeck() == null) {
+            loadDecks(List.of(user));
+        }
+        return user.getDeck();
+    }
+
+    /**
+     * Loads the deck cards of all given users with a single query.
+     *
+     * @param users The users whose decks are loaded.
+     */
+    public void loadDecks(Collection<User> users)
+            throws DatabaseTransactionException {
+        List<UUID> uuids = users.stream().map(User::getUuid).toList();
+        Map<UUID, List<Card>> decks = CardService.getInstance().getDecksByOwners(uuids);
+        for (User user : users) {
+            user.setDeck(decks.getOrDefault(user.getUuid(), new ArrayList<>()));
+        }
     }
 
     public void updateDeck(User user)
@@ -124,6 +204,15 @@ public class UserService implements Service<User, UUID> {
         UserRepository.getInstance().updateUserData(user);
     }
 
+    /**
+     * Gets a snapshot of the usage of the user cache.
+     *
+     * @return The cache metrics.
+     */
+    public CacheMetrics getCacheMetrics() {
+        return UserRepository.getInstance().getCacheMetrics();
+    }
+
     public static synchronized UserService getInstance() {
         if (INSTANCE == null) {
             INSTANCE = new UserService();
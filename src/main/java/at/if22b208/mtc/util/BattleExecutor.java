@@ -0,0 +1,104 @@
+package at.if22b208.mtc.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import at.if22b208.mtc.config.BattleConstants;
+
+/**
+ * Simulates battles on a dedicated, bounded pool of threads.
+ *
+ * <p>Battles used to be simulated on the request thread of the player completing a pair, while that thread held
+ * an open transaction. Instead, battles are submitted to this executor and their results are handed back through
+ * futures, so request threads only wait for the result. At most {@code threads} battles run and
+ * {@code queueSize} battles wait at a time; a battle submitted beyond that fails right away with a
+ * {@link RejectedExecutionException}.</p>
+ */
+public class BattleExecutor {
+    private static BattleExecutor INSTANCE;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+
+    BattleExecutor(int threads, int queueSize) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "battle-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs the task on a battle thread.
+     *
+     * @param task The task, e.g. simulating and persisting a battle.
+     * @param <T>  The type of the result.
+     * @return The future completed with the result of the task, or exceptionally with the exception thrown by the
+     * task or with a {@link RejectedExecutionException} if all battle threads are busy and the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.rejected.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the number of battles waiting for a battle thread.
+     *
+     * @return The queue depth.
+     */
+    public int getQueued() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * Gets the number of battles rejected because the queue was full.
+     *
+     * @return The number of rejected battles.
+     */
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BattleExecutor(threads=" + this.executor.getMaximumPoolSize() + ", active=" +
+                this.executor.getActiveCount() + ", queued=" + getQueued() + ", rejected=" + getRejected() + ")";
+    }
+
+    /**
+     * Gets the singleton instance of the {@code BattleExecutor}.
+     *
+     * @return The singleton instance of the {@code BattleExecutor}.
+     */
+    public static synchronized BattleExecutor getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new BattleExecutor(
+                    Integer.getInteger(BattleConstants.BATTLE_THREADS_PROPERTY,
+                            BattleConstants.DEFAULT_BATTLE_THREADS),
+                    Integer.getInteger(BattleConstants.BATTLE_QUEUE_SIZE_PROPERTY,
+                            BattleConstants.DEFAULT_BATTLE_QUEUE_SIZE));
+        }
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,116 @@
+package at.if22b208.mtc.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import at.if22b208.mtc.config.HashingConstants;
+import at.if22b208.mtc.exception.HashingException;
+import at.if22b208.mtc.exception.HashingRejectedException;
+
+/**
+ * Computes password hashes on a dedicated, bounded pool of threads.
+ *
+ * <p>A hash takes tens of milliseconds of CPU time. Computing it on the request threads lets a burst of logins
+ * occupy all workers and stall every other route. Instead, the request thread hands the hash to this executor
+ * and waits for it. At most {@code threads} hashes are computed and {@code queueSize} hashes wait at a time; a
+ * hash submitted beyond that is rejected right away, so at most {@code threads + queueSize} request threads
+ * are blocked by hashing.</p>
+ */
+public class HashingExecutor {
+    private static HashingExecutor INSTANCE;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+
+    HashingExecutor(int threads, int queueSize) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hashes the plain text with PBKDF2 on a hashing thread, waiting for the result.
+     *
+     * @param plain      The plain text to be hashed.
+     * @param salt       The salt used for hashing.
+     * @param iterations The number of iterations.
+     * @return The hashed value as a Base64-encoded string.
+     * @throws HashingException         If an error occurs during the hashing process.
+     * @throws HashingRejectedException If all hashing threads are busy and the queue is full.
+     * @see HashingUtils#hash(String, String, int)
+     */
+    public String hash(String plain, String salt, int iterations)
+            throws HashingException, HashingRejectedException {
+        Future<String> future;
+        try {
+            future = this.executor.submit(() -> HashingUtils.hash(plain, salt, iterations));
+        } catch (RejectedExecutionException e) {
+            this.rejected.increment();
+            throw new HashingRejectedException("Password hashing queue is full.");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashingException("Interrupted while waiting for hashing process", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HashingException hashingException) {
+                throw hashingException;
+            }
+            throw new HashingException("Error during hashing process", e.getCause());
+        }
+    }
+
+    /**
+     * Gets the number of hashes waiting for a hashing thread.
+     *
+     * @return The queue depth.
+     */
+    public int getQueued() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * Gets the number of hashes rejected because the queue was full.
+     *
+     * @return The number of rejected hashes.
+     */
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "HashingExecutor(threads=" + this.executor.getMaximumPoolSize() + ", active=" + this.executor.getActiveCount() +
+                ", queued=" + getQueued() + ", rejected=" + getRejected() + ")";
+    }
+
+    /**
+     * Gets the singleton instance of the {@code HashingExecutor}.
+     *
+     * @return The singleton instance of the {@code HashingExecutor}.
+     */
+    public static synchronized HashingExecutor getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new HashingExecutor(
+                    Integer.getInteger(HashingConstants.HASHING_THREADS_PROPERTY,
+                            HashingConstants.DEFAULT_HASHING_THREADS),
+                    Integer.getInteger(HashingConstants.HASHING_QUEUE_SIZE_PROPERTY,
+                            HashingConstants.DEFAULT_HASHING_QUEUE_SIZE));
+        }
+        return INSTANCE;
+    }
+}
@@ -2,18 +2,19 @@ package at.if22b208.mtc.util;
 
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 import java.util.Base64;
 
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+import at.if22b208.mtc.config.HashingConstants;
 import at.if22b208.mtc.exception.HashingException;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * The {@code HashingUtils} class provides utility methods for hashing and generating salts.
- * It uses the PBKDF2 algorithm with HMAC SHA-256 for password hashing.
+ * It uses the PBKDF2 algorithm with HMAC SHA-1 for password hashing. Hashes are computed on the calling thread;
+ * request threads hash through the {@link HashingExecutor}.
  * <p>
  * Note: This class is a simplified example for educational purposes. In a production environment,
  * it's recommended to use a secure hashing algorithm like BCrypt and store the salt securely (and randomize it).
@@ -36,31 +37,74 @@ import lombok.extern.slf4j.Slf4j;
 public class HashingUtils {
     private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
 
+    private static final int ITERATIONS = Integer.getInteger(HashingConstants.ITERATIONS_PROPERTY,
+            HashingConstants.DEFAULT_ITERATIONS);
+
+    /**
+     * The key factory of the current thread, looking up the provider on every hash is comparatively expensive.
+     */
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = new ThreadLocal<>();
+
     private HashingUtils() {
         throw new UnsupportedOperationException();
     }
 
     /**
-     * Hashes the provided plain text using PBKDF2 with HMAC SHA-256.
+     * Gets the number of iterations new password hashes are computed with.
+     *
+     * @return The number of iterations.
+     */
+    public static int getIterations() {
+        return ITERATIONS;
+    }
+
+    /**
+     * Hashes the provided plain text using PBKDF2 with the current number of iterations.
      *
      * @param plain The plain text to be hashed.
      * @param salt  The salt used for hashing.
      * @return The hashed value as a Base64-encoded string.
      * @throws HashingException If an error occurs during the hashing process.
+     * @see #getIterations()
      */
     public static String hash(String plain, String salt)
             throws HashingException {
+        return hash(plain, salt, ITERATIONS);
+    }
+
+    /**
+     * Hashes the provided plain text using PBKDF2 with HMAC SHA-1.
+     *
+     * @param plain      The plain text to be hashed.
+     * @param salt       The salt used for hashing.
+     * @param iterations The number of iterations.
+     * @return The hashed value as a Base64-encoded string.
+     * @throws HashingException If an error occurs during the hashing process.
+     */
+    public static String hash(String plain, String salt, int iterations)
+            throws HashingException {
+        PBEKeySpec spec = new PBEKeySpec(plain.toCharArray(), salt.getBytes(), iterations, 128);
         try {
-            KeySpec spec = new PBEKeySpec(plain.toCharArray(), salt.getBytes(), 65536, 128);
-            SecretKeyFactory f = SecretKeyFactory.getInstance(ALGORITHM);
-            byte[] hash = f.generateSecret(spec).getEncoded();
+            byte[] hash = getFactory().generateSecret(spec).getEncoded();
 
             Base64.Encoder encoder = Base64.getEncoder();
             return encoder.encodeToString(hash);
         } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
             // Log or handle the exception as needed
             throw new HashingException("Error during hashing process", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static SecretKeyFactory getFactory()
+            throws NoSuchAlgorithmException {
+        SecretKeyFactory factory = FACTORY.get();
+        if (factory == null) {
+            factory = SecretKeyFactory.getInstance(ALGORITHM);
+            FACTORY.set(factory);
         }
+        return factory;
     }
 
     /**
@@ -1,10 +1,14 @@
 package at.if22b208.mtc.util;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -51,6 +55,24 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * Deserializes a JSON array of arrays to a list of lists of objects of the specified type.
+     *
+     * @param <T>  The type of the elements in the inner lists.
+     * @param json The JSON string to deserialize.
+     * @param type The class representing the target type.
+     * @return A list of lists of objects of the specified type.
+     */
+    public static <T> List<List<T>> getNestedListFromJsonString(String json, Class<T> type) {
+        TypeFactory typeFactory = mapper.getTypeFactory();
+        try {
+            return mapper.readValue(json, typeFactory.constructCollectionType(List.class,
+                    typeFactory.constructCollectionType(List.class, type)));
+        } catch (JsonProcessingException e) {
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Serializes an object to a JSON string.
      *
@@ -66,6 +88,18 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * Creates a generator writing JSON to the writer, e.g. to serialize elements one at a time.
+     *
+     * @param writer The writer receiving the JSON.
+     * @return The generator.
+     * @throws IOException If the generator cannot be created.
+     */
+    public static JsonGenerator createGenerator(Writer writer)
+            throws IOException {
+        return mapper.createGenerator(writer);
+    }
+
     /**
      * Serializes an array to a JSON string.
      *
@@ -0,0 +1,82 @@
+package at.if22b208.mtc.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import at.if22b208.mtc.config.MetricsConstants;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically writes the metrics of the registered components to the log, one line per component.
+ *
+ * <p>Components register a supplier of their current metrics under a name; the {@code toString} of the supplied
+ * metrics is logged every {@code mtc.metrics.interval-seconds} seconds once the reporter has been started.</p>
+ */
+@Slf4j
+public class MetricsReporter {
+    private static MetricsReporter INSTANCE;
+
+    private final Map<String, Supplier<?>> sources = new ConcurrentSkipListMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private MetricsReporter() {
+        // Private constructor to ensure singleton pattern.
+    }
+
+    /**
+     * Registers a component, replacing a component registered under the same name.
+     *
+     * @param name    The name the metrics are logged with.
+     * @param metrics The supplier of the current metrics.
+     */
+    public void register(String name, Supplier<?> metrics) {
+        this.sources.put(name, metrics);
+    }
+
+    /**
+     * Starts reporting with the interval configured by {@value MetricsConstants#REPORT_INTERVAL_PROPERTY}.
+     */
+    public synchronized void start() {
+        long interval = Integer.getInteger(MetricsConstants.REPORT_INTERVAL_PROPERTY,
+                MetricsConstants.DEFAULT_REPORT_INTERVAL_SECONDS);
+        if (this.scheduler != null || interval <= 0) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::report, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the current metrics of all registered components to the log.
+     */
+    public void report() {
+        this.sources.forEach((name, metrics) -> {
+            try {
+                log.info("{}: {}", name, metrics.get());
+            } catch (RuntimeException e) {
+                log.warn("Could not collect {} metrics: {}", name, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Gets the singleton instance of the {@code MetricsReporter}.
+     *
+     * @return The singleton instance of the {@code MetricsReporter}.
+     */
+    public static synchronized MetricsReporter getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new MetricsReporter();
+        }
+        return INSTANCE;
+    }
+}
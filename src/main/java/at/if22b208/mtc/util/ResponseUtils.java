@@ -99,6 +99,16 @@ public class ResponseUtils {
         return new Response(HttpStatus.OK, type, message);
     }
 
+    /**
+     * Creates a response indicating that the server is temporarily overloaded (HTTP status 503).
+     *
+     * @param message The message to include in the response body.
+     * @return A response indicating that the service is unavailable.
+     */
+    public static Response serviceUnavailable(String message) {
+        return new Response(HttpStatus.SERVICE_UNAVAILABLE, ContentType.PLAIN_TEXT, message);
+    }
+
     /**
      * Creates a response indicating unauthorized access (HTTP status 401).
      *
@@ -1,7 +1,10 @@
 package at.if22b208.mtc.util;
 
+import java.util.Optional;
+
 import at.if22b208.mtc.server.http.Header;
 import at.if22b208.mtc.server.session.SessionManager;
+import at.if22b208.mtc.server.session.UserSession;
 
 /**
  * Utility class for working with user sessions and authorization.
@@ -10,26 +13,18 @@ import at.if22b208.mtc.server.session.SessionManager;
  */
 public class SessionUtils {
     /**
-     * Checks if the request is authorized based on the presence of a valid Bearer token in the authorization header.
-     *
-     * @param header The HTTP request header.
-     * @return {@code true} if the request is authorized; {@code false} otherwise.
-     */
-    public static boolean isAuthorized(Header header) {
-        String authorization = header.getHeader("Authorization");
-        return authorization != null && authorization.startsWith("Bearer ")
-                && SessionManager.isValidSession(authorization);
-    }
-
-    /**
-     * Retrieves the username from the Authorization header in the Bearer token.
+     * Looks up the session identified by the Bearer token in the authorization header. A request is authorized
+     * if and only if a session is returned.
      *
      * @param header The HTTP request header.
-     * @return The username extracted from the Bearer token, or {@code null} if not present or invalid.
+     * @return The valid session, or an empty optional if the token is missing, unknown or expired.
      */
-    public static String getUsernameFromHeader(Header header) {
+    public static Optional<UserSession> getSession(Header header) {
         String token = SessionUtils.getBearerToken(header);
-        return SessionUtils.getUsernameFromUserSession(token);
+        if (token == null) {
+            return Optional.empty();
+        }
+        return SessionManager.getInstance().getSession(token);
     }
 
     /**
@@ -46,17 +41,4 @@ public class SessionUtils {
         }
         return null;
     }
-
-    /**
-     * Retrieves the username associated with the user session identified by the provided token.
-     *
-     * @param token The Bearer token.
-     * @return The username associated with the user session, or {@code null} if the session is not valid.
-     */
-    private static String getUsernameFromUserSession(String token) {
-        if (!SessionManager.isValidSession(token)) {
-            return null;
-        }
-        return SessionManager.getUserSession(token).getUsername();
-    }
 }
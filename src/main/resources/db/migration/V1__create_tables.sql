@@ -28,4 +28,4 @@ CREATE TABLE IF NOT EXISTS mtc.public.trading_deal
     card_uuid   uuid REFERENCES mtc.public.card (uuid) NOT NULL,
     card_type   varchar                                NOT NULL,
     card_damage float8 default 0                       NOT NULL
-);
\ No newline at end of file
+);
@@ -0,0 +1,31 @@
+-- Stores every deck slot as a row instead of the JSON encoded user.deck column.
+
+CREATE TABLE IF NOT EXISTS mtc.public.deck_card
+(
+    user_uuid uuid REFERENCES mtc.public.user (uuid) ON DELETE CASCADE NOT NULL,
+    card_uuid uuid REFERENCES mtc.public.card (uuid)                    NOT NULL,
+    slot      int2                                                      NOT NULL,
+    PRIMARY KEY (user_uuid, slot),
+    UNIQUE (card_uuid)
+);
+
+-- Databases already migrated by hand no longer have the deck column
+DO
+$$
+    BEGIN
+        IF EXISTS (SELECT 1
+                   FROM information_schema.columns
+                   WHERE table_schema = 'public'
+                     AND table_name = 'user'
+                     AND column_name = 'deck') THEN
+            INSERT INTO mtc.public.deck_card (user_uuid, card_uuid, slot)
+            SELECT u.uuid, deck.card_uuid::uuid, deck.slot - 1
+            FROM mtc.public.user u
+                     CROSS JOIN LATERAL json_array_elements_text(u.deck::json) WITH ORDINALITY AS deck (card_uuid, slot)
+            WHERE u.deck IS NOT NULL
+            ON CONFLICT DO NOTHING;
+
+            ALTER TABLE mtc.public.user DROP COLUMN deck;
+        END IF;
+    END
+$$;
@@ -0,0 +1,27 @@
+-- Secondary indexes for the lookups executed per request.
+
+-- UserRepository.findByUsername, executed for every authorized request
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM pg_constraint
+                       WHERE conname = 'user_username_key'
+                         AND conrelid = 'mtc.public.user'::regclass) THEN
+            ALTER TABLE mtc.public.user
+                ADD CONSTRAINT user_username_key UNIQUE (username);
+        END IF;
+    END
+$$;
+
+-- CardRepository.findUuidsByOwner
+CREATE INDEX IF NOT EXISTS card_user_uuid_idx ON mtc.public.card (user_uuid);
+
+-- CardRepository.claimAvailablePackage transfers the cards of the claimed package
+CREATE INDEX IF NOT EXISTS card_package_id_idx ON mtc.public.card (package_id);
+
+-- Cards nobody owns yet, read when V4__available_package.sql fills the package queue
+CREATE INDEX IF NOT EXISTS card_unowned_package_id_idx ON mtc.public.card (package_id) WHERE user_uuid IS NULL;
+
+-- TradingDealRepository.existsByCardUuids checks whether cards are locked in a trading deal
+CREATE INDEX IF NOT EXISTS trading_deal_card_uuid_idx ON mtc.public.trading_deal (card_uuid);
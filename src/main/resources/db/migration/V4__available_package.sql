@@ -0,0 +1,15 @@
+-- Queue of the packages that can be bought, claimed with FOR UPDATE SKIP LOCKED.
+
+CREATE TABLE IF NOT EXISTS mtc.public.available_package
+(
+    package_id int4 PRIMARY KEY NOT NULL,
+    created_at timestamptz default now() NOT NULL
+);
+
+INSERT INTO mtc.public.available_package (package_id)
+SELECT package_id
+FROM mtc.public.card
+GROUP BY package_id
+HAVING COUNT(*) = 5
+   AND COUNT(user_uuid) = 0
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,5 @@
+-- Package ids are taken from a sequence instead of MAX(package_id) + 1.
+
+CREATE SEQUENCE IF NOT EXISTS mtc.public.package_id_seq AS int4;
+
+SELECT setval('mtc.public.package_id_seq', COALESCE((SELECT MAX(package_id) FROM mtc.public.card), 0) + 1, false);
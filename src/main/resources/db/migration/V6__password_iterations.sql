@@ -0,0 +1,4 @@
+-- The PBKDF2 iteration count is stored per user, so it can be raised without invalidating existing passwords.
+-- Existing hashes were computed with 65536 iterations.
+
+ALTER TABLE mtc.public.user ADD COLUMN IF NOT EXISTS password_iterations int4 NOT NULL DEFAULT 65536;
@@ -0,0 +1,11 @@
+-- The rounds of every battle in the binary form of BattleLog, fetched on demand with GET /battles/{id}/log.
+
+CREATE TABLE IF NOT EXISTS mtc.public.battle_log
+(
+    uuid       uuid PRIMARY KEY                                         NOT NULL,
+    player_a   uuid REFERENCES mtc.public.user (uuid) ON DELETE CASCADE NOT NULL,
+    player_b   uuid REFERENCES mtc.public.user (uuid) ON DELETE CASCADE NOT NULL,
+    winner     uuid,
+    rounds     bytea                                                    NOT NULL,
+    created_at timestamptz default now()                                NOT NULL
+);
@@ -0,0 +1,116 @@
+package at.if22b208.mtc.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import at.if22b208.mtc.entity.Battle;
+import at.if22b208.mtc.entity.BattleKernel;
+import at.if22b208.mtc.entity.Card;
+import at.if22b208.mtc.entity.User;
+
+/**
+ * Measures battles per second on a single thread, i.e. per core, between random decks of four cards.
+ *
+ * <p>{@code battle} runs a complete {@link Battle} including the conversion of the decks and rounds from and to
+ * objects, {@code kernel} only the rounds fought by the {@link BattleKernel}:</p>
+ * <pre>
+ * {@code
+ * java -cp target/test-classes:<test classpath> at.if22b208.mtc.benchmark.BattleBenchmark
+ * }
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(1)
+@Fork(1)
+public class BattleBenchmark {
+    private static final String[] NAMES = {
+            "WaterGoblin", "FireGoblin", "RegularGoblin", "Dragon", "FireElf", "Ork", "Wizard", "Knight", "Kraken",
+            "WaterSpell", "FireSpell", "RegularSpell"
+    };
+
+    private static final int DECKS = 1024;
+
+    private final Random random = new Random(42);
+
+    private final BattleKernel kernel = new BattleKernel();
+
+    private final UUID playerA = UUID.randomUUID();
+
+    private final UUID playerB = UUID.randomUUID();
+
+    private List<List<Card>> decksA;
+
+    private List<List<Card>> decksB;
+
+    private int next;
+
+    public static void main(String[] args)
+            throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BattleBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        this.decksA = new ArrayList<>();
+        this.decksB = new ArrayList<>();
+        for (int i = 0; i < DECKS; i++) {
+            this.decksA.add(deck(this.playerA));
+            this.decksB.add(deck(this.playerB));
+        }
+    }
+
+    @Benchmark
+    public Battle battle() {
+        int i = this.next++ & (DECKS - 1);
+        Battle battle = new Battle();
+        battle.setPlayerA(User.builder().uuid(this.playerA).deck(this.decksA.get(i)).build());
+        battle.setPlayerB(User.builder().uuid(this.playerB).deck(this.decksB.get(i)).build());
+        battle.battle(this.random);
+        return battle;
+    }
+
+    @Benchmark
+    public int kernel() {
+        int i = this.next++ & (DECKS - 1);
+        this.kernel.load(this.playerA, this.decksA.get(i), this.playerB, this.decksB.get(i));
+        return this.kernel.fight(this.random);
+    }
+
+    private List<Card> deck(UUID owner) {
+        List<Card> deck = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            deck.add(Card.builder()
+                    .uuid(UUID.randomUUID())
+                    .name(NAMES[this.random.nextInt(NAMES.length)])
+                    .damage(5 + this.random.nextInt(20) * 5)
+                    .userUuid(owner)
+                    .build());
+        }
+        return deck;
+    }
+}
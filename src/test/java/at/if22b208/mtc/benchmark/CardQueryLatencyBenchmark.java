@@ -0,0 +1,157 @@
+package at.if22b208.mtc.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import at.if22b208.mtc.database.Database;
+import at.if22b208.mtc.database.MigrationRunner;
+import at.if22b208.mtc.database.Transaction;
+import at.if22b208.mtc.entity.User;
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+import at.if22b208.mtc.repository.CardRepository;
+import at.if22b208.mtc.repository.UserRepository;
+import lombok.val;
+
+/**
+ * Measures the latency of the per-request user and card lookups with and without the secondary indexes of
+ * {@code V3__indexes.sql}.
+ *
+ * <p>Requires the database configured in {@link Database}. The benchmark inserts {@code bench.cards} synthetic
+ * cards (default 10,000,000) owned by {@code bench.users} users (default 10,000), one in a hundred packages
+ * left unowned, and removes them afterwards. The queries are measured first with the indexes, then within a
+ * transaction that drops the indexes and is rolled back, e.g.:</p>
+ * <pre>
+ * {@code
+ * java -cp target/test-classes:target/classes:<classpath> at.if22b208.mtc.benchmark.CardQueryLatencyBenchmark
+ * }
+ * </pre>
+ */
+public class CardQueryLatencyBenchmark {
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 200);
+
+    private static final String[] DROP_INDEXES = {
+            "ALTER TABLE public.user DROP CONSTRAINT user_username_key",
+            "DROP INDEX public.card_user_uuid_idx",
+            "DROP INDEX public.card_package_id_idx",
+            "DROP INDEX public.card_unowned_package_id_idx",
+            "DROP INDEX public.trading_deal_card_uuid_idx"
+    };
+
+    private final int users;
+
+    private CardQueryLatencyBenchmark(int users) {
+        this.users = users;
+    }
+
+    public static void main(String[] args)
+            throws Exception {
+        int users = Integer.getInteger("bench.users", 10_000);
+        int cards = Integer.getInteger("bench.cards", 10_000_000);
+
+        Database.getInstance().connect();
+        if (!Database.getInstance().isConnected()) {
+            System.err.println("Not connected to database.");
+            return;
+        }
+        MigrationRunner.getInstance().migrate();
+
+        CardQueryLatencyBenchmark benchmark = new CardQueryLatencyBenchmark(users);
+        try {
+            benchmark.seed(cards);
+            // Every phase runs in a transaction that is rolled back, which also undoes the claimed packages
+            try (Transaction ignored = new Transaction()) {
+                System.out.println("With indexes");
+                benchmark.measureAll();
+            }
+            try (Transaction ignored = new Transaction()) {
+                for (String statement : DROP_INDEXES) {
+                    Database.getInstance().executeUpdateQuery(statement);
+                }
+                System.out.println("Without indexes");
+                benchmark.measureAll();
+                // Closing the transaction without commit restores the indexes
+            }
+        } finally {
+            benchmark.cleanUp();
+            Database.getInstance().close();
+        }
+    }
+
+    private void seed(int cards)
+            throws DatabaseTransactionException {
+        cleanUp();
+        try (Transaction transaction = new Transaction()) {
+            val database = Database.getInstance();
+            database.executeUpdateQuery(
+                    "INSERT INTO public.user (uuid, username, password, balance) " +
+                            "SELECT gen_random_uuid(), 'bench-' || i, 'secret', 20 FROM generate_series(1, ?) AS i",
+                    this.users);
+            database.executeUpdateQuery(
+                    "WITH owners AS (SELECT array_agg(uuid) AS uuids FROM public.user WHERE username LIKE 'bench-%'), " +
+                            "base AS (SELECT COALESCE(MAX(package_id), 0) AS package_id FROM public.card) " +
+                            "INSERT INTO public.card (uuid, name, damage, user_uuid, package_id) " +
+                            "SELECT gen_random_uuid(), 'bench-' || i, i % 100, " +
+                            "CASE WHEN (i / 5) % 100 = 0 THEN NULL ELSE owners.uuids[1 + (i / 5) % ?] END, " +
+                            "base.package_id + 1 + i / 5 " +
+                            "FROM generate_series(0, ? - 1) AS i, owners, base",
+                    this.users, cards);
+            database.executeUpdateQuery(
+                    "INSERT INTO public.available_package (package_id) SELECT DISTINCT package_id FROM public.card " +
+                            "WHERE name LIKE 'bench-%' AND user_uuid IS NULL");
+            // Keep the sequence ahead of the seeded packages
+            database.executeSelectQuery(
+                    "SELECT setval('public.package_id_seq', (SELECT MAX(package_id) FROM public.card))");
+            database.executeUpdateQuery("ANALYZE public.user");
+            database.executeUpdateQuery("ANALYZE public.card");
+            transaction.commit();
+        }
+        System.out.printf("Seeded %d users and %d cards%n", this.users, cards);
+    }
+
+    private void cleanUp()
+            throws DatabaseTransactionException {
+        val database = Database.getInstance();
+        database.executeUpdateQuery("DELETE FROM public.available_package WHERE package_id IN " +
+                "(SELECT package_id FROM public.card WHERE name LIKE 'bench-%')");
+        database.executeUpdateQuery("DELETE FROM public.card WHERE name LIKE 'bench-%'");
+        database.executeUpdateQuery("DELETE FROM public.user WHERE username LIKE 'bench-%'");
+    }
+
+    private void measureAll()
+            throws DatabaseTransactionException {
+        User owner = UserRepository.getInstance().findByUsername("bench-1").orElseThrow();
+        measure("findByUsername", () -> UserRepository.getInstance()
+                .findByUsername("bench-" + (1 + ThreadLocalRandom.current().nextInt(this.users))));
+        measure("findUuidsByOwner", () -> CardRepository.getInstance().findUuidsByOwner(owner));
+        measure("claimAvailablePackage", () -> {
+            // Rolled back to the savepoint, so every iteration claims from the same queue
+            Database.getInstance().executeUpdateQuery("SAVEPOINT claim");
+            CardRepository.getInstance().claimAvailablePackage(owner);
+            Database.getInstance().executeUpdateQuery("ROLLBACK TO SAVEPOINT claim");
+        });
+    }
+
+    private void measure(String label, Query query)
+            throws DatabaseTransactionException {
+        // Warm up the statement cache and the buffer cache
+        for (int i = 0; i < 5; i++) {
+            query.run();
+        }
+
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("  %-22s p50=%8.3f ms p99=%8.3f ms%n", label,
+                nanos[ITERATIONS / 2] / 1_000_000.0, nanos[ITERATIONS * 99 / 100] / 1_000_000.0);
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        void run()
+                throws DatabaseTransactionException;
+    }
+}
@@ -0,0 +1,168 @@
+package at.if22b208.mtc.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator comparing the throughput of running servers under a mixed login/cards/battle load.
+ *
+ * <p>Start the application once per configuration to compare, e.g. with
+ * {@code -Dmtc.server.execution=fixed-pool} and {@code -Dmtc.server.execution=per-request} on different ports,
+ * and pass every server as {@code label=baseUrl}:</p>
+ * <pre>
+ * {@code
+ * java -cp target/test-classes at.if22b208.mtc.benchmark.MixedLoadBenchmark \
+ *     fixed=http://localhost:10001 per-request=http://localhost:10002
+ * }
+ * </pre>
+ *
+ * <p>Tunable with the system properties {@code bench.clients} (concurrent clients, default 50),
+ * {@code bench.duration} (seconds per server, default 30) and {@code bench.users} (default 20).
+ * 60% of the operations list cards, 30% log in and 10% enter the battle queue.</p>
+ */
+public class MixedLoadBenchmark {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public static void main(String[] args)
+            throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: MixedLoadBenchmark <label>=<baseUrl> [<label>=<baseUrl> ...]");
+            return;
+        }
+
+        int clients = Integer.getInteger("bench.clients", 50);
+        int seconds = Integer.getInteger("bench.duration", 30);
+        int users = Integer.getInteger("bench.users", 20);
+
+        List<String> report = new ArrayList<>();
+        for (String target : args) {
+            String[] split = target.split("=", 2);
+            MixedLoadBenchmark benchmark = new MixedLoadBenchmark();
+            report.add(benchmark.run(split[0], split[1], clients, seconds, users));
+        }
+
+        System.out.printf("%n%-16s %10s %10s %10s %10s %10s %10s%n",
+                "server", "ops", "ops/s", "p50 ms", "p99 ms", "errors", "timeouts");
+        report.forEach(System.out::println);
+    }
+
+    private String run(String label, String baseUrl, int clients, int seconds, int users)
+            throws Exception {
+        List<String> tokens = prepareUsers(baseUrl, label, users);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < clients; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    runOperation(baseUrl, label, tokens);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        long[] all = this.latencies.values().stream()
+                .flatMap(Queue::stream)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        this.latencies.forEach((operation, values) -> System.out.printf("%s %-8s ops=%d p50=%.1fms%n",
+                label, operation, values.size(), percentile(values.stream().mapToLong(Long::longValue).sorted()
+                        .toArray(), 0.5)));
+
+        return String.format("%-16s %10d %10.1f %10.1f %10.1f %10d %10d", label, all.length,
+                all.length / (double) seconds, percentile(all, 0.5), percentile(all, 0.99), this.errors.get(),
+                this.timeouts.get());
+    }
+
+    private List<String> prepareUsers(String baseUrl, String label, int users)
+            throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String username = "bench-" + label + "-" + i;
+            String credentials = "{\"Username\":\"" + username + "\", \"Password\":\"bench\"}";
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                    .POST(HttpRequest.BodyPublishers.ofString(credentials)));
+            HttpResponse<String> login = send(HttpRequest.newBuilder(URI.create(baseUrl + "/sessions"))
+                    .POST(HttpRequest.BodyPublishers.ofString(credentials)));
+            tokens.add(login.body().replace("\"", ""));
+        }
+        return tokens;
+    }
+
+    private void runOperation(String baseUrl, String label, List<String> tokens) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(tokens.size());
+        int roll = random.nextInt(100);
+
+        String operation;
+        HttpRequest.Builder request;
+        if (roll < 60) {
+            operation = "cards";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/cards")).GET();
+        } else if (roll < 90) {
+            operation = "login";
+            String credentials = "{\"Username\":\"bench-" + label + "-" + index + "\", \"Password\":\"bench\"}";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/sessions"))
+                    .POST(HttpRequest.BodyPublishers.ofString(credentials));
+        } else {
+            operation = "battle";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/battles"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+        request.header("Authorization", "Bearer " + tokens.get(index));
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(request);
+            if (response.statusCode() >= 500) {
+                this.errors.incrementAndGet();
+            }
+            this.latencies.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+        } catch (HttpTimeoutException e) {
+            this.timeouts.incrementAndGet();
+        } catch (Exception e) {
+            this.errors.incrementAndGet();
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request)
+            throws Exception {
+        return this.client.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,72 @@
+package at.if22b208.mtc.benchmark;
+
+import java.security.spec.KeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import at.if22b208.mtc.exception.HashingException;
+import at.if22b208.mtc.util.HashingUtils;
+
+/**
+ * Measures password hashes per second on a single thread, i.e. per core, for several iteration counts.
+ *
+ * <p>Compares {@link HashingUtils} with its thread-local key factory to the former lookup of the key factory
+ * for every hash. Multiply the per-core throughput with {@code mtc.hashing.threads} to size the hashing queue:</p>
+ * <pre>
+ * {@code
+ * java -cp target/test-classes:<test classpath> at.if22b208.mtc.benchmark.PasswordHashingBenchmark
+ * }
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    @Param({"16384", "65536"})
+    public int iterations;
+
+    public static void main(String[] args)
+            throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Benchmark
+    public String threadLocalFactory()
+            throws HashingException {
+        return HashingUtils.hash("daniel", HashingUtils.generateSalt("kienboec"), this.iterations);
+    }
+
+    @Benchmark
+    public String factoryPerHash()
+            throws Exception {
+        KeySpec spec = new PBEKeySpec("daniel".toCharArray(), HashingUtils.generateSalt("kienboec").getBytes(),
+                this.iterations, 128);
+        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
+        return Base64.getEncoder().encodeToString(factory.generateSecret(spec).getEncoded());
+    }
+}
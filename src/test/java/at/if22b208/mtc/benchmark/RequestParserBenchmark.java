@@ -0,0 +1,143 @@
+package at.if22b208.mtc.benchmark;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import at.if22b208.mtc.server.http.Method;
+import at.if22b208.mtc.server.http.Request;
+import at.if22b208.mtc.server.util.RequestParser;
+
+/**
+ * Compares the byte-level {@link RequestParser} with the former reader-based request parsing.
+ *
+ * <p>Run with the {@code -prof gc} option to compare the allocation rate as well:</p>
+ * <pre>
+ * {@code
+ * java -cp target/test-classes:<test classpath> at.if22b208.mtc.benchmark.RequestParserBenchmark
+ * }
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestParserBenchmark {
+    @Param({"login", "package"})
+    public String payload;
+
+    private byte[] bytes;
+
+    private final RequestParser parser = new RequestParser();
+
+    public static void main(String[] args)
+            throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestParserBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        String body = "login".equals(this.payload) ?
+                "{\"Username\":\"kienboec\", \"Password\":\"daniel\"}" :
+                "[{\"Id\":\"845f0dc7-37d0-426e-994e-43fc3ac83c08\", \"Name\":\"WaterGoblin\", \"Damage\": 10.0}, " +
+                        "{\"Id\":\"99f8f8dc-e25e-4a95-aa2c-782823f36e2a\", \"Name\":\"Dragon\", \"Damage\": 50.0}, " +
+                        "{\"Id\":\"e85e3976-7c86-4d06-9a80-641c2019a79f\", \"Name\":\"WaterSpell\", \"Damage\": 20.0}, " +
+                        "{\"Id\":\"1cb6ab86-bdb2-47e5-b6e4-68c5ab389334\", \"Name\":\"Ork\", \"Damage\": 45.0}, " +
+                        "{\"Id\":\"dfdd758f-649c-40f9-ba3a-8657f4b3439f\", \"Name\":\"FireSpell\", \"Damage\": 25.0}]";
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String head = "POST /" + ("login".equals(this.payload) ? "sessions" : "packages") + " HTTP/1.1\r\n" +
+                "Host: localhost:10001\r\n" +
+                "User-Agent: curl/8.4.0\r\n" +
+                "Accept: */*\r\n" +
+                "Content-Type: application/json\r\n" +
+                "Authorization: Bearer admin-mtcgToken\r\n" +
+                "Content-Length: " + content.length + "\r\n" +
+                "\r\n";
+
+        byte[] headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+        this.bytes = new byte[headBytes.length + content.length];
+        System.arraycopy(headBytes, 0, this.bytes, 0, headBytes.length);
+        System.arraycopy(content, 0, this.bytes, headBytes.length, content.length);
+    }
+
+    @Benchmark
+    public Request byteParser() {
+        return this.parser.parse(ByteBuffer.wrap(this.bytes));
+    }
+
+    @Benchmark
+    public String byteParserWithBody() {
+        return this.parser.parse(ByteBuffer.wrap(this.bytes)).getBody();
+    }
+
+    @Benchmark
+    public String readerParser()
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(this.bytes)));
+        return LegacyRequestBuilder.buildRequest(reader).getBody();
+    }
+
+    /**
+     * The request parsing as implemented before the {@link RequestParser}, kept as baseline.
+     */
+    private static final class LegacyRequestBuilder {
+        static Request buildRequest(BufferedReader bufferedReader)
+                throws IOException {
+            Request request = new Request();
+
+            String line = bufferedReader.readLine();
+            String[] splitFirstLine = line.split(" ");
+            request.setMethod(Method.valueOf(splitFirstLine[0].toUpperCase(Locale.ROOT)));
+            request.setUrlContent(splitFirstLine[1]);
+            if (splitFirstLine.length > 2) {
+                request.setVersion(splitFirstLine[2]);
+            }
+
+            line = bufferedReader.readLine();
+            while (line != null && !line.isEmpty()) {
+                request.getHeader().ingest(line);
+                line = bufferedReader.readLine();
+            }
+
+            int contentLength = request.getHeader().getContentLength();
+            if (contentLength > 0) {
+                char[] charBuffer = new char[contentLength];
+                int read = 0;
+                while (read < contentLength) {
+                    int count = bufferedReader.read(charBuffer, read, contentLength - read);
+                    if (count < 0) {
+                        break;
+                    }
+                    read += count;
+                }
+                request.setBody(new String(charBuffer, 0, read));
+            }
+            return request;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package at.if22b208.mtc.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import at.if22b208.mtc.database.Database;
+import at.if22b208.mtc.database.Result;
+import at.if22b208.mtc.database.Row;
+import at.if22b208.mtc.database.Transaction;
+import at.if22b208.mtc.entity.User;
+import at.if22b208.mtc.exception.DatabaseTransactionException;
+import at.if22b208.mtc.repository.UserRepository;
+
+/**
+ * Compares the peak heap usage of reading the whole user table materialized and streamed.
+ *
+ * <p>Requires the database configured in {@link Database}. The benchmark inserts {@code bench.users} synthetic
+ * users (default 1,000,000, usernames prefixed with {@code bench-}) and removes them afterwards. Run with a heap
+ * large enough for the materialized variant, e.g.:</p>
+ * <pre>
+ * {@code
+ * java -Xmx4g -cp target/test-classes:target/classes:<classpath> at.if22b208.mtc.benchmark.UserStreamingMemoryBenchmark
+ * }
+ * </pre>
+ */
+public class UserStreamingMemoryBenchmark {
+    private static final String USER_COLUMNS =
+            "uuid, username, password, balance, name, biography, image, elo, wins, losses";
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args)
+            throws Exception {
+        int users = Integer.getInteger("bench.users", 1_000_000);
+
+        Database.getInstance().connect();
+        if (!Database.getInstance().isConnected()) {
+            System.err.println("Not connected to database.");
+            return;
+        }
+
+        UserStreamingMemoryBenchmark benchmark = new UserStreamingMemoryBenchmark();
+        try {
+            benchmark.seed(users);
+            benchmark.measure("materialized result", benchmark::readMaterialized);
+            benchmark.measure("mapped while fetched", benchmark::readMapped);
+            benchmark.measure("streamed by elo", benchmark::readStreamed);
+        } finally {
+            benchmark.cleanUp();
+            Database.getInstance().close();
+        }
+    }
+
+    private void seed(int users)
+            throws DatabaseTransactionException {
+        cleanUp();
+        try (Transaction transaction = new Transaction()) {
+            Database.getInstance().executeUpdateQuery(
+                    "INSERT INTO public.user (" + USER_COLUMNS + ") " +
+                            "SELECT gen_random_uuid(), 'bench-' || i, 'secret', 20, 'Bench ' || i, " +
+                            "'Generated for benchmarking', ':-)', 1000 + i % 500, i % 50, i % 40 " +
+                            "FROM generate_series(1, ?) AS i", users);
+            transaction.commit();
+        }
+        System.out.printf("Seeded %d users%n", users);
+    }
+
+    private void cleanUp()
+            throws DatabaseTransactionException {
+        Database.getInstance().executeUpdateQuery("DELETE FROM public.user WHERE username LIKE 'bench-%'");
+    }
+
+    /**
+     * Reads the user table the way {@code findAll} did before streaming: all rows first, then all users.
+     */
+    private long readMaterialized()
+            throws DatabaseTransactionException {
+        Result result = Database.getInstance().executeSelectQuery("SELECT " + USER_COLUMNS + " FROM public.user");
+        List<User> users = new ArrayList<>(result.size());
+        for (Row row : result) {
+            users.add(User.builder()
+                    .uuid(row.getUuid("uuid"))
+                    .username(row.getString("username"))
+                    .password(row.getString("password"))
+                    .name(row.getString("name"))
+                    .biography(row.getString("biography"))
+                    .image(row.getString("image"))
+                    .elo(row.getInt("elo"))
+                    .wins(row.getInt("wins"))
+                    .losses(row.getInt("losses"))
+                    .build());
+        }
+        return users.size();
+    }
+
+    private long readMapped()
+            throws DatabaseTransactionException {
+        return UserRepository.getInstance().findAll().size();
+    }
+
+    private long readStreamed()
+            throws DatabaseTransactionException {
+        AtomicLong eloSum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+        UserRepository.getInstance().streamAllByElo(user -> {
+            eloSum.addAndGet(user.getElo());
+            count.incrementAndGet();
+        });
+        return count.get();
+    }
+
+    private void measure(String label, Variant variant)
+            throws Exception {
+        System.gc();
+        long baseline = this.memory.getHeapMemoryUsage().getUsed();
+
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(this.memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        long rows = variant.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        sampler.interrupt();
+        sampler.join();
+
+        System.out.printf("%-22s rows=%d time=%d ms peak heap above baseline=%d MB%n",
+                label, rows, millis, (peak.get() - baseline) / (1024 * 1024));
+    }
+
+    @FunctionalInterface
+    private interface Variant {
+        long run()
+                throws DatabaseTransactionException;
+    }
+}
@@ -0,0 +1,95 @@
+package at.if22b208.mtc.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.UUID;
+
+import at.if22b208.mtc.entity.User;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link UserCache}.
+ */
+class UserCacheTest {
+    private static User user(String username) {
+        return User.builder()
+                .uuid(UUID.randomUUID())
+                .username(username)
+                .balance(BigInteger.valueOf(20))
+                .deck(List.of())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Cached users are found by UUID and username and handed out as copies without deck")
+    void test_lookupReturnsCopies() {
+        UserCache cache = new UserCache(10, 60_000);
+        User kienboec = user("kienboec");
+        cache.put(kienboec, cache.getGeneration());
+
+        User byUsername = cache.getByUsername("kienboec");
+        assertEquals(kienboec.getUuid(), byUsername.getUuid());
+        assertNull(byUsername.getDeck());
+        assertNotSame(byUsername, cache.getById(kienboec.getUuid()));
+
+        byUsername.setBalance(BigInteger.ZERO);
+        assertEquals(BigInteger.valueOf(20), cache.getById(kienboec.getUuid()).getBalance());
+
+        assertNull(cache.getByUsername("altenhof"));
+        CacheMetrics metrics = cache.getMetrics();
+        assertEquals(3, metrics.getHits());
+        assertEquals(1, metrics.getMisses());
+        assertEquals(0.75, metrics.getHitRatio());
+    }
+
+    @Test
+    @DisplayName("The least recently used user is evicted when the cache is full")
+    void test_evictLeastRecentlyUsed() {
+        UserCache cache = new UserCache(2, 60_000);
+        User first = user("first");
+        User second = user("second");
+        cache.put(first, cache.getGeneration());
+        cache.put(second, cache.getGeneration());
+        cache.getById(first.getUuid());
+
+        cache.put(user("third"), cache.getGeneration());
+
+        assertNotNull(cache.getByUsername("first"));
+        assertNull(cache.getByUsername("second"));
+        assertEquals(1, cache.getMetrics().getEvictions());
+        assertEquals(2, cache.getMetrics().getSize());
+    }
+
+    @Test
+    @DisplayName("Invalidated users are removed and reads started before the invalidation are not cached")
+    void test_invalidate() {
+        UserCache cache = new UserCache(10, 60_000);
+        User kienboec = user("kienboec");
+        cache.put(kienboec, cache.getGeneration());
+
+        long staleGeneration = cache.getGeneration();
+        cache.invalidate(kienboec);
+        assertNull(cache.getById(kienboec.getUuid()));
+        assertNull(cache.getByUsername("kienboec"));
+
+        cache.put(kienboec, staleGeneration);
+        assertNull(cache.getById(kienboec.getUuid()));
+        assertEquals(1, cache.getMetrics().getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Expired users are read again")
+    void test_expire() throws InterruptedException {
+        UserCache cache = new UserCache(10, 1);
+        User kienboec = user("kienboec");
+        cache.put(kienboec, cache.getGeneration());
+
+        Thread.sleep(5);
+        assertNull(cache.getById(kienboec.getUuid()));
+        assertEquals(0, cache.getMetrics().getSize());
+    }
+}
@@ -0,0 +1,63 @@
+package at.if22b208.mtc.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import at.if22b208.mtc.config.SessionConstants;
+import at.if22b208.mtc.entity.User;
+import at.if22b208.mtc.server.http.Header;
+import at.if22b208.mtc.server.http.Method;
+import at.if22b208.mtc.server.http.Request;
+import at.if22b208.mtc.server.session.SessionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the signing key routes of the {@link SessionController}.
+ */
+class SessionControllerTest {
+    private static String login(String username) {
+        return SessionManager.getInstance().createSession(User.builder()
+                .uuid(UUID.randomUUID())
+                .username(username)
+                .build());
+    }
+
+    private static String send(Method method, String path, String token, String body) {
+        Request request = new Request();
+        request.setMethod(method);
+        request.setUrlContent(path);
+        request.getHeader().put(Header.AUTHORIZATION_HEADER, "Bearer " + token);
+        request.setBody(body);
+        byte[] response = SessionController.getInstance().handleRequest(request).getBytes(false);
+        // Status code of the status line, e.g. "HTTP/1.1 201 Created"
+        return new String(response, StandardCharsets.UTF_8).split(" ", 3)[1];
+    }
+
+    @Test
+    @DisplayName("The admin rotates and retires signing keys of the running server")
+    void test_rotateKeys() {
+        String admin = login(SessionConstants.ADMIN_USERNAME);
+        String user = login("kienboec");
+        String secret = Base64.getEncoder().encodeToString(new byte[32]);
+        String keyId = "k-" + UUID.randomUUID();
+
+        assertEquals("403", send(Method.POST, "/sessions/keys", user,
+                "{\"KeyId\": \"" + keyId + "\", \"Secret\": \"" + secret + "\"}"));
+        assertEquals("400", send(Method.POST, "/sessions/keys", admin,
+                "{\"KeyId\": \"" + keyId + "\", \"Secret\": \"c2hvcnQ=\"}"));
+        assertEquals("201", send(Method.POST, "/sessions/keys", admin,
+                "{\"KeyId\": \"" + keyId + "\", \"Secret\": \"" + secret + "\"}"));
+
+        String rotated = login("kienboec");
+        assertTrue(rotated.startsWith(keyId + "."));
+        assertTrue(SessionManager.getInstance().getSession(user).isPresent());
+
+        assertEquals("409", send(Method.DELETE, "/sessions/keys/" + keyId, admin, null));
+        assertEquals("404", send(Method.DELETE, "/sessions/keys/unknown", admin, null));
+    }
+}
@@ -0,0 +1,35 @@
+package at.if22b208.mtc.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import at.if22b208.mtc.config.DatabaseConstants;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the naming and ordering of the migrations applied by {@link MigrationRunner}.
+ */
+class MigrationRunnerTest {
+    @Test
+    @DisplayName("The version is parsed from the migration file name")
+    void test_parseVersion() {
+        assertEquals(1, MigrationRunner.parseVersion("V1__create_tables.sql"));
+        assertEquals(12, MigrationRunner.parseVersion("V12__indexes.sql"));
+        assertThrows(IllegalArgumentException.class, () -> MigrationRunner.parseVersion("create_tables.sql"));
+        assertThrows(IllegalArgumentException.class, () -> MigrationRunner.parseVersion("V1__indexes.txt"));
+    }
+
+    @Test
+    @DisplayName("All migrations exist and are listed in ascending version order")
+    void test_migrationsOrdered() {
+        int previous = 0;
+        for (String migration : DatabaseConstants.MIGRATIONS) {
+            int version = MigrationRunner.parseVersion(migration);
+            assertTrue(version > previous, migration + " is out of order");
+            assertNotNull(getClass().getClassLoader().getResource(DatabaseConstants.MIGRATION_LOCATION + migration),
+                    migration + " not found");
+            previous = version;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package at.if22b208.mtc.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the columnar {@link Result} and its {@link Row} cursor.
+ */
+class ResultTest {
+    private final UUID firstUuid = UUID.randomUUID();
+    private final UUID secondUuid = UUID.randomUUID();
+
+    private Result result;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(4);
+        when(metaData.getColumnLabel(1)).thenReturn("uuid");
+        when(metaData.getColumnType(1)).thenReturn(Types.OTHER);
+        when(metaData.getColumnTypeName(1)).thenReturn("uuid");
+        when(metaData.getColumnLabel(2)).thenReturn("name");
+        when(metaData.getColumnType(2)).thenReturn(Types.VARCHAR);
+        when(metaData.getColumnLabel(3)).thenReturn("elo");
+        when(metaData.getColumnType(3)).thenReturn(Types.INTEGER);
+        when(metaData.getColumnLabel(4)).thenReturn("balance");
+        when(metaData.getColumnType(4)).thenReturn(Types.BIGINT);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getObject(1, UUID.class)).thenReturn(firstUuid, secondUuid);
+        when(resultSet.getString(2)).thenReturn("kienboec", null);
+        when(resultSet.getInt(3)).thenReturn(1000, 0);
+        when(resultSet.getLong(4)).thenReturn(20L, 5L);
+        when(resultSet.wasNull()).thenReturn(false, false, true, false);
+
+        result = Result.read(resultSet);
+    }
+
+    @Test
+    @DisplayName("Values are read into typed columns")
+    void test_readTypedColumns() {
+        assertEquals(2, result.size());
+        assertEquals(4, result.getColumnCount());
+
+        Row row = result.getRow(0);
+        assertEquals(firstUuid, row.getUuid("uuid"));
+        assertEquals("kienboec", row.getString("name"));
+        assertEquals(1000, row.getInt("elo"));
+        assertEquals(20L, row.getLong("balance"));
+    }
+
+    @Test
+    @DisplayName("SQL NULL values are tracked per column")
+    void test_readNullValues() {
+        Row row = result.getRow(1);
+
+        assertTrue(row.isNull("name"));
+        assertNull(row.getString("name"));
+        assertTrue(row.isNull("elo"));
+        assertEquals(0, row.getInt("elo"));
+        assertFalse(row.isNull("balance"));
+        assertTrue(row.isNull("unknown"));
+    }
+
+    @Test
+    @DisplayName("Iterating the result reuses a single cursor")
+    void test_iterateWithCursor() {
+        List<UUID> uuids = new ArrayList<>();
+        Row first = null;
+        for (Row row : result) {
+            if (first == null) {
+                first = row;
+            }
+            assertSame(first, row);
+            uuids.add(row.getUuid(result.getColumnIndex("uuid")));
+        }
+
+        assertEquals(List.of(firstUuid, secondUuid), uuids);
+    }
+}
@@ -0,0 +1,124 @@
+package at.if22b208.mtc.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BattleKernel}.
+ */
+class BattleKernelTest {
+    private static final String[] NAMES = {
+            "WaterGoblin", "FireGoblin", "RegularGoblin", "Dragon", "FireElf", "Ork", "Wizard", "Knight", "Kraken",
+            "WaterSpell", "FireSpell", "RegularSpell"
+    };
+
+    private static final int BATTLES = 2000;
+
+    private static List<Card> deck(Random random, UUID owner, long seed) {
+        List<Card> deck = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            deck.add(Card.builder()
+                    .uuid(new UUID(seed, owner.getLeastSignificantBits() * 4 + i))
+                    .name(NAMES[random.nextInt(NAMES.length)])
+                    .damage(5 + random.nextInt(20) * 5)
+                    .userUuid(owner)
+                    .build());
+        }
+        return deck;
+    }
+
+    @Test
+    @DisplayName("Battles replayed with the same random numbers end as recorded")
+    void test_identicalOutcomes() {
+        long fingerprint = 17;
+        int[] outcomes = new int[3];
+        int rounds = 0;
+        for (long seed = 0; seed < BATTLES; seed++) {
+            Random random = new Random(seed);
+            User playerA = User.builder().uuid(new UUID(0, 1)).username("kienboec").build();
+            User playerB = User.builder().uuid(new UUID(0, 2)).username("altenhof").build();
+            playerA.setDeck(deck(random, playerA.getUuid(), seed));
+            playerB.setDeck(deck(random, playerB.getUuid(), seed));
+
+            Battle battle = new Battle();
+            battle.setPlayerA(playerA);
+            battle.setPlayerB(playerB);
+            battle.battle(random);
+
+            int outcome = battle.isDraw() ? 0 : battle.getWinner() == playerA ? 1 : 2;
+            outcomes[outcome]++;
+            rounds += battle.getRounds().size();
+            fingerprint = fingerprint * 31 + outcome;
+            fingerprint = fingerprint * 31 + battle.getRounds().size();
+            for (Card card : playerA.getDeck()) {
+                fingerprint = fingerprint * 31 + card.getUuid().hashCode();
+            }
+            fingerprint = fingerprint * 31 + 7;
+            for (Card card : playerB.getDeck()) {
+                fingerprint = fingerprint * 31 + card.getUuid().hashCode();
+            }
+        }
+        // Recorded once the damage of a round was computed from the base damage instead of compounding
+        assertArrayEquals(new int[]{1657, 186, 157}, outcomes);
+        assertEquals(167_648, rounds);
+        assertEquals(5649831243281694187L, fingerprint);
+    }
+
+    @Test
+    @DisplayName("The losing card moves to the end of the winner's deck")
+    void test_overtakeCard() {
+        UUID playerA = UUID.randomUUID();
+        UUID playerB = UUID.randomUUID();
+        Card dragon = Card.builder().uuid(UUID.randomUUID()).name("Dragon").damage(50).userUuid(playerA).build();
+        Card goblin = Card.builder().uuid(UUID.randomUUID()).name("FireGoblin").damage(80).userUuid(playerB).build();
+        BattleKernel kernel = new BattleKernel(1);
+
+        // Reloading a used kernel starts over
+        kernel.load(playerA, List.of(goblin), playerB, List.of(dragon));
+        kernel.fight(new Random(0));
+        kernel.load(playerA, List.of(dragon), playerB, List.of(goblin));
+
+        assertEquals(BattleKernel.PLAYER_A, kernel.fight(new Random(0)));
+        assertEquals(1, kernel.getRoundsPlayed());
+        assertEquals(BattleKernel.PLAYER_A, kernel.getRoundWinner(0));
+        assertSame(dragon, kernel.getCard(kernel.getRoundCard(0, BattleKernel.PLAYER_A)));
+        assertSame(goblin, kernel.getCard(kernel.getRoundCard(0, BattleKernel.PLAYER_B)));
+        assertEquals(0, kernel.getRoundDamage(0, BattleKernel.PLAYER_B));
+        assertEquals(0, kernel.getDeckSize(BattleKernel.PLAYER_B));
+        assertEquals(2, kernel.getDeckSize(BattleKernel.PLAYER_A));
+        assertSame(goblin, kernel.getCard(kernel.getDeckCard(BattleKernel.PLAYER_A, 1)));
+        // The cards are left untouched
+        assertEquals(80, goblin.getDamage());
+    }
+
+    @Test
+    @DisplayName("The damage of a round does not carry over to the next round")
+    void test_damageDoesNotCompound() {
+        UUID playerA = UUID.randomUUID();
+        UUID playerB = UUID.randomUUID();
+        // Effective against water, 10 fights as 20; not effective against normal, 40 fights as 20
+        Card regularSpell = Card.builder().uuid(UUID.randomUUID()).name("RegularSpell").damage(10).userUuid(playerA)
+                .build();
+        Card waterSpell = Card.builder().uuid(UUID.randomUUID()).name("WaterSpell").damage(40).userUuid(playerB)
+                .build();
+        BattleKernel kernel = new BattleKernel();
+        kernel.load(playerA, List.of(regularSpell), playerB, List.of(waterSpell));
+
+        assertEquals(BattleKernel.NONE, kernel.fight(new Random(0)));
+        for (int round = 0; round < kernel.getRoundsPlayed(); round++) {
+            assertEquals(BattleKernel.NONE, kernel.getRoundWinner(round));
+            assertEquals(20, kernel.getRoundDamage(round, BattleKernel.PLAYER_A));
+            assertEquals(20, kernel.getRoundDamage(round, BattleKernel.PLAYER_B));
+        }
+        assertEquals(10, kernel.getBaseDamage(kernel.getRoundCard(0, BattleKernel.PLAYER_A)));
+        assertEquals(10, regularSpell.getDamage());
+        assertEquals(40, waterSpell.getDamage());
+    }
+}
@@ -0,0 +1,61 @@
+package at.if22b208.mtc.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BattleLog}.
+ */
+class BattleLogTest {
+    @Test
+    @DisplayName("A decoded log yields the rounds of the battle it was recorded from")
+    void test_decodeRecordedLog() {
+        User playerA = User.builder().uuid(UUID.randomUUID()).username("kienboec").build();
+        User playerB = User.builder().uuid(UUID.randomUUID()).username("altenhof").build();
+        Card dragon = Card.builder().uuid(UUID.randomUUID()).name("Dragon").damage(50).userUuid(playerA.getUuid())
+                .build();
+        Card goblin = Card.builder().uuid(UUID.randomUUID()).name("FireGoblin").damage(80)
+                .userUuid(playerB.getUuid()).build();
+        playerA.setDeck(new ArrayList<>(List.of(dragon)));
+        playerB.setDeck(new ArrayList<>(List.of(goblin)));
+
+        Battle battle = new Battle();
+        battle.setPlayerA(playerA);
+        battle.setPlayerB(playerB);
+        battle.battle(new Random(0));
+
+        BattleLog recorded = battle.getRounds();
+        BattleLog log = BattleLog.decode(recorded.getUuid(), recorded.getPlayerAUuid(), recorded.getPlayerBUuid(),
+                recorded.getWinnerUuid(), recorded.getBytes().clone());
+
+        assertEquals(battle.getUuid(), log.getUuid());
+        assertEquals(playerA.getUuid(), log.getWinnerUuid());
+        assertFalse(log.isDraw());
+        assertTrue(log.isPlayer(playerB.getUuid()));
+        assertFalse(log.isPlayer(UUID.randomUUID()));
+        assertEquals(1, log.size());
+        assertEquals(1, log.getNumber(0));
+        assertEquals(dragon.getUuid(), log.getCardUuid(0, BattleKernel.PLAYER_A));
+        assertEquals(goblin.getName(), log.getCardName(0, BattleKernel.PLAYER_B));
+        assertEquals(80, log.getCardDamage(0, BattleKernel.PLAYER_B));
+        assertEquals(0, log.getDamage(0, BattleKernel.PLAYER_B));
+        assertEquals(BattleKernel.PLAYER_A, log.getWinner(0));
+    }
+
+    @Test
+    @DisplayName("Bytes of an unknown version are rejected")
+    void test_rejectUnknownVersion() {
+        UUID uuid = UUID.randomUUID();
+        assertThrows(IllegalArgumentException.class,
+                () -> BattleLog.decode(uuid, uuid, uuid, null, new byte[]{9, 0, 0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> BattleLog.decode(uuid, uuid, uuid, null, new byte[]{1, 1}));
+    }
+}
@@ -0,0 +1,58 @@
+package at.if22b208.mtc.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import at.if22b208.mtc.cache.CardDefinition;
+import at.if22b208.mtc.entity.enumeration.CardElementType;
+import at.if22b208.mtc.entity.enumeration.CardName;
+import at.if22b208.mtc.entity.enumeration.CardType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link CardTraits} derived from card names.
+ */
+class CardTraitsTest {
+    @Test
+    @DisplayName("Type and element are derived from the name")
+    void test_deriveTypeAndElement() {
+        CardTraits waterSpell = CardTraits.of("WaterSpell");
+        assertEquals("waterspell", waterSpell.name());
+        assertEquals(CardType.SPELL, waterSpell.cardType());
+        assertEquals(CardElementType.WATER, waterSpell.elementType());
+
+        CardTraits dragon = CardTraits.of("Dragon");
+        assertEquals(CardType.MONSTER, dragon.cardType());
+        assertEquals(CardElementType.NORMAL, dragon.elementType());
+    }
+
+    @Test
+    @DisplayName("Special creatures are matched by keyword, water spell and fire elf by exact name")
+    void test_deriveCreatures() {
+        assertTrue(CardTraits.of("WaterGoblin").is(CardName.GOBLIN));
+        assertFalse(CardTraits.of("WaterGoblin").is(CardName.DRAGON));
+        assertTrue(CardTraits.of("WaterSpell").is(CardName.WATER_SPELL));
+        assertFalse(CardTraits.of("RegularWaterSpell").is(CardName.WATER_SPELL));
+        assertTrue(CardTraits.of("FireElf").is(CardName.FIRE_ELF));
+        assertFalse(CardTraits.of("FireElves").is(CardName.FIRE_ELF));
+    }
+
+    @Test
+    @DisplayName("Traits are shared per name and carried over to cards built from a definition")
+    void test_sharedTraits() {
+        assertSame(CardTraits.of("Kraken"), CardTraits.of("Kraken"));
+
+        Card card = Card.builder().uuid(UUID.randomUUID()).name("Kraken").damage(10).packageId(1).build();
+        UUID owner = UUID.randomUUID();
+        Card copy = CardDefinition.of(card).toCard(owner);
+
+        assertEquals("kraken", copy.getName());
+        assertTrue(copy.is(CardName.KRAKEN));
+        assertEquals(card.getDamage(), copy.getDamage());
+        assertEquals(owner, copy.getUserUuid());
+        assertNotSame(card, copy);
+    }
+}
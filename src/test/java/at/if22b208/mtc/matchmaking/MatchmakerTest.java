@@ -0,0 +1,122 @@
+package at.if22b208.mtc.matchmaking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import at.if22b208.mtc.entity.User;
+import at.if22b208.mtc.exception.MatchmakingException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Matchmaker}.
+ */
+class MatchmakerTest {
+    private static User user(String username) {
+        return user(username, 100);
+    }
+
+    private static User user(String username, int elo) {
+        return User.builder()
+                .uuid(UUID.randomUUID())
+                .username(username)
+                .elo(elo)
+                .build();
+    }
+
+    @Test
+    @DisplayName("The second player is paired with the waiting player")
+    void test_pairPlayers()
+            throws MatchmakingException {
+        Matchmaker matchmaker = new Matchmaker(60_000, (a, b) -> fail("Unexpected sweep"));
+        User kienboec = user("kienboec");
+
+        MatchTicket waiting = matchmaker.join(kienboec);
+        assertNull(waiting.getOpponent());
+        assertTrue(matchmaker.hasWaitingPlayer());
+        assertThrows(MatchmakingException.class, () -> matchmaker.join(kienboec));
+
+        MatchTicket paired = matchmaker.join(user("altenhof"));
+        assertSame(waiting, paired.getOpponent());
+        assertFalse(matchmaker.hasWaitingPlayer());
+        assertFalse(waiting.getResult().isDone());
+    }
+
+    @Test
+    @DisplayName("A waiting player leaves the queue on timeout")
+    void test_timeout()
+            throws MatchmakingException {
+        Matchmaker matchmaker = new Matchmaker(10, (a, b) -> fail("Unexpected sweep"));
+
+        MatchTicket waiting = matchmaker.join(user("kienboec"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> waiting.getResult().get());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertFalse(matchmaker.hasWaitingPlayer());
+        assertNull(matchmaker.join(user("altenhof")).getOpponent());
+    }
+
+    @Test
+    @DisplayName("A waiting player leaves the queue when the result is cancelled")
+    void test_cancel()
+            throws MatchmakingException {
+        Matchmaker matchmaker = new Matchmaker(60_000, (a, b) -> fail("Unexpected sweep"));
+
+        MatchTicket waiting = matchmaker.join(user("kienboec"));
+        waiting.getResult().cancel(false);
+
+        assertFalse(matchmaker.hasWaitingPlayer());
+        assertNull(matchmaker.join(user("altenhof")).getOpponent());
+    }
+
+    @Test
+    @DisplayName("A player is paired with the closest waiting player within the window")
+    void test_closestOpponent()
+            throws MatchmakingException {
+        Matchmaker matchmaker = new Matchmaker(60_000, 50, 0, 800, 60_000, (a, b) -> fail("Unexpected sweep"));
+
+        MatchTicket far = matchmaker.join(user("far", 1000));
+        MatchTicket close = matchmaker.join(user("close", 1080));
+        MatchTicket closer = matchmaker.join(user("closer", 1170));
+
+        // 50 points above "close" and 40 points below "closer"
+        assertSame(closer, matchmaker.join(user("newcomer", 1130)).getOpponent());
+        // Out of every window
+        assertNull(matchmaker.join(user("outlier", 1600)).getOpponent());
+        assertSame(close, matchmaker.join(user("challenger", 1050)).getOpponent());
+        assertTrue(matchmaker.hasWaitingPlayer());
+        assertFalse(far.getResult().isDone());
+
+        MatchmakingMetrics metrics = matchmaker.getMetrics();
+        assertEquals(2, metrics.getMatches());
+        assertEquals(2, metrics.getWaiting());
+        assertEquals(35, metrics.getAverageRatingSpread());
+        assertEquals(40, metrics.getMaxRatingSpread());
+    }
+
+    @Test
+    @DisplayName("Waiting players are paired once their windows have widened")
+    void test_widenWindow()
+            throws Exception {
+        CompletableFuture<MatchTicket[]> swept = new CompletableFuture<>();
+        // Widens by 1000 points per second, up to 800
+        Matchmaker matchmaker = new Matchmaker(60_000, 50, 1000, 800, 10,
+                (a, b) -> swept.complete(new MatchTicket[]{a, b}));
+
+        MatchTicket veteran = matchmaker.join(user("veteran", 1600));
+        MatchTicket newcomer = matchmaker.join(user("newcomer", 900));
+        assertNull(newcomer.getOpponent());
+
+        MatchTicket[] pair = swept.get(5, TimeUnit.SECONDS);
+        assertSame(veteran, pair[0]);
+        assertSame(newcomer, pair[1]);
+        assertFalse(matchmaker.hasWaitingPlayer());
+        assertEquals(700, matchmaker.getMetrics().getMaxRatingSpread());
+    }
+}
@@ -0,0 +1,77 @@
+package at.if22b208.mtc.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import at.if22b208.mtc.server.http.ContentType;
+import at.if22b208.mtc.server.http.HttpStatus;
+import at.if22b208.mtc.server.http.Response;
+import at.if22b208.mtc.server.util.RequestExecutor;
+import at.if22b208.mtc.server.util.Router;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Server}.
+ */
+class ServerTest {
+    private static final String REQUEST = "GET /ping HTTP/1.1\r\nConnection: keep-alive\r\n\r\n";
+
+    @Test
+    @DisplayName("An idle keep-alive connection does not keep other clients from being served in blocking mode")
+    void test_idleKeepAliveConnection()
+            throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        Router router = new Router();
+        router.addController("/ping", request -> new Response(HttpStatus.OK, ContentType.PLAIN_TEXT, "pong"));
+        // A single worker, which the idle connection would occupy for the whole keep-alive timeout
+        Server server = new Server(port, router, ServerMode.BLOCKING, RequestExecutor.fixedPool(1, 10));
+        Thread thread = new Thread(server::start, "server-test");
+        thread.setDaemon(true);
+        thread.start();
+
+        try (Socket idle = connect(port); Socket other = connect(port)) {
+            String first = exchange(idle);
+            assertTrue(first.contains("Connection: close"));
+            assertTrue(first.endsWith("pong"));
+
+            // Well below the keep-alive timeout of 5 seconds
+            other.setSoTimeout(2000);
+            assertTrue(exchange(other).endsWith("pong"));
+        }
+    }
+
+    private static Socket connect(int port)
+            throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return new Socket("localhost", port);
+            } catch (IOException e) {
+                if (attempt == 50) {
+                    fail("Server did not start: " + e.getMessage());
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    /**
+     * Sends a request and reads the response until the server closes the connection.
+     */
+    private static String exchange(Socket socket)
+            throws IOException {
+        socket.getOutputStream().write(REQUEST.getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        InputStream in = socket.getInputStream();
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
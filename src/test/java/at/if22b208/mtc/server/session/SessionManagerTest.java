@@ -0,0 +1,84 @@
+package at.if22b208.mtc.server.session;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import at.if22b208.mtc.entity.User;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SessionManager} and its {@link TokenSigner}.
+ */
+class SessionManagerTest {
+    private static User user(String username) {
+        return User.builder()
+                .uuid(UUID.randomUUID())
+                .username(username)
+                .build();
+    }
+
+    private static byte[] key(int value) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) value);
+        return key;
+    }
+
+    @Test
+    @DisplayName("A token, with or without Bearer prefix, carries the claims of the session")
+    void test_lookupSession() {
+        SessionManager sessions = new SessionManager(new TokenSigner("k1", key(1)), 60_000);
+        User kienboec = user("kienboec|mtcg");
+
+        String token = sessions.createSession(kienboec);
+
+        UserSession session = sessions.getSession(token).orElseThrow();
+        assertEquals(kienboec.getUuid(), session.getUserUuid());
+        assertEquals("kienboec|mtcg", session.getUsername());
+        assertFalse(session.isAdmin());
+        assertTrue(sessions.getSession("Bearer " + token).isPresent());
+        assertTrue(sessions.getSession(sessions.createSession(user("admin"))).orElseThrow().isAdmin());
+    }
+
+    @Test
+    @DisplayName("Tokens that are expired, forged or malformed are rejected")
+    void test_rejectInvalidTokens() {
+        SessionManager sessions = new SessionManager(new TokenSigner("k1", key(1)), 60_000);
+        String token = sessions.createSession(user("kienboec"));
+        String[] parts = token.split("\\.");
+
+        SessionManager other = new SessionManager(new TokenSigner("k1", key(2)), 60_000);
+        String forged = parts[0] + "." + other.createSession(user("admin")).split("\\.")[1] + "." + parts[2];
+
+        assertTrue(sessions.getSession(forged).isEmpty());
+        assertTrue(sessions.getSession(other.createSession(user("kienboec"))).isEmpty());
+        assertTrue(sessions.getSession("kienboec-mtcgToken").isEmpty());
+        assertTrue(sessions.getSession("k1.%%%.%%%").isEmpty());
+        assertTrue(sessions.getSession(null).isEmpty());
+
+        SessionManager expiring = new SessionManager(new TokenSigner("k1", key(1)), 0);
+        assertTrue(expiring.getSession(expiring.createSession(user("kienboec"))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Tokens signed with a rotated key stay valid until the key is retired")
+    void test_rotateKeys() {
+        SessionManager sessions = new SessionManager(new TokenSigner("k1", key(1)), 60_000);
+        String old = sessions.createSession(user("kienboec"));
+
+        sessions.rotateKey("k2", key(2));
+        String current = sessions.createSession(user("kienboec"));
+
+        assertTrue(current.startsWith("k2."));
+        assertTrue(sessions.getSession(old).isPresent());
+        assertThrows(IllegalArgumentException.class, () -> sessions.retireKey("k2"));
+        assertThrows(IllegalArgumentException.class, () -> sessions.rotateKey("k3", new byte[8]));
+
+        assertTrue(sessions.retireKey("k1"));
+        assertTrue(sessions.getSession(old).isEmpty());
+        assertTrue(sessions.getSession(current).isPresent());
+    }
+}
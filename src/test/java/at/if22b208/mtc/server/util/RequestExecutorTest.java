@@ -0,0 +1,55 @@
+package at.if22b208.mtc.server.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import at.if22b208.mtc.server.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RequestExecutor}.
+ */
+class RequestExecutorTest {
+    @Test
+    @DisplayName("Requests beyond the permits wait without a thread and are rejected once the queue is full")
+    void test_queueWithoutThreads()
+            throws Exception {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService delegate = Executors.newCachedThreadPool(runnable -> {
+            threads.incrementAndGet();
+            return new Thread(runnable);
+        });
+        RequestExecutor executor = new RequestExecutor(ExecutionMode.PER_REQUEST, delegate, 1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        executor.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        executor.execute(done::countDown);
+        executor.execute(done::countDown);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(done::countDown));
+        assertEquals(1, threads.get());
+        assertEquals(2, executor.getQueueDepth());
+        assertEquals(1, executor.getRejected());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getQueueDepth());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,116 @@
+package at.if22b208.mtc.server.util;
+
+import at.if22b208.mtc.config.ServerConstants;
+import at.if22b208.mtc.server.http.Method;
+import at.if22b208.mtc.server.http.Request;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RequestParser}.
+ * These tests cover complete, fragmented, pipelined and malformed requests.
+ */
+class RequestParserTest {
+    private final RequestParser parser = new RequestParser();
+
+    @Test
+    @DisplayName("Parsing a request without body")
+    void test_parseRequestWithoutBody() {
+        Request request = parser.parse(buffer("GET /cards?format=plain HTTP/1.1\r\nauthorization: Bearer a-mtcgToken\r\n\r\n"));
+
+        assertNotNull(request);
+        assertEquals(Method.GET, request.getMethod());
+        assertEquals("/cards", request.getPathname());
+        assertEquals("format=plain", request.getParams());
+        assertEquals(Request.HTTP_1_1, request.getVersion());
+        assertEquals("Bearer a-mtcgToken", request.getHeader().getHeader("Authorization"));
+        assertEquals("", request.getBody());
+    }
+
+    @Test
+    @DisplayName("Content-Length is counted in bytes")
+    void test_parseMultiByteBody() {
+        String body = "{\"Name\":\"Grüße\"}";
+        int length = body.getBytes(StandardCharsets.UTF_8).length;
+
+        Request request = parser.parse(buffer("POST /users HTTP/1.1\r\nContent-Length: " + length + "\r\n\r\n" + body));
+
+        assertNotNull(request);
+        assertEquals(body.toLowerCase(), request.getBody());
+    }
+
+    @Test
+    @DisplayName("Parsing a request received in single bytes")
+    void test_parseFragmentedRequest() {
+        byte[] bytes = "POST /sessions HTTP/1.0\r\nContent-Length: 4\r\n\r\nbody".getBytes(StandardCharsets.UTF_8);
+
+        Request request = null;
+        for (int i = 0; i < bytes.length; i++) {
+            assertNull(request);
+            request = parser.parse(ByteBuffer.wrap(bytes, i, 1));
+        }
+
+        assertNotNull(request);
+        assertEquals(Request.HTTP_1_0, request.getVersion());
+        assertEquals("body", request.getBody());
+        assertFalse(parser.isPartial());
+    }
+
+    @Test
+    @DisplayName("Pipelined requests are parsed one after another")
+    void test_parsePipelinedRequests() {
+        ByteBuffer buffer = buffer("POST /a HTTP/1.1\r\nContent-Length: 1\r\n\r\nxGET /b HTTP/1.1\r\n\r\n");
+
+        Request first = parser.parse(buffer);
+        Request second = parser.parse(buffer);
+
+        assertEquals("/a", first.getPathname());
+        assertEquals("x", first.getBody());
+        assertEquals("/b", second.getPathname());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Malformed requests are rejected")
+    void test_parseMalformedRequest() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(buffer("FETCH /cards HTTP/1.1\r\n")));
+
+        parser.reset();
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(buffer("GET /cards HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n")));
+    }
+
+    @Test
+    @DisplayName("A body larger than the initial buffer is collected from fragments")
+    void test_parseFragmentedLargeBody() {
+        String body = "x".repeat(20_000) + "y";
+        ByteBuffer buffer = buffer("POST /packages HTTP/1.1\r\nContent-Length: " + body.length() + "\r\n\r\n" + body);
+
+        Request request = null;
+        while (request == null) {
+            ByteBuffer fragment = buffer.slice();
+            fragment.limit(Math.min(fragment.remaining(), 3000));
+            request = parser.parse(fragment);
+            buffer.position(buffer.position() + fragment.position());
+        }
+
+        assertEquals(body, request.getBody());
+    }
+
+    @Test
+    @DisplayName("Bodies announced beyond the maximum size are rejected")
+    void test_rejectOversizedBody() {
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(buffer("POST /users HTTP/1.1\r\nContent-Length: " +
+                        (ServerConstants.MAX_BODY_SIZE + 1) + "\r\n\r\n")));
+    }
+
+    private static ByteBuffer buffer(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package at.if22b208.mtc.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BattleExecutor}.
+ */
+class BattleExecutorTest {
+    @Test
+    @DisplayName("Results and exceptions of tasks are handed back through the future")
+    void test_submit()
+            throws Exception {
+        BattleExecutor executor = new BattleExecutor(1, 1);
+
+        CompletableFuture<String> result = executor.submit(() -> Thread.currentThread().getName());
+        CompletableFuture<String> failure = executor.submit(() -> {
+            throw new IllegalStateException("Deck is empty.");
+        });
+
+        assertTrue(result.get().startsWith("battle-"));
+        ExecutionException e = assertThrows(ExecutionException.class, failure::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Battles beyond the busy threads and the full queue are rejected")
+    void test_rejectWhenSaturated()
+            throws Exception {
+        BattleExecutor executor = new BattleExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> running = executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = executor.submit(() -> true);
+        CompletableFuture<Boolean> rejected = executor.submit(() -> true);
+
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, executor.getRejected());
+
+        release.countDown();
+        assertTrue(running.get());
+        assertTrue(queued.get());
+    }
+}
@@ -0,0 +1,63 @@
+package at.if22b208.mtc.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import at.if22b208.mtc.exception.HashingException;
+import at.if22b208.mtc.exception.HashingRejectedException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link HashingExecutor}.
+ */
+class HashingExecutorTest {
+    @Test
+    @DisplayName("Hashes match the hashes computed on the calling thread and depend on the iterations")
+    void test_hash()
+            throws HashingException, HashingRejectedException {
+        HashingExecutor executor = new HashingExecutor(1, 1);
+        String salt = HashingUtils.generateSalt("kienboec");
+
+        String hash = executor.hash("daniel", salt, 1000);
+
+        assertEquals(HashingUtils.hash("daniel", salt, 1000), hash);
+        assertNotEquals(HashingUtils.hash("daniel", salt, 2000), hash);
+        assertEquals(HashingUtils.hash("daniel", salt), HashingUtils.hash("daniel", salt, HashingUtils.getIterations()));
+    }
+
+    @Test
+    @DisplayName("Hashes beyond the busy threads and the full queue are rejected")
+    void test_rejectWhenSaturated() {
+        HashingExecutor executor = new HashingExecutor(1, 1);
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                    executor.hash("daniel", "salt", 2_000_000);
+                    return true;
+                } catch (HashingRejectedException e) {
+                    return false;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, clients));
+        }
+        start.countDown();
+
+        long accepted = results.stream().filter(CompletableFuture::join).count();
+        assertTrue(accepted >= 1 && accepted < 4);
+        assertEquals(4 - accepted, executor.getRejected());
+        clients.shutdown();
+    }
+}